@@ -2,14 +2,23 @@ package com.abyssworks.timetracker;
 
 import com.abyssworks.timetracker.model.data.DataManager;
 import com.abyssworks.timetracker.model.data.Ticket;
+import com.abyssworks.timetracker.model.event.ModelEvent;
+import com.abyssworks.timetracker.model.event.ModelEventBus;
+import com.abyssworks.timetracker.model.search.SearchIndex;
 import com.abyssworks.timetracker.model.week.Card;
+import com.abyssworks.timetracker.model.week.ModelHistory;
+import com.abyssworks.timetracker.model.week.RecurrenceManager;
+import com.abyssworks.timetracker.model.week.RecurrenceRule;
 import com.abyssworks.timetracker.model.week.WeekManager;
 import com.abyssworks.timetracker.util.Time;
 import com.abyssworks.timetracker.view.ColourTheme;
 import com.abyssworks.timetracker.view.GUI;
 
-import java.text.DateFormat;
-import java.text.SimpleDateFormat;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeFormatterBuilder;
+import java.time.format.SignStyle;
+import java.time.temporal.ChronoField;
+import java.util.List;
 import java.util.Set;
 
 /**
@@ -22,8 +31,14 @@ public class TimeTracker {
     public static final String VERSION = "v0.2.0";
     public static final int MINIMUM_MINUTE_GAP = 10;
     public static final int MAXIMUM_MINUTE_GAP = 60;
-    public static final DateFormat DATE_FORMAT = new SimpleDateFormat("dd/MMM/yyyy");
-    public static final DateFormat JSON_DATE_FORMAT = new SimpleDateFormat("dd/MM/yyyy");
+    public static final DateTimeFormatter DATE_FORMAT = DateTimeFormatter.ofPattern("dd/MMM/yyyy");
+    public static final DateTimeFormatter JSON_DATE_FORMAT = DateTimeFormatter.ofPattern("dd/MM/yyyy");
+    // Reads the dates typed in the DATE_FORMAT, in any case, with or without a leading zero and with short or full month names.
+    public static final DateTimeFormatter DATE_INPUT_FORMAT = new DateTimeFormatterBuilder()
+            .parseCaseInsensitive()
+            .appendValue(ChronoField.DAY_OF_MONTH, 1, 2, SignStyle.NOT_NEGATIVE)
+            .appendPattern("/[MMMM][MMM]/yyyy")
+            .toFormatter();
 
     private static GUI gui;
     private static String userName;
@@ -67,9 +82,14 @@ public class TimeTracker {
      * Loads the user's worklogs into memory.
      */
     private static void loadWorklogs() {
-        for (Card card : TimeTracker.dataManager.getCards()) {
-            WeekManager.addCard(card);
-        }
+        WeekManager.loadCards(TimeTracker.dataManager.getCards());
+        RecurrenceManager.addRules(TimeTracker.dataManager.getRecurrences());
+        // Loading the worklogs is not a change the user can undo.
+        ModelHistory.clear();
+        // Builds the search index in the background, so the first search does not wait for it.
+        Thread indexThread = new Thread(SearchIndex::initialize, "Search Index");
+        indexThread.setDaemon(true);
+        indexThread.start();
     }
 
     /**
@@ -77,6 +97,7 @@ public class TimeTracker {
      */
     public static void loadEpicsData() {
         TimeTracker.dataManager.loadEpicsData();
+        ModelEventBus.publish(ModelEvent.ticketsChanged());
     }
 
     /**
@@ -88,23 +109,46 @@ public class TimeTracker {
         return TimeTracker.dataManager.getAllTickets();
     }
 
+    /**
+     * Finds the tickets that best match the text typed.
+     *
+     * @param text The text typed.
+     * @param maxResults The maximum number of tickets to return.
+     * @return The matching tickets, best match first.
+     */
+    public static List<Ticket> findTickets(String text, int maxResults) {
+        return TimeTracker.dataManager.findTickets(text, maxResults);
+    }
+
+    /**
+     * Finds the ticket whose tag is the text typed, ignoring case.
+     *
+     * @param text The text typed.
+     * @return The ticket, or null if no ticket has the tag.
+     */
+    public static Ticket findTicket(String text) {
+        return TimeTracker.dataManager.findTicket(text);
+    }
+
     /**
      * Saves the data from the current session.
      *
      * @param cards The cards stored in the current session.
+     * @param recurrences The recurrence rules stored in the current session.
      */
-    public static void saveWorklogs(Set<Card> cards) {
-        TimeTracker.dataManager.saveWorklogsToFile(cards);
+    public static void saveWorklogs(Set<Card> cards, List<RecurrenceRule> recurrences) {
+        TimeTracker.dataManager.saveWorklogsToFile(cards, recurrences);
     }
 
     /**
      * Check if any changes have been made to the work logs
      *
      * @param cards The current worklogs
+     * @param recurrences The current recurrence rules
      * @return True if changes have been made
      */
-    public static boolean changesMadeToWorklog(Set<Card> cards) {
-        return TimeTracker.dataManager.changesMadeToWorklog(cards);
+    public static boolean changesMadeToWorklog(Set<Card> cards, List<RecurrenceRule> recurrences) {
+        return TimeTracker.dataManager.changesMadeToWorklog(cards, recurrences);
     }
 
     /** Updates the username. */
@@ -2,15 +2,15 @@ package com.abyssworks.timetracker.controller.mouse;
 
 import com.abyssworks.timetracker.TimeTracker;
 import com.abyssworks.timetracker.model.week.Card;
-import com.abyssworks.timetracker.view.GUI;
+import com.abyssworks.timetracker.model.week.DragTransaction;
 import com.abyssworks.timetracker.view.popup.CardContextMenu;
+import com.abyssworks.timetracker.view.week.CardHitIndex;
 import com.abyssworks.timetracker.view.week.WeekHeader;
 import com.abyssworks.timetracker.view.week.WeekRenderer;
 
 import javax.swing.*;
 import javax.swing.event.ChangeEvent;
 import java.awt.*;
-import java.awt.event.KeyEvent;
 import java.awt.event.MouseEvent;
 
 /**
@@ -22,19 +22,32 @@ import java.awt.event.MouseEvent;
 public class WeekMouseListener extends MouseActivityListener {
     private enum DragType { Move, Resize }
 
+    /** The shortest time in milliseconds between two updates of the week for the mouse's movements. */
+    public static final int FRAME_INTERVAL = 16;
+
+    private final WeekHeader weekHeader;
     private final WeekRenderer weekRenderer;
 
     private DragType dragType;
-    private Card cardSelected = null;
+    private DragTransaction drag = null;
     private Integer timeIndexAtMouse = null;
-    private Card copyOfCardSelected = null;
 
     private Card contextMenuCard = null;
 
     private boolean lastEscStatus = false;
     private boolean mouseInWindow = false;
     private boolean mousePressed = false;
-    private MouseEvent lastMotionEvent = null;
+
+    // The latest state of the pointer, relative to the week header. Every
+    // movement replaces it and it is handled at most once per frame.
+    private final Timer frameTimer;
+    private long lastFrameTime = 0;
+    private boolean pointerUpdatePending = false;
+    private boolean pointerKnown = false;
+    private int pointerXPos;
+    private int pointerYPos;
+    private boolean pointerAltDown = false;
+    private boolean pointerScrolled = false;
 
     private boolean forceAlt = false;
     private boolean disableListener = false;
@@ -46,58 +59,82 @@ public class WeekMouseListener extends MouseActivityListener {
      */
     public WeekMouseListener(WeekHeader weekHeader) {
         super(weekHeader);
-        this.weekRenderer = weekHeader.getView();
+        this.weekHeader = weekHeader;
+        this.weekRenderer = weekHeader.getWeekRenderer();
+        this.frameTimer = new Timer(WeekMouseListener.FRAME_INTERVAL, e -> this.processPointer());
+        this.frameTimer.setRepeats(false);
     }
 
     /**
-     * Checks if the mouse position is within the week view.
+     * Checks if the pointer's position is within the week view.
      *
-     * @param e The mouse event.
-     * @return True if the mouse's position is valid.
+     * @return True if the pointer's position is invalid.
      */
-    private boolean isMousePosInvalid(MouseEvent e) {
+    private boolean isMousePosInvalid() {
         if (!this.mouseInWindow) return true;
-        return e.getX() <= WeekRenderer.TIME_BAR_WIDTH || e.getY() <= WeekHeader.HEADER_HEIGHT;
+        return this.pointerXPos <= WeekRenderer.TIME_BAR_WIDTH || this.pointerYPos <= WeekHeader.HEADER_HEIGHT;
     }
 
     /**
-     * Calculate the mouse's true coordinates by taking the scrolled
+     * Calculate the pointer's true coordinates by taking the scrolled
      * area into consideration.
      *
-     * @param e The mouse event.
-     * @return The mouse's true coordinates.
+     * @return The pointer's true coordinates.
      */
-    private Point getMousePos(MouseEvent e) {
-        int xPos = e.getX() - WeekRenderer.TIME_BAR_WIDTH;
-        int yPos = e.getY() + ((WeekHeader)e.getSource()).getViewPosition().y - WeekHeader.HEADER_HEIGHT;
+    private Point getMousePos() {
+        int xPos = this.pointerXPos - WeekRenderer.TIME_BAR_WIDTH;
+        int yPos = this.pointerYPos + this.weekHeader.getViewPosition().y - WeekHeader.HEADER_HEIGHT;
         return new Point(xPos, yPos);
     }
 
     /**
-     * Calculates the day's index based on the mouse's horizontal
-     * position.
+     * Records the pointer's state from the mouse event passed,
+     * without handling it.
      *
-     * @param xPos The mouse's x coordinate.
-     * @return The day's index.
+     * @param e The mouse event.
      */
-    private int getDayIndexFromMouseXPos(int xPos) {
-        double dayWidth = (this.weekRenderer.getWidth() - WeekRenderer.TIME_BAR_WIDTH) / 7.0;
-        int dayIndex = (int) (xPos / dayWidth);
-        dayIndex = Math.max(dayIndex, 0);
-        dayIndex = Math.min(dayIndex, 6);
-        return dayIndex;
+    private void setPointer(MouseEvent e) {
+        this.pointerKnown = true;
+        this.pointerXPos = e.getX();
+        this.pointerYPos = e.getY();
+        this.pointerAltDown = e.isAltDown();
+        this.pointerScrolled = false;
     }
 
     /**
-     * Calculates the time bar's index based on the mouse's
-     * vertical position.
-     *
-     * @param yPos The mouse's y coordinate.
-     * @return The time bar's index.
+     * Schedules the pointer's state to be handled. Requests made
+     * before it is handled are merged, and it is handled no sooner
+     * than a frame after it was last handled, so a flood of mouse
+     * events costs a single update per frame.
      */
-    private int getTimeIndexFromMouseYPos(int yPos) {
-        double timeIndex = (double) yPos / (GUI.getPixPerMin() * TimeTracker.getMinuteGap());
-        return (int) Math.floor(timeIndex + 0.3);
+    private void requestPointerUpdate() {
+        if (this.pointerUpdatePending) return;
+        this.pointerUpdatePending = true;
+        long millisSinceLastFrame = (System.nanoTime() - this.lastFrameTime) / 1_000_000;
+        long delay = WeekMouseListener.FRAME_INTERVAL - millisSinceLastFrame;
+        this.frameTimer.setInitialDelay((int) Math.max(0, Math.min(delay, WeekMouseListener.FRAME_INTERVAL)));
+        this.frameTimer.start();
+    }
+
+    /**
+     * Handles the latest state of the pointer if it is waiting to be
+     * handled, by dragging if a mouse button is held or by pointing
+     * otherwise. Mouse presses and releases call this before being
+     * handled, so they see the pointer where the movements before
+     * them left it. The timer's action may still be queued after the
+     * state was handled early, in which case it does nothing.
+     */
+    private void processPointer() {
+        if (!this.pointerUpdatePending) return;
+        this.pointerUpdatePending = false;
+        this.frameTimer.stop();
+        this.lastFrameTime = System.nanoTime();
+        if (!this.pointerKnown || this.disableListener) return;
+
+        if (this.mousePressed) this.pointerDragged();
+        else this.pointerMoved();
+        if (this.pointerScrolled) this.weekRenderer.updateTimeBarHighlighted(-1, -1, 0);
+        this.pointerScrolled = false;
     }
 
     /**
@@ -108,52 +145,31 @@ public class WeekMouseListener extends MouseActivityListener {
      */
     @Override
     public void mouseMoved(MouseEvent e) {
-        if (this.disableListener) {
-            this.lastMotionEvent = e;
-            return;
-        }
-        if (this.mousePressed) {
-            this.mouseDragged(e);
-            return;
-        }
+        this.setPointer(e);
+        this.requestPointerUpdate();
+    }
+
+    /** Highlights the card or time bar the pointer is over. */
+    private void pointerMoved() {
         // Reset highlights
         this.weekRenderer.updateTimeBarHighlighted(-1, -1, 0);
         this.weekRenderer.clearCardsHighlighted();
-        if (this.isMousePosInvalid(e)) return;
+        this.weekRenderer.setResizeHandleCard(null);
+        if (this.isMousePosInvalid()) return;
         // Get card under mouse
-        Point mousePos = this.getMousePos(e);
-        double dayWidth = (this.weekRenderer.getWidth() - WeekRenderer.TIME_BAR_WIDTH) / 7.0;
-        int xPosInDayColumn = (int) Math.round(mousePos.x % dayWidth);
-        int dayIndex = this.getDayIndexFromMouseXPos(mousePos.x);
-        int timeInMinutes = mousePos.y / GUI.getPixPerMin();
-        Card cardAtMousePos = this.weekRenderer.getCardAtDayAndTime(dayIndex, timeInMinutes);
-        // Check if mouse is inside the card
-        if (cardAtMousePos != null &&
-            xPosInDayColumn >= WeekRenderer.CARD_HORIZONTAL_BUFFER &&
-            xPosInDayColumn <= dayWidth - (WeekRenderer.CARD_HORIZONTAL_BUFFER * 2)) {
+        Point mousePos = this.getMousePos();
+        CardHitIndex hitIndex = this.weekRenderer.getHitIndex();
+        Card cardAtMousePos = hitIndex.getCardAt(mousePos.x, mousePos.y);
+        if (cardAtMousePos != null) {
             // Highlight card
             this.weekRenderer.addCardToHighlight(cardAtMousePos);
         } else {
             // Highlight time index
-            int timeIndex = this.getTimeIndexFromMouseYPos(mousePos.y);
+            int dayIndex = hitIndex.getDayIndexAt(mousePos.x);
+            int timeIndex = hitIndex.getTimeIndexAt(mousePos.y);
             this.weekRenderer.updateTimeBarHighlighted(dayIndex, timeIndex, 0);
         }
         this.updateCursor(mousePos, cardAtMousePos);
-
-        this.lastMotionEvent = e;
-    }
-
-    /**
-     * Checks if the mouse is outside the edge of the card.
-     *
-     * @param mouseXPos The mouse's x coordinate.
-     * @return True if the mouse cursor is outside the card.
-     */
-    private boolean outsideCardBounds(int mouseXPos) {
-        double dayWidth = (this.weekRenderer.getWidth() - WeekRenderer.TIME_BAR_WIDTH) / 7.0;
-        int xPosOnDay = (int) Math.round(mouseXPos % dayWidth);
-        return xPosOnDay < WeekRenderer.CARD_HORIZONTAL_BUFFER ||
-                xPosOnDay > dayWidth - (WeekRenderer.CARD_HORIZONTAL_BUFFER * 2);
     }
 
     /**
@@ -166,6 +182,7 @@ public class WeekMouseListener extends MouseActivityListener {
     private void updateCursor(Point mousePos, Card card) {
         DragType dragType = this.getDragType(mousePos, card);
         this.updateCursor(dragType);
+        this.weekRenderer.setResizeHandleCard(dragType == DragType.Resize ? card : null);
     }
 
     /**
@@ -193,11 +210,8 @@ public class WeekMouseListener extends MouseActivityListener {
      * @return The drag type as the DragType enum.
      */
     private DragType getDragType(Point mousePos, Card card) {
-        if (card == null || !card.isDraggable() || this.outsideCardBounds(mousePos.x)) return null;
-        int cardEndYPixel = card.getEndTimeInMinutes() * GUI.getPixPerMin();
-        if (mousePos.y >= cardEndYPixel - (Card.DRAGGABLE_CARD_MIN_DURATION * GUI.getPixPerMin() / 2)) {
-            return DragType.Resize;
-        }
+        if (card == null || !card.isDraggable()) return null;
+        if (this.weekRenderer.getHitIndex().isOverResizeEdge(mousePos.x, mousePos.y)) return DragType.Resize;
         return DragType.Move;
     }
 
@@ -208,26 +222,25 @@ public class WeekMouseListener extends MouseActivityListener {
      */
     @Override
     public void mousePressed(MouseEvent e) {
+        this.processPointer();
+        this.setPointer(e);
         // Error Check
-        if (this.isMousePosInvalid(e)) return;
+        if (this.isMousePosInvalid()) return;
         if (this.mousePressed) return;
         // Check for card under mouse
-        Point mousePos = this.getMousePos(e);
-        int dayIndex = this.getDayIndexFromMouseXPos(mousePos.x);
-        int timeInMinutes = mousePos.y / GUI.getPixPerMin();
-        Card cardPressed = this.weekRenderer.getCardAtDayAndTime(dayIndex, timeInMinutes);
-        if (this.outsideCardBounds(mousePos.x)) cardPressed = null;
+        Point mousePos = this.getMousePos();
+        Card cardPressed = this.weekRenderer.getHitIndex().getCardAt(mousePos.x, mousePos.y);
         if (SwingUtilities.isRightMouseButton(e)) {
             this.contextMenuCard = cardPressed;
         } else {
             this.mousePressed = true;
-            this.cardSelected = cardPressed;
-            if (this.cardSelected == null) { // Create new card
+            if (cardPressed == null) { // Create new card
                 this.weekRenderer.updateTimeBarHighlightLength(1);
             } else { // Edit existing card
-                this.dragType = this.getDragType(mousePos, this.cardSelected);
-                this.copyOfCardSelected = this.cardSelected.clone();
-                this.timeIndexAtMouse = this.getTimeIndexFromMouseYPos(mousePos.y);
+                this.dragType = this.getDragType(mousePos, cardPressed);
+                this.drag = new DragTransaction(this.weekRenderer.getCurrWeek(), cardPressed);
+                this.timeIndexAtMouse = this.weekRenderer.getHitIndex().getTimeIndexAt(mousePos.y);
+                this.weekRenderer.setDragTransaction(this.drag);
             }
         }
 
@@ -248,83 +261,54 @@ public class WeekMouseListener extends MouseActivityListener {
      */
     @Override
     public void mouseDragged(MouseEvent e) {
-        if (this.disableListener) {
-            this.lastMotionEvent = e;
-            return;
-        }
-        if (!this.mousePressed) {
-            this.mouseMoved(e);
-            return;
-        }
-
-        if (this.cardSelected == null) this.dragTimeBar(e);
-        else this.dragCard(e);
+        this.setPointer(e);
+        this.requestPointerUpdate();
+    }
 
-        this.lastMotionEvent = e;
+    /** Drags the card or the time bar pressed to the pointer. */
+    private void pointerDragged() {
+        if (this.drag == null) this.dragTimeBar();
+        else this.dragCard();
     }
 
     /**
      * Updates the length of the card being created based
-     * on the mouse's position.
-     *
-     * @param e The mouse event.
+     * on the pointer's position.
      */
-    private void dragTimeBar(MouseEvent e) {
-        Point mousePos = this.getMousePos(e);
+    private void dragTimeBar() {
+        Point mousePos = this.getMousePos();
         int startTimeIndex = this.weekRenderer.getTimeBarHighlightedTimeIndex();
-        int currTimeIndex = this.getTimeIndexFromMouseYPos(mousePos.y);
+        int currTimeIndex = this.weekRenderer.getHitIndex().getTimeIndexAt(mousePos.y);
         this.weekRenderer.updateTimeBarHighlightLength(Math.max(currTimeIndex - startTimeIndex, 1));
     }
 
     /**
      * Handles drag events associated with the card such as
      * drag-move, drag-resize, and drag-duplicate.
-     *
-     * @param e The mouse event.
      */
-    private void dragCard(MouseEvent e) {
+    private void dragCard() {
         // Check for undraggable card
-        if (!this.cardSelected.isDraggable()) {
+        if (!this.drag.getCard().isDraggable()) {
             this.weekRenderer.displayErrorPopup("Can not drag cards smaller than 4 minutes.");
-            this.mouseReleased(e);
+            this.endDrag();
             return;
         }
 
-        if (this.dragType == DragType.Move) this.dragMove(e);
-        else this.dragResize(e);
-        this.weekRenderer.repaint();
+        if (this.dragType == DragType.Move) this.dragMove();
+        else this.dragResize();
     }
 
     /**
      * Handles the drag-move event. This allows the user to
      * drag the entire card across different days and times.
-     *
-     * @param e The mouse event.
+     * Holding alt duplicates the card instead of moving it.
      */
-    private void dragMove(MouseEvent e) {
-        Point mousePos = this.getMousePos(e);
+    private void dragMove() {
+        Point mousePos = this.getMousePos();
 
         this.moveSelectedCard(mousePos);
-        if (e.isAltDown() || this.forceAlt) { // Drag-Duplicated card
-            if (this.copyOfCardSelected.checkForCollision(this.cardSelected)) { // Check if the original and duplicate cards are intersecting
-                // Display single card at original position
-                this.weekRenderer.addIfDoesntExist(this.copyOfCardSelected);
-                this.weekRenderer.removeIfExists(this.cardSelected);
-                this.weekRenderer.removeCardToHighlight(this.cardSelected);
-                this.weekRenderer.addCardToHighlight(this.copyOfCardSelected);
-            } else {
-                // Display two cards, one at original position and one at mouse's position
-                this.weekRenderer.addIfDoesntExist(this.cardSelected);
-                this.weekRenderer.addIfDoesntExist(this.copyOfCardSelected);
-                this.weekRenderer.addCardToHighlight(this.cardSelected);
-                this.weekRenderer.addCardToHighlight(this.copyOfCardSelected);
-            }
-        } else { // Drag-Move card
-            this.weekRenderer.removeIfExists(this.copyOfCardSelected);
-            this.weekRenderer.addIfDoesntExist(this.cardSelected);
-            this.weekRenderer.addCardToHighlight(this.cardSelected);
-            this.weekRenderer.removeCardToHighlight(this.copyOfCardSelected);
-        }
+        this.drag.setDuplicate(this.pointerAltDown || this.forceAlt);
+        this.weekRenderer.repaintDragPreview();
     }
 
     /**
@@ -334,11 +318,12 @@ public class WeekMouseListener extends MouseActivityListener {
      * @param mousePos The mouse's location.
      */
     private void moveSelectedCard(Point mousePos) {
-        int dayIndex = this.getDayIndexFromMouseXPos(mousePos.x);
-        int newTimeIndex = this.getTimeIndexFromMouseYPos(mousePos.y);
+        CardHitIndex hitIndex = this.weekRenderer.getHitIndex();
+        int dayIndex = hitIndex.getDayIndexAt(mousePos.x);
+        int newTimeIndex = hitIndex.getTimeIndexAt(mousePos.y);
         int timeIndexDiff = newTimeIndex - this.timeIndexAtMouse;
 
-        if (this.weekRenderer.moveCard(this.cardSelected, dayIndex, timeIndexDiff, this.copyOfCardSelected)) {
+        if (this.drag.moveBy(dayIndex, timeIndexDiff)) {
             this.timeIndexAtMouse += timeIndexDiff;
         }
     }
@@ -346,15 +331,14 @@ public class WeekMouseListener extends MouseActivityListener {
     /**
      * Handles the drag-resize event. This allows the user to
      * adjust the card's end time by increasing or decreasing it.
-     *
-     * @param e The mouse event.
      */
-    private void dragResize(MouseEvent e) {
-        int newTimeIndex = this.getTimeIndexFromMouseYPos(this.getMousePos(e).y);
+    private void dragResize() {
+        int newTimeIndex = this.weekRenderer.getHitIndex().getTimeIndexAt(this.getMousePos().y);
         int timeIndexDiff = newTimeIndex - this.timeIndexAtMouse;
 
-        int trueTimeIndexDiff = this.weekRenderer.resizeCard(this.cardSelected, timeIndexDiff);
+        int trueTimeIndexDiff = this.drag.resizeBy(timeIndexDiff);
         this.timeIndexAtMouse += trueTimeIndexDiff;
+        this.weekRenderer.repaintDragPreview();
     }
 
     /**
@@ -364,13 +348,12 @@ public class WeekMouseListener extends MouseActivityListener {
      */
     @Override
     public void mouseReleased(MouseEvent e) {
+        this.processPointer();
         if (SwingUtilities.isRightMouseButton(e)) {
-            Point mousePos = this.getMousePos(e);
-            int dayIndex = this.getDayIndexFromMouseXPos(mousePos.x);
-            int timeInMinutes = mousePos.y / GUI.getPixPerMin();
-            Card cardAtMousePos = this.weekRenderer.getCardAtDayAndTime(dayIndex, timeInMinutes);
+            this.setPointer(e);
+            Point mousePos = this.getMousePos();
+            Card cardAtMousePos = this.weekRenderer.getHitIndex().getCardAt(mousePos.x, mousePos.y);
             if (cardAtMousePos == null) return;
-            if (this.outsideCardBounds(mousePos.x)) return;
             if (!cardAtMousePos.equals(this.contextMenuCard)) return;
 
             this.weekRenderer.setCursor(Cursor.getDefaultCursor());
@@ -381,11 +364,18 @@ public class WeekMouseListener extends MouseActivityListener {
             if (!this.mousePressed) return;
         }
 
+        this.endDrag();
+    }
+
+    /** Ends the drag in progress and creates the card whose time bar was dragged, if any. */
+    private void endDrag() {
+        // The card is only changed once the drag ends, in a single step.
+        if (this.drag != null) this.drag.commit();
+        this.weekRenderer.setDragTransaction(null);
         this.forceAlt = false;
         this.mousePressed = false;
         this.timeIndexAtMouse = null;
-        this.cardSelected = null;
-        this.copyOfCardSelected = null;
+        this.drag = null;
 
         this.weekRenderer.createCard();
     }
@@ -401,34 +391,28 @@ public class WeekMouseListener extends MouseActivityListener {
     public void setupAction(CardContextMenu.CardActions action, Card card, int yOffset) {
         if (action == CardContextMenu.CardActions.Edit) {
             this.weekRenderer.editCard(card);
+        } else if (action == CardContextMenu.CardActions.Repeat) {
+            this.weekRenderer.repeatCard(card);
         } else if (action == CardContextMenu.CardActions.Delete) {
             this.weekRenderer.removeCard(card);
             this.weekRenderer.removeCardToHighlight(card);
         } else {
             this.mousePressed = true;
             this.dragType = DragType.Move;
-            this.cardSelected = card;
-            this.copyOfCardSelected = this.cardSelected.clone();
-            this.timeIndexAtMouse = this.getTimeIndexFromMouseYPos(this.getMousePos(this.lastMotionEvent).y);
+            this.drag = new DragTransaction(this.weekRenderer.getCurrWeek(), card);
+            this.timeIndexAtMouse = this.weekRenderer.getHitIndex().getTimeIndexAt(this.getMousePos().y);
             if (action == CardContextMenu.CardActions.Duplicate) {
                 this.forceAlt = true;
             } else if (action == CardContextMenu.CardActions.Resize) {
+                this.weekRenderer.setResizeHandleCard(card);
                 this.dragType = DragType.Resize;
                 this.timeIndexAtMouse = card.getEndTimeInMinutes() / TimeTracker.getMinuteGap();
-                this.lastMotionEvent = new MouseEvent(this.lastMotionEvent.getComponent(),
-                        this.lastMotionEvent.getID(),
-                        this.lastMotionEvent.getWhen(),
-                        this.lastMotionEvent.getModifiers(),
-                        this.lastMotionEvent.getX(),
-                        this.lastMotionEvent.getY() + yOffset,
-                        this.lastMotionEvent.getClickCount(),
-                        this.lastMotionEvent.isPopupTrigger(),
-                        this.lastMotionEvent.getButton());
+                this.pointerYPos += yOffset;
             }
+            this.weekRenderer.setDragTransaction(this.drag);
         }
         this.updateCursor(this.dragType);
-        this.mouseMoved(this.lastMotionEvent);
-        this.weekRenderer.repaint();
+        this.requestPointerUpdate();
     }
 
     /**
@@ -448,10 +432,10 @@ public class WeekMouseListener extends MouseActivityListener {
      */
     @Override
     public void mouseExited(MouseEvent e) {
+        this.processPointer();
         if (this.mousePressed) return;
         this.timeIndexAtMouse = null;
-        this.cardSelected = null;
-        this.copyOfCardSelected = null;
+        this.drag = null;
 
         this.mouseInWindow = false;
         this.weekRenderer.updateTimeBarHighlighted(-1, -1, 0);
@@ -463,17 +447,9 @@ public class WeekMouseListener extends MouseActivityListener {
      * to handle this change.
      */
     public void altKeyListener(boolean pressed) {
-        if (this.cardSelected == null) return;
-        this.lastMotionEvent = new MouseEvent(this.lastMotionEvent.getComponent(),
-                this.lastMotionEvent.getID(),
-                this.lastMotionEvent.getWhen(),
-                (pressed ? KeyEvent.ALT_MASK : 0),
-                this.lastMotionEvent.getX(),
-                this.lastMotionEvent.getY(),
-                this.lastMotionEvent.getClickCount(),
-                this.lastMotionEvent.isPopupTrigger(),
-                this.lastMotionEvent.getButton());
-        this.mouseDragged(this.lastMotionEvent);
+        if (this.drag == null) return;
+        this.pointerAltDown = pressed;
+        this.requestPointerUpdate();
     }
 
     /**
@@ -489,39 +465,28 @@ public class WeekMouseListener extends MouseActivityListener {
         // Reset values
         this.mousePressed = false;
         this.timeIndexAtMouse = null;
-        // Reset cards
-        if (this.cardSelected != null) {
-            this.weekRenderer.removeIfExists(this.cardSelected);
-            this.weekRenderer.addIfDoesntExist(this.copyOfCardSelected);
-            this.cardSelected = null;
-            this.copyOfCardSelected = null;
+        // Drop the drag, which leaves the card as it was
+        if (this.drag != null) {
+            this.weekRenderer.setDragTransaction(null);
+            this.drag = null;
         }
-        this.mouseMoved(this.lastMotionEvent);
+        this.requestPointerUpdate();
     }
 
     /**
-     * Registers a scroll event and calls the necessary mouse
-     * events to update the mouse's position based on the
+     * Registers a scroll event and schedules the pointer to be
+     * handled again, since the area under it has moved by the
      * amount scrolled.
      */
     public void scrollEvent(ChangeEvent e) {
-        if (this.lastMotionEvent == null) return;
-        WeekHeader wh = ((WeekHeader) e.getSource());
-        Point mousePos = wh.getMousePosition();
-        if (mousePos == null) mousePos = (Point) this.lastMotionEvent.getPoint().clone();
-
-        MouseEvent newMouseEvent = new MouseEvent(this.lastMotionEvent.getComponent(),
-                this.lastMotionEvent.getID(),
-                this.lastMotionEvent.getWhen(),
-                this.lastMotionEvent.getModifiers(),
-                (int) mousePos.getX(),
-                (int) mousePos.getY(),
-                this.lastMotionEvent.getClickCount(),
-                this.lastMotionEvent.isPopupTrigger(),
-                this.lastMotionEvent.getButton());
-        if (this.mousePressed) this.mouseDragged(newMouseEvent);
-        else this.mouseMoved(newMouseEvent);
-        this.weekRenderer.updateTimeBarHighlighted(-1, -1, 0);
+        if (!this.pointerKnown) return;
+        Point mousePos = this.weekHeader.getMousePosition();
+        if (mousePos != null) {
+            this.pointerXPos = mousePos.x;
+            this.pointerYPos = mousePos.y;
+        }
+        this.pointerScrolled = true;
+        this.requestPointerUpdate();
     }
 
     /**
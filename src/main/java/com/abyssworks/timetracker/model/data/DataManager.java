@@ -1,6 +1,7 @@
 package com.abyssworks.timetracker.model.data;
 
 import com.abyssworks.timetracker.model.week.Card;
+import com.abyssworks.timetracker.model.week.RecurrenceRule;
 import com.abyssworks.timetracker.util.Time;
 import com.abyssworks.timetracker.view.ColourTheme;
 import com.abyssworks.timetracker.view.popup.Popup;
@@ -32,6 +33,9 @@ public class DataManager {
     private String timeZone;
     private boolean autoSave;
     private final Set<Card> cards = new HashSet<>();
+    private final List<RecurrenceRule> recurrences = new ArrayList<>();
+    private String savedRecurrences = "[]";
+    private Set<String> savedWorklogs = Collections.emptySet();
     private final Set<Integer> invalidWorklogsIndex = new HashSet<>();
 
     /**
@@ -63,6 +67,7 @@ public class DataManager {
         if (!this.dataFile.has("userName")) this.dataFile.put("userName", "User");
         if (!this.dataFile.has("autoSave")) this.dataFile.put("autoSave", false);
         if (!this.dataFile.has("worklogs")) this.dataFile.put("worklogs", new JSONArray());
+        if (!this.dataFile.has("recurrences")) this.dataFile.put("recurrences", new JSONArray());
         this.writeDataToFile();
     }
 
@@ -84,26 +89,45 @@ public class DataManager {
 
     /**
      * Converts the cards into worklogs and saves them to
-     * the main data file as a JSON array.
+     * the main data file as a JSON array, along with the
+     * recurrence rules.
      *
      * @param cards The cards to save to the file.
+     * @param recurrences The recurrence rules to save to the file.
      */
-    public void saveWorklogsToFile(Set<Card> cards) {
-        StringBuilder worklogs = new StringBuilder("[\n");
-        // Convert cards into JSON array in string format
-        int cardsParsed = 0;
-        for (Card c : cards) {
-            worklogs.append(c.toJSONString());
-            cardsParsed++;
-            if (cardsParsed != cards.size())
-                worklogs.append(",\n");
-        }
-        worklogs.append("]");
-        this.dataFile.put("worklogs", new JSONArray(worklogs.toString()));
+    public void saveWorklogsToFile(Set<Card> cards, List<RecurrenceRule> recurrences) {
+        Set<String> cardsAsJSON = DataManager.getWorklogsAsJSONStrings(cards);
+        this.dataFile.put("worklogs", new JSONArray("[\n" + String.join(",\n", cardsAsJSON) + "]"));
+        JSONArray recurrencesArray = DataManager.getRecurrencesAsJSON(recurrences);
+        this.dataFile.put("recurrences", recurrencesArray);
         this.writeDataToFile();
 
         this.cards.clear();
         this.cards.addAll(cards);
+        this.savedWorklogs = cardsAsJSON;
+        this.recurrences.clear();
+        this.recurrences.addAll(recurrences);
+        this.savedRecurrences = recurrencesArray.toString();
+    }
+
+    /**
+     * Converts the cards into the JSON strings of their worklogs. Two
+     * cards with the same values give the same string, so the sets
+     * can be compared whether or not they hold the same cards.
+     */
+    private static Set<String> getWorklogsAsJSONStrings(Set<Card> cards) {
+        Set<String> worklogs = new LinkedHashSet<>();
+        for (Card card : cards) worklogs.add(card.toJSONString());
+        return worklogs;
+    }
+
+    /** Converts the recurrence rules into a JSON array. */
+    private static JSONArray getRecurrencesAsJSON(List<RecurrenceRule> recurrences) {
+        JSONArray recurrencesArray = new JSONArray();
+        for (RecurrenceRule rule : recurrences) {
+            recurrencesArray.put(rule.toJSON());
+        }
+        return recurrencesArray;
     }
 
     /**
@@ -127,6 +151,7 @@ public class DataManager {
      */
     public void readDataFiles() {
         this.cards.clear();
+        this.recurrences.clear();
         try {
             this.checkDataFile();
         } catch (IOException e) {
@@ -150,9 +175,26 @@ public class DataManager {
         this.autoSave = this.dataFile.getBoolean("autoSave");
         JSONArray worklogsArray = (JSONArray) this.dataFile.get("worklogs");
         this.parseWorklogs(worklogsArray);
+        this.parseRecurrences(this.dataFile.getJSONArray("recurrences"));
         this.handledInvalidWorklogs(worklogsArray);
     }
 
+    /**
+     * Parses the user's recurrence rules. Rules whose ticket no
+     * longer exists are dropped.
+     *
+     * @param recurrences The recurrence rules as a JSONArray object.
+     */
+    private void parseRecurrences(JSONArray recurrences) {
+        for (int i = 0; i < recurrences.length(); i++) {
+            JSONObject recurrence = recurrences.getJSONObject(i);
+            Ticket ticket = this.epicManager.getTicketFromTag(recurrence.getString("ticket"));
+            if (ticket == null) continue;
+            this.recurrences.add(RecurrenceRule.fromJSON(recurrence, ticket));
+        }
+        this.savedRecurrences = DataManager.getRecurrencesAsJSON(this.recurrences).toString();
+    }
+
     /**
      * Parses the user's worklogs and creates card objects
      * for each object which are then stored in a set.
@@ -160,6 +202,8 @@ public class DataManager {
      * @param worklogs The worklogs as a JSONArray object.
      */
     private void parseWorklogs(JSONArray worklogs) {
+        // Cards copy their date, so a single calendar is reused for every worklog.
+        Calendar cardDate = Calendar.getInstance();
         for (int i = 0; i < worklogs.length(); i++) {
             JSONObject worklog = (JSONObject) worklogs.get(i);
             String date = worklog.getString("date");
@@ -174,13 +218,15 @@ public class DataManager {
                 continue;
             }
             // Create card object from worklog
-            Card card = new Card(Time.getCalendarFromDateString(date),
+            Time.setCalendarFromDateString(cardDate, date);
+            Card card = new Card(cardDate,
                     ticket,
                     description,
                     Time.getTimeInMinutesFromString(startTime),
                     Time.getTimeInMinutesFromString(endTime));
             this.cards.add(card);
         }
+        this.savedWorklogs = DataManager.getWorklogsAsJSONStrings(this.cards);
     }
 
     private void handledInvalidWorklogs(JSONArray worklogs) {
@@ -196,17 +242,18 @@ public class DataManager {
         String[] options = new String[] {"Delete", "Close"};
         int response = JOptionPane.showOptionDialog(Popup.MAIN_WINDOW, errorMessage, "Corrupt Worklogs", JOptionPane.DEFAULT_OPTION, JOptionPane.ERROR_MESSAGE, null, options, null);
         if (response != 0) System.exit(0);
-        this.saveWorklogsToFile(this.cards);
+        this.saveWorklogsToFile(new HashSet<>(this.cards), new ArrayList<>(this.recurrences));
     }
 
     /**
      * Check if any changes have been made to the work logs
      *
      * @param cards The current worklogs
+     * @param recurrences The current recurrence rules
      * @return True if changes have been made
      */
-    public boolean changesMadeToWorklog(Set<Card> cards) {
-        return !this.cards.equals(cards);
+    public boolean changesMadeToWorklog(Set<Card> cards, List<RecurrenceRule> recurrences) {
+        return !this.savedWorklogs.equals(DataManager.getWorklogsAsJSONStrings(cards)) || !this.savedRecurrences.equals(DataManager.getRecurrencesAsJSON(recurrences).toString());
     }
 
     /**
@@ -218,6 +265,27 @@ public class DataManager {
         return this.epicManager.getAllTickets();
     }
 
+    /**
+     * Finds the tickets that best match the text typed.
+     *
+     * @param text The text typed.
+     * @param maxResults The maximum number of tickets to return.
+     * @return The matching tickets, best match first.
+     */
+    public List<Ticket> findTickets(String text, int maxResults) {
+        return this.epicManager.findTickets(text, maxResults);
+    }
+
+    /**
+     * Finds the ticket whose tag is the text typed, ignoring case.
+     *
+     * @param text The text typed.
+     * @return The ticket, or null if no ticket has the tag.
+     */
+    public Ticket findTicket(String text) {
+        return this.epicManager.findTicket(text);
+    }
+
     /**
      * Loads in the epics and tickets data.
      */
@@ -254,6 +322,11 @@ public class DataManager {
         return this.autoSave;
     }
 
+    /** Returns the recurrence rules in the data file. */
+    public List<RecurrenceRule> getRecurrences() {
+        return Collections.unmodifiableList(this.recurrences);
+    }
+
     /** Returns the cards created from the worklogs in the data file. */
     public Set<Card> getCards() {
         return Collections.unmodifiableSet(this.cards);
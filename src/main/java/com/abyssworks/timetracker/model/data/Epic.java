@@ -23,6 +23,11 @@ public class Epic {
         this.tickets = new HashSet<>();
     }
 
+    /** Returns the epic's tag. */
+    public String getTag() {
+        return this.tag;
+    }
+
     /**
      * Adds a ticket to the epic.
      *
@@ -16,6 +16,7 @@ public class EpicManager {
     private final File epicsFolder;
     public Map<String, Epic> epics = new HashMap<>();
     public Map<String, Ticket> tickets = new HashMap<>();
+    private final TicketIndex ticketIndex = new TicketIndex();
 
     /**
      * Creates an instance of the EpicManager from the
@@ -39,6 +40,7 @@ public class EpicManager {
             Epic epic = this.parseEpicFolder(epicFolder);
             this.epics.put(epicFolder.getName(), epic);
         }
+        this.ticketIndex.update(this.tickets.values());
     }
 
     /**
@@ -65,7 +67,7 @@ public class EpicManager {
         for (final File ticketFile : Objects.requireNonNull(epicFolder.listFiles())) {
             String ticketTag = FilenameUtils.removeExtension(ticketFile.getName());
             JSONObject ticketData = DataManager.getJSONReader(ticketFile.getPath());
-            Ticket ticket = new Ticket(ticketTag, ticketData.getString("ticketTitle"));
+            Ticket ticket = new Ticket(ticketTag, ticketData.getString("ticketTitle"), epic.getTag());
             epic.addTicket(ticket);
             this.tickets.put(ticketTag, ticket);
         }
@@ -81,6 +83,27 @@ public class EpicManager {
         return allTickets.toArray(new Ticket[allTickets.size()]);
     }
 
+    /**
+     * Finds the tickets that best match the text typed.
+     *
+     * @param text The text typed.
+     * @param maxResults The maximum number of tickets to return.
+     * @return The matching tickets, best match first.
+     */
+    public List<Ticket> findTickets(String text, int maxResults) {
+        return this.ticketIndex.find(text, maxResults);
+    }
+
+    /**
+     * Finds the ticket whose tag is the text typed, ignoring case.
+     *
+     * @param text The text typed.
+     * @return The ticket, or null if no ticket has the tag.
+     */
+    public Ticket findTicket(String text) {
+        return this.ticketIndex.get(text);
+    }
+
     /**
      * Returns the Ticket object that belongs to the tag.
      *
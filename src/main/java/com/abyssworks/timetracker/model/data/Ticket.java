@@ -8,6 +8,7 @@ package com.abyssworks.timetracker.model.data;
 public class Ticket {
     private String tag;
     private String title;
+    private String epicTag;
 
     /**
      * Creates a ticket object from the tag and title passed.
@@ -16,8 +17,20 @@ public class Ticket {
      * @param title The ticket's title.
      */
     public Ticket(String tag, String title) {
+        this(tag, title, null);
+    }
+
+    /**
+     * Creates a ticket object that belongs to an epic.
+     *
+     * @param tag The ticket's tag.
+     * @param title The ticket's title.
+     * @param epicTag The tag of the epic the ticket falls under.
+     */
+    public Ticket(String tag, String title, String epicTag) {
         this.tag = tag;
         this.title = title;
+        this.epicTag = epicTag;
     }
 
     /** Returns the ticket's title. */
@@ -25,6 +38,11 @@ public class Ticket {
         return this.title;
     }
 
+    /** Returns the tag of the epic the ticket falls under, or null if it is unknown. */
+    public String getEpicTag() {
+        return this.epicTag;
+    }
+
     /** Converts the ticket object into a string. */
     @Override
     public String toString() {
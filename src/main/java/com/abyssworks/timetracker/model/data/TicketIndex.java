@@ -0,0 +1,334 @@
+package com.abyssworks.timetracker.model.data;
+
+import com.abyssworks.timetracker.model.event.ModelEvent;
+import com.abyssworks.timetracker.model.event.ModelEventBus;
+import com.abyssworks.timetracker.util.Time;
+
+import java.util.*;
+import java.util.function.Predicate;
+
+/**
+ * The following class suggests tickets for the text typed in the
+ * ticket selectors. Tickets whose tag starts with the text come
+ * first, then tickets with title words starting with each word typed,
+ * then tickets containing the text, and finally tickets containing
+ * its letters in order. Within each group, the tickets logged most
+ * recently come first.
+ * <p>
+ * The tags and title words are kept sorted, so the tickets starting
+ * with the text typed are found without going through every ticket,
+ * and the tickets that contain a pair of letters or a letter are
+ * kept in bit sets, so the other groups only check the tickets
+ * containing all the pairs or letters typed. When a group has many
+ * candidates, the tickets are instead checked in order of their
+ * last use until enough have matched.
+ *
+ * @author Dysterio
+ */
+public class TicketIndex {
+    private static final int MAX_CANDIDATES_TO_RANK = 512;
+    private static final int MAX_ENTRIES_TO_SCAN = 4096;
+
+    private final NavigableMap<String, Entry> entriesByTag = new TreeMap<>();
+    private final NavigableMap<String, Set<Entry>> entriesByWord = new TreeMap<>();
+    private final NavigableSet<Entry> entriesByRecentUse = new TreeSet<>();
+    private final Map<String, BitSet> idsByPair = new HashMap<>();
+    private final Map<Character, BitSet> idsByLetter = new HashMap<>();
+    private final Map<String, Long> lastUsedDays = new HashMap<>();
+    private final List<Entry> entriesById = new ArrayList<>();
+    private final Deque<Integer> freeIds = new ArrayDeque<>();
+
+    /** Creates an empty index that tracks the tickets used by the cards. */
+    public TicketIndex() {
+        ModelEventBus.subscribe(events -> {
+            for (ModelEvent event : events) {
+                if (!event.isCardEvent() || event.TYPE == ModelEvent.Type.CardRemoved) continue;
+                this.ticketUsed(event.CARD.getTicket().toString(), Time.getEpochDay(event.CARD.getDate()));
+            }
+        }, ModelEventBus.Delivery.Sync);
+    }
+
+    /**
+     * Records that the ticket with the tag passed was logged on the
+     * day passed.
+     *
+     * @param tag The ticket's tag.
+     * @param epochDay The number of days between the epoch and the
+     *                 day the ticket was logged on.
+     */
+    private synchronized void ticketUsed(String tag, long epochDay) {
+        Long lastUsedDay = this.lastUsedDays.get(tag);
+        if (lastUsedDay != null && lastUsedDay >= epochDay) return;
+
+        this.lastUsedDays.put(tag, epochDay);
+        Entry entry = this.entriesByTag.get(TicketIndex.normalize(tag));
+        if (entry == null) return;
+        this.entriesByRecentUse.remove(entry);
+        entry.lastUsedDay = epochDay;
+        this.entriesByRecentUse.add(entry);
+    }
+
+    /**
+     * Updates the index to hold exactly the tickets passed. Only the
+     * tickets that were added, removed or renamed since the last
+     * update are re-indexed.
+     *
+     * @param tickets The tickets loaded.
+     */
+    public synchronized void update(Collection<Ticket> tickets) {
+        Map<String, Ticket> ticketsByTag = new HashMap<>();
+        for (Ticket ticket : tickets) ticketsByTag.put(TicketIndex.normalize(ticket.toString()), ticket);
+
+        List<Entry> removedEntries = new ArrayList<>();
+        for (Entry entry : this.entriesByTag.values()) {
+            Ticket ticket = ticketsByTag.get(entry.tag);
+            if (ticket == null || !Objects.equals(ticket.getTitle(), entry.ticket.getTitle())) removedEntries.add(entry);
+            else entry.ticket = ticket;
+        }
+        for (Entry entry : removedEntries) this.remove(entry);
+        for (Ticket ticket : ticketsByTag.values()) {
+            if (!this.entriesByTag.containsKey(TicketIndex.normalize(ticket.toString()))) this.add(ticket);
+        }
+    }
+
+    /** Adds a ticket to every part of the index. */
+    private void add(Ticket ticket) {
+        Integer freeId = this.freeIds.poll();
+        int id = freeId == null ? this.entriesById.size() : freeId;
+        Long lastUsedDay = this.lastUsedDays.get(ticket.toString());
+        Entry entry = new Entry(id, ticket, lastUsedDay == null ? Long.MIN_VALUE : lastUsedDay);
+        if (freeId == null) this.entriesById.add(entry);
+        else this.entriesById.set(id, entry);
+
+        this.entriesByTag.put(entry.tag, entry);
+        this.entriesByRecentUse.add(entry);
+        for (String word : entry.words) this.entriesByWord.computeIfAbsent(word, w -> new HashSet<>()).add(entry);
+        for (int i = 0; i < entry.text.length(); i++) {
+            this.idsByLetter.computeIfAbsent(entry.text.charAt(i), c -> new BitSet()).set(id);
+            if (i > 0) this.idsByPair.computeIfAbsent(entry.text.substring(i - 1, i + 1), p -> new BitSet()).set(id);
+        }
+    }
+
+    /** Removes an entry from every part of the index. */
+    private void remove(Entry entry) {
+        this.entriesByTag.remove(entry.tag);
+        this.entriesByRecentUse.remove(entry);
+        for (String word : entry.words) {
+            Set<Entry> entries = this.entriesByWord.get(word);
+            entries.remove(entry);
+            if (entries.isEmpty()) this.entriesByWord.remove(word);
+        }
+        for (int i = 0; i < entry.text.length(); i++) {
+            this.idsByLetter.get(entry.text.charAt(i)).clear(entry.id);
+            if (i > 0) this.idsByPair.get(entry.text.substring(i - 1, i + 1)).clear(entry.id);
+        }
+        this.entriesById.set(entry.id, null);
+        this.freeIds.push(entry.id);
+    }
+
+    /**
+     * Finds the tickets that best match the text passed.
+     *
+     * @param text The text typed.
+     * @param maxResults The maximum number of tickets to return.
+     * @return The matching tickets, best match first.
+     */
+    public synchronized List<Ticket> find(String text, int maxResults) {
+        String query = TicketIndex.normalize(text);
+        Set<Entry> results = new LinkedHashSet<>();
+        if (query.isEmpty()) {
+            this.addBest(this.entriesByRecentUse, entry -> true, results, maxResults);
+            return TicketIndex.getTickets(results);
+        }
+
+        this.addBest(TicketIndex.withPrefix(this.entriesByTag, query).values(),
+                entry -> entry.tag.startsWith(query), results, maxResults);
+
+        String[] queryWords = query.split(" ");
+        List<Entry> wordCandidates = new ArrayList<>();
+        for (Set<Entry> entries : TicketIndex.withPrefix(this.entriesByWord, queryWords[0]).values()) {
+            wordCandidates.addAll(entries);
+            if (wordCandidates.size() > TicketIndex.MAX_CANDIDATES_TO_RANK) break;
+        }
+        this.addBest(wordCandidates, entry -> entry.hasWordsStartingWith(queryWords), results, maxResults);
+
+        if (results.size() < maxResults && query.length() > 1) {
+            BitSet pairCandidates = this.findIdsContainingAll(query, true);
+            this.addBest(this.getEntries(pairCandidates), entry -> entry.text.contains(query), results, maxResults);
+        }
+        if (results.size() < maxResults) {
+            BitSet letterCandidates = this.findIdsContainingAll(query, false);
+            this.addBest(this.getEntries(letterCandidates), entry -> TicketIndex.containsInOrder(entry.text, query), results, maxResults);
+        }
+        return TicketIndex.getTickets(results);
+    }
+
+    /**
+     * Returns the ticket whose tag is the text passed, ignoring case
+     * and surrounding whitespace. Unlike the suggestions, the ticket
+     * is looked up by its whole tag, so a tag that starts another
+     * ticket's tag is never mistaken for it.
+     *
+     * @param tag The tag typed.
+     * @return The ticket, or null if no ticket has the tag.
+     */
+    public synchronized Ticket get(String tag) {
+        Entry entry = this.entriesByTag.get(TicketIndex.normalize(tag));
+        return entry == null ? null : entry.ticket;
+    }
+
+    /**
+     * Adds the most recently used of the matching entries to the
+     * results, until there are as many results as allowed. If there
+     * are only a few candidates, they are all checked and ranked.
+     * Otherwise, the entries are checked in order of their last use,
+     * stopping as soon as enough have matched.
+     *
+     * @param candidates The entries that could match.
+     * @param matches Checks if an entry matches.
+     * @param results The results to add to.
+     * @param maxResults The maximum number of results.
+     */
+    private void addBest(Collection<Entry> candidates, Predicate<Entry> matches, Set<Entry> results, int maxResults) {
+        if (results.size() >= maxResults) return;
+
+        if (candidates instanceof NavigableSet || TicketIndex.hasMoreThan(candidates, TicketIndex.MAX_CANDIDATES_TO_RANK)) {
+            // Only the most recently used entries are checked, so a query matching few of them stays fast.
+            int entriesScanned = 0;
+            for (Entry entry : this.entriesByRecentUse) {
+                if (results.size() >= maxResults || ++entriesScanned > TicketIndex.MAX_ENTRIES_TO_SCAN) return;
+                if (matches.test(entry)) results.add(entry);
+            }
+            return;
+        }
+
+        List<Entry> ranked = new ArrayList<>();
+        for (Entry entry : candidates) {
+            if (!results.contains(entry) && matches.test(entry)) ranked.add(entry);
+        }
+        Collections.sort(ranked);
+        for (Entry entry : ranked) {
+            if (results.size() >= maxResults) return;
+            results.add(entry);
+        }
+    }
+
+    /** Checks if the collection has more elements than the limit, without counting all of them. */
+    private static boolean hasMoreThan(Collection<Entry> entries, int limit) {
+        if (entries instanceof List) return entries.size() > limit;
+        int count = 0;
+        for (Iterator<Entry> iterator = entries.iterator(); iterator.hasNext(); iterator.next()) {
+            if (++count > limit) return true;
+        }
+        return false;
+    }
+
+    /**
+     * Returns the ids of the entries that contain every pair of
+     * letters, or every letter, of the query.
+     *
+     * @param query The query.
+     * @param pairs Whether to look for pairs of letters.
+     * @return The ids found.
+     */
+    private BitSet findIdsContainingAll(String query, boolean pairs) {
+        BitSet ids = null;
+        for (int i = pairs ? 1 : 0; i < query.length(); i++) {
+            if (!pairs && query.charAt(i) == ' ') continue;
+            BitSet idsWithPart = pairs ? this.idsByPair.get(query.substring(i - 1, i + 1)) : this.idsByLetter.get(query.charAt(i));
+            if (idsWithPart == null) return new BitSet();
+            if (ids == null) ids = (BitSet) idsWithPart.clone();
+            else ids.and(idsWithPart);
+        }
+        return ids == null ? new BitSet() : ids;
+    }
+
+    /**
+     * Returns the entries with the ids passed. If there are too many
+     * to rank, all the entries are returned in order of their last
+     * use instead.
+     */
+    private Collection<Entry> getEntries(BitSet ids) {
+        if (ids.cardinality() > TicketIndex.MAX_CANDIDATES_TO_RANK) return this.entriesByRecentUse;
+        List<Entry> entries = new ArrayList<>(ids.cardinality());
+        for (int id = ids.nextSetBit(0); id >= 0; id = ids.nextSetBit(id + 1)) entries.add(this.entriesById.get(id));
+        return entries;
+    }
+
+    /** Returns the part of the map whose keys start with the prefix passed. */
+    private static <V> NavigableMap<String, V> withPrefix(NavigableMap<String, V> map, String prefix) {
+        return map.subMap(prefix, true, prefix + Character.MAX_VALUE, true);
+    }
+
+    /** Checks if the letters of the query appear in the text in the same order. */
+    private static boolean containsInOrder(String text, String query) {
+        int index = 0;
+        for (int i = 0; i < query.length(); i++) {
+            if (query.charAt(i) == ' ') continue;
+            index = text.indexOf(query.charAt(i), index) + 1;
+            if (index == 0) return false;
+        }
+        return true;
+    }
+
+    /** Returns the text in lower case, with runs of whitespace reduced to one space. */
+    private static String normalize(String text) {
+        if (text == null) return "";
+
+        StringBuilder normalized = new StringBuilder(text.length());
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (!Character.isWhitespace(c)) normalized.append(Character.toLowerCase(c));
+            else if (normalized.length() > 0 && normalized.charAt(normalized.length() - 1) != ' ') normalized.append(' ');
+        }
+        int length = normalized.length();
+        if (length > 0 && normalized.charAt(length - 1) == ' ') normalized.setLength(length - 1);
+        return normalized.toString();
+    }
+
+    /** Returns the tickets of the entries passed in the same order. */
+    private static List<Ticket> getTickets(Collection<Entry> entries) {
+        List<Ticket> tickets = new ArrayList<>(entries.size());
+        for (Entry entry : entries) tickets.add(entry.ticket);
+        return tickets;
+    }
+
+    /** A ticket along with the lower case text it is found by, ordered by its last use. */
+    private static class Entry implements Comparable<Entry> {
+        private final int id;
+        private Ticket ticket;
+        private final String tag;
+        private final String text;
+        private final String[] words;
+        private long lastUsedDay;
+
+        private Entry(int id, Ticket ticket, long lastUsedDay) {
+            this.id = id;
+            this.ticket = ticket;
+            this.tag = TicketIndex.normalize(ticket.toString());
+            String title = TicketIndex.normalize(ticket.getTitle());
+            this.text = this.tag + " " + title;
+            this.words = title.isEmpty() ? new String[0] : title.split(" ");
+            this.lastUsedDay = lastUsedDay;
+        }
+
+        /** Checks if every query word is the start of a word in the title. */
+        private boolean hasWordsStartingWith(String[] queryWords) {
+            for (String queryWord : queryWords) {
+                boolean found = false;
+                for (String word : this.words) {
+                    if (found = word.startsWith(queryWord)) break;
+                }
+                if (!found) return false;
+            }
+            return true;
+        }
+
+        /** Orders the entries used most recently first, then by their tags. */
+        @Override
+        public int compareTo(Entry entry) {
+            if (this.lastUsedDay != entry.lastUsedDay) return this.lastUsedDay > entry.lastUsedDay ? -1 : 1;
+            return this.tag.compareTo(entry.tag);
+        }
+    }
+}
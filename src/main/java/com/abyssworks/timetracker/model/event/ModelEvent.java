@@ -0,0 +1,66 @@
+package com.abyssworks.timetracker.model.event;
+
+import com.abyssworks.timetracker.model.week.Card;
+
+/**
+ * The following class describes a single change made to the
+ * cards, the recurrence rules, or the ticket catalog.
+ *
+ * @author Dysterio
+ */
+public class ModelEvent {
+    public enum Type { CardAdded, CardRemoved, CardMoved, CardResized, CardEdited, TicketsChanged, RecurrenceChanged }
+
+    public final Type TYPE;
+    public final Card CARD;
+    public final Card PREVIOUS;
+
+    /**
+     * Creates a model event.
+     *
+     * @param type The type of change.
+     * @param card The card that was changed, or null if the change
+     *             is not about a single card.
+     * @param previous A copy of the card before it was changed, or
+     *                 null if the card was added or removed.
+     */
+    public ModelEvent(Type type, Card card, Card previous) {
+        if (type == null) throw new IllegalArgumentException("Event type can not be null.");
+        if (card == null && type != Type.TicketsChanged && type != Type.RecurrenceChanged) throw new IllegalArgumentException("Card events must have a card.");
+
+        this.TYPE = type;
+        this.CARD = card;
+        this.PREVIOUS = previous;
+    }
+
+    /** Creates an event for a card that was added. */
+    public static ModelEvent cardAdded(Card card) {
+        return new ModelEvent(Type.CardAdded, card, null);
+    }
+
+    /** Creates an event for a card that was removed. */
+    public static ModelEvent cardRemoved(Card card) {
+        return new ModelEvent(Type.CardRemoved, card, null);
+    }
+
+    /** Creates an event for a change in the loaded epics and tickets. */
+    public static ModelEvent ticketsChanged() {
+        return new ModelEvent(Type.TicketsChanged, null, null);
+    }
+
+    /** Creates an event for a change in the recurrence rules, which may repeat on dates that have not been loaded. */
+    public static ModelEvent recurrenceChanged() {
+        return new ModelEvent(Type.RecurrenceChanged, null, null);
+    }
+
+    /** Returns whether this event changed a card. */
+    public boolean isCardEvent() {
+        return this.TYPE != Type.TicketsChanged && this.TYPE != Type.RecurrenceChanged;
+    }
+
+    /** Returns a string representation of this event. */
+    @Override
+    public String toString() {
+        return this.TYPE + (this.CARD == null ? "" : ": " + this.CARD.getTicket() + " " + this.CARD.getDescription());
+    }
+}
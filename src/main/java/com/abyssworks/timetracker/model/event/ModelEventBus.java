@@ -0,0 +1,134 @@
+package com.abyssworks.timetracker.model.event;
+
+import javax.swing.*;
+import java.util.*;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * The following class delivers the changes made to the model to
+ * the listeners subscribed to it. Changes published inside a batch
+ * are delivered together once the outermost batch ends.
+ *
+ * @author Dysterio
+ */
+public class ModelEventBus {
+    public enum Delivery { Sync, Async, EDT }
+
+    private static final List<Subscription> subscriptions = new CopyOnWriteArrayList<>();
+    private static final ThreadLocal<Batch> batches = ThreadLocal.withInitial(Batch::new);
+    private static final ExecutorService asyncExecutor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "Model Events");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    /**
+     * Subscribes a listener to the changes made to the model.
+     *
+     * @param listener The listener to notify.
+     * @param delivery Whether the listener is notified on the thread
+     *                 that made the change, on a background thread,
+     *                 or on the event dispatch thread.
+     */
+    public static void subscribe(ModelListener listener, Delivery delivery) {
+        if (listener == null) throw new IllegalArgumentException("Listener can not be null.");
+        if (delivery == null) throw new IllegalArgumentException("Delivery can not be null.");
+
+        ModelEventBus.subscriptions.add(new Subscription(listener, delivery));
+    }
+
+    /**
+     * Stops notifying the listener passed.
+     *
+     * @param listener The listener to remove.
+     */
+    public static void unsubscribe(ModelListener listener) {
+        ModelEventBus.subscriptions.removeIf(subscription -> subscription.listener == listener);
+    }
+
+    /**
+     * Publishes a change. If the current thread is inside a batch,
+     * the change is held back until the batch ends.
+     *
+     * @param event The change to publish.
+     */
+    public static void publish(ModelEvent event) {
+        if (event == null) throw new IllegalArgumentException("Event can not be null.");
+
+        Batch batch = ModelEventBus.batches.get();
+        if (batch.depth > 0) {
+            batch.events.add(event);
+        } else {
+            ModelEventBus.deliver(Collections.singletonList(event));
+        }
+    }
+
+    /** Starts holding back the changes published on this thread. */
+    public static void beginBatch() {
+        ModelEventBus.batches.get().depth++;
+    }
+
+    /**
+     * Ends a batch. Once the outermost batch ends, all the changes
+     * published inside it are delivered in a single notification.
+     */
+    public static void endBatch() {
+        Batch batch = ModelEventBus.batches.get();
+        if (batch.depth == 0) throw new IllegalStateException("No batch has been started.");
+        if (--batch.depth > 0 || batch.events.isEmpty()) return;
+
+        List<ModelEvent> events = Collections.unmodifiableList(new ArrayList<>(batch.events));
+        batch.events.clear();
+        ModelEventBus.deliver(events);
+    }
+
+    /**
+     * Delivers the changes passed to every subscriber.
+     *
+     * @param events The changes to deliver.
+     */
+    private static void deliver(List<ModelEvent> events) {
+        for (Subscription subscription : ModelEventBus.subscriptions) {
+            switch (subscription.delivery) {
+                case Sync:
+                    subscription.send(events);
+                    break;
+                case Async:
+                    ModelEventBus.asyncExecutor.execute(() -> subscription.send(events));
+                    break;
+                case EDT:
+                    if (SwingUtilities.isEventDispatchThread()) subscription.send(events);
+                    else SwingUtilities.invokeLater(() -> subscription.send(events));
+                    break;
+            }
+        }
+    }
+
+    /** Stores a listener along with how it should be notified. */
+    private static class Subscription {
+        private final ModelListener listener;
+        private final Delivery delivery;
+
+        private Subscription(ModelListener listener, Delivery delivery) {
+            this.listener = listener;
+            this.delivery = delivery;
+        }
+
+        /** Notifies the listener, making sure a failing listener does not affect the others. */
+        private void send(List<ModelEvent> events) {
+            try {
+                this.listener.modelChanged(events);
+            } catch (RuntimeException e) {
+                e.printStackTrace();
+            }
+        }
+    }
+
+    /** Holds the changes published inside a batch on a single thread. */
+    private static class Batch {
+        private final List<ModelEvent> events = new ArrayList<>();
+        private int depth;
+    }
+}
@@ -0,0 +1,18 @@
+package com.abyssworks.timetracker.model.event;
+
+import java.util.List;
+
+/**
+ * The following interface is implemented by anything that wants
+ * to be notified of changes made to the cards or the tickets.
+ *
+ * @author Dysterio
+ */
+public interface ModelListener {
+    /**
+     * Invoked after one or more changes have been committed.
+     *
+     * @param events The changes in the order they were made.
+     */
+    void modelChanged(List<ModelEvent> events);
+}
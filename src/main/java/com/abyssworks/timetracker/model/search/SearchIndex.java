@@ -0,0 +1,386 @@
+package com.abyssworks.timetracker.model.search;
+
+import com.abyssworks.timetracker.TimeTracker;
+import com.abyssworks.timetracker.model.data.Ticket;
+import com.abyssworks.timetracker.model.event.ModelEvent;
+import com.abyssworks.timetracker.model.event.ModelEventBus;
+import com.abyssworks.timetracker.model.week.Card;
+import com.abyssworks.timetracker.model.week.CardState;
+import com.abyssworks.timetracker.model.week.ModelHistory;
+import com.abyssworks.timetracker.model.week.WeekManager;
+import com.abyssworks.timetracker.util.Time;
+
+import java.util.*;
+
+/**
+ * The following class keeps an inverted index of the words in the
+ * cards' descriptions, ticket tags and ticket titles, so the worklogs
+ * can be searched without going through every week. The index is
+ * built from the latest snapshot of the worklogs once, and is then
+ * kept up to date through the model events.
+ * <p>
+ * Every word of a query matches the words starting with it, while
+ * words in double quotes must appear next to each other. A card
+ * matches if it matches every part of the query.
+ *
+ * @author Dysterio
+ */
+public class SearchIndex {
+    private static final int INITIAL_CAPACITY = 1024;
+    private static final Object BUILD_LOCK = new Object();
+
+    private static Index index;
+    private static List<ModelEvent> pendingEvents;
+    private static volatile Map<String, String> ticketTitles = Collections.emptyMap();
+
+    static {
+        ModelEventBus.subscribe(SearchIndex::modelChanged, ModelEventBus.Delivery.Sync);
+    }
+
+    /**
+     * Builds the index from the worklogs if it has not been built
+     * yet. Changes made before then are picked up from the latest
+     * snapshot. The index is built without holding the lock the
+     * changes are indexed under, so changes made meanwhile are not
+     * held up: they are queued and applied once it is built.
+     */
+    public static void initialize() {
+        synchronized (SearchIndex.BUILD_LOCK) {
+            synchronized (SearchIndex.class) {
+                if (SearchIndex.index != null) return;
+                // Queued before the snapshot is taken, so every change missing from it is applied afterwards.
+                SearchIndex.pendingEvents = new ArrayList<>();
+            }
+            Index index = new Index();
+            try {
+                // The card states are read instead of the cards, as the cards may be changed meanwhile.
+                for (CardState state : ModelHistory.getSnapshot().getAllCardStates()) {
+                    index.add(new Document(state.CARD, state.EPOCH_DAY, state.START_TIME_IN_MINUTES,
+                            state.DESCRIPTION, state.TICKET));
+                }
+            } finally {
+                synchronized (SearchIndex.class) {
+                    for (ModelEvent event : SearchIndex.pendingEvents) index.apply(event);
+                    SearchIndex.pendingEvents = null;
+                    SearchIndex.index = index;
+                }
+            }
+        }
+    }
+
+    /**
+     * Finds the cards that match the query passed, most recent
+     * first.
+     *
+     * @param query The words to look for.
+     * @param from The earliest date to include, or null.
+     * @param to The latest date to include, or null.
+     * @param maxResults The maximum number of cards to return.
+     * @return The matching cards.
+     */
+    public static List<Card> search(String query, Calendar from, Calendar to, int maxResults) {
+        if (query == null) throw new IllegalArgumentException("Query can not be null.");
+
+        SearchIndex.initialize();
+        List<String> prefixes = new ArrayList<>();
+        List<List<String>> phrases = new ArrayList<>();
+        SearchIndex.parseQuery(query, prefixes, phrases);
+        if (prefixes.isEmpty() && phrases.isEmpty()) return Collections.emptyList();
+
+        long firstDay = from == null ? Long.MIN_VALUE : Time.getEpochDay(from);
+        long lastDay = to == null ? Long.MAX_VALUE : Time.getEpochDay(to);
+        synchronized (SearchIndex.class) {
+            return SearchIndex.index.search(prefixes, phrases, firstDay, lastDay, maxResults);
+        }
+    }
+
+    /**
+     * Splits a query into the words to match as prefixes and the
+     * quoted phrases.
+     *
+     * @param query The query to split.
+     * @param prefixes The list to add the prefixes to.
+     * @param phrases The list to add the phrases to.
+     */
+    private static void parseQuery(String query, List<String> prefixes, List<List<String>> phrases) {
+        String[] parts = query.split("\"", -1);
+        for (int i = 0; i < parts.length; i++) {
+            List<String> words = SearchIndex.tokenize(parts[i]);
+            // Every odd part was between a pair of quotes.
+            if (i % 2 == 1 && words.size() > 1) phrases.add(words);
+            else prefixes.addAll(words);
+        }
+    }
+
+    /** Returns the documents in both sets, or the second set if the first is null. */
+    private static BitSet intersect(BitSet documents, BitSet otherDocuments) {
+        if (documents == null) return otherDocuments;
+        documents.and(otherDocuments);
+        return documents;
+    }
+
+    /**
+     * Updates the index with the cards that were changed. Changes made
+     * while the index is being built are queued instead.
+     */
+    private static synchronized void modelChanged(List<ModelEvent> events) {
+        for (ModelEvent event : events) {
+            // Read on the thread that loaded the tickets, so the index never reads them while they are loaded.
+            if (event.TYPE == ModelEvent.Type.TicketsChanged) SearchIndex.ticketTitles = SearchIndex.getTicketTitles();
+        }
+        if (SearchIndex.pendingEvents != null) {
+            SearchIndex.pendingEvents.addAll(events);
+        } else if (SearchIndex.index != null) {
+            for (ModelEvent event : events) SearchIndex.index.apply(event);
+        }
+    }
+
+    /** Returns the titles of the tickets loaded, by their tags. */
+    private static Map<String, String> getTicketTitles() {
+        Map<String, String> titles = new HashMap<>();
+        for (Ticket ticket : TimeTracker.getAllTickets()) {
+            if (ticket.getTitle() != null) titles.put(ticket.toString(), ticket.getTitle());
+        }
+        return titles;
+    }
+
+    /**
+     * Returns the title of the ticket passed as it was last loaded.
+     * Loading the tickets creates new tickets and leaves the cards
+     * with the old ones, so the ticket's own title may be outdated.
+     */
+    private static String getTicketTitle(Ticket ticket) {
+        String title = SearchIndex.ticketTitles.get(ticket.toString());
+        return title == null ? ticket.getTitle() : title;
+    }
+
+    /**
+     * Splits the text passed into lower case words made of letters
+     * and digits.
+     *
+     * @param text The text to split.
+     * @return The words in the order they appear.
+     */
+    static List<String> tokenize(String text) {
+        List<String> words = new ArrayList<>();
+        int wordStart = -1;
+        for (int i = 0; i <= text.length(); i++) {
+            boolean partOfWord = i < text.length() && Character.isLetterOrDigit(text.charAt(i));
+            if (partOfWord && wordStart == -1) wordStart = i;
+            if (!partOfWord && wordStart != -1) {
+                words.add(text.substring(wordStart, i).toLowerCase(Locale.ROOT));
+                wordStart = -1;
+            }
+        }
+        return words;
+    }
+
+    /** The postings and documents of the cards indexed. */
+    private static class Index {
+        private final NavigableMap<String, Postings> postings = new TreeMap<>();
+        private final Map<Card, Integer> documentIds = new IdentityHashMap<>();
+        private Document[] documents = new Document[SearchIndex.INITIAL_CAPACITY];
+        private int documentCount;
+        private int removedDocumentCount;
+
+        /** Finds the cards that match the words and phrases passed, most recent first. */
+        private List<Card> search(List<String> prefixes, List<List<String>> phrases, long firstDay, long lastDay, int maxResults) {
+            BitSet matches = null;
+            for (String prefix : prefixes) matches = SearchIndex.intersect(matches, this.findPrefix(prefix));
+            for (List<String> phrase : phrases) {
+                for (String word : phrase) matches = SearchIndex.intersect(matches, this.findWord(word));
+            }
+
+            List<Document> results = new ArrayList<>();
+            for (int id = matches.nextSetBit(0); id >= 0; id = matches.nextSetBit(id + 1)) {
+                Document document = this.documents[id];
+                if (document == null) continue;
+                if (document.epochDay < firstDay || document.epochDay > lastDay) continue;
+                if (!document.containsPhrases(phrases)) continue;
+                results.add(document);
+            }
+            results.sort(Comparator.<Document>comparingLong(document -> document.epochDay)
+                    .thenComparingInt(document -> document.startTimeInMinutes)
+                    .reversed());
+
+            List<Card> cards = new ArrayList<>(Math.min(results.size(), maxResults));
+            for (int i = 0; i < results.size() && i < maxResults; i++) cards.add(results.get(i).card);
+            return cards;
+        }
+
+        /** Returns the documents containing a word starting with the prefix passed. */
+        private BitSet findPrefix(String prefix) {
+            BitSet documents = new BitSet(this.documentCount);
+            for (Postings wordPostings : this.postings.subMap(prefix, true, prefix + Character.MAX_VALUE, true).values())
+                wordPostings.addTo(documents);
+            return documents;
+        }
+
+        /** Returns the documents containing the word passed. */
+        private BitSet findWord(String word) {
+            BitSet documents = new BitSet(this.documentCount);
+            Postings wordPostings = this.postings.get(word);
+            if (wordPostings != null) wordPostings.addTo(documents);
+            return documents;
+        }
+
+        /** Updates the index with a single change. */
+        private void apply(ModelEvent event) {
+            if (!event.isCardEvent()) {
+                if (event.TYPE == ModelEvent.Type.TicketsChanged) this.updateTicketTitles();
+                return;
+            }
+            this.remove(event.CARD);
+            if (event.TYPE != ModelEvent.Type.CardRemoved) this.add(event.CARD);
+        }
+
+        /**
+         * Adds a card to the index with its current values. The
+         * occurrences of recurrence rules are left out, as they only
+         * exist in the weeks loaded so far.
+         *
+         * @param card The card to add.
+         */
+        private void add(Card card) {
+            // The card is read as a single state, as it may be changed while the events are delivered.
+            Document document = WeekManager.read(() -> card.isVirtual() ? null :
+                    new Document(card, Time.getEpochDay(card.getDate()), card.getStartTimeInMinutes(),
+                            card.getDescription(), card.getTicket()));
+            if (document != null) this.add(document);
+        }
+
+        /**
+         * Adds a card to the index with the values of the document
+         * passed.
+         *
+         * @param document The card's values.
+         */
+        private void add(Document document) {
+            if (this.documentIds.containsKey(document.card)) return;
+
+            if (this.documentCount == this.documents.length)
+                this.documents = Arrays.copyOf(this.documents, this.documentCount * 2);
+            int id = this.documentCount++;
+            this.documents[id] = document;
+            this.documentIds.put(document.card, id);
+
+            Set<String> words = new HashSet<>();
+            for (String field : document.getFields()) words.addAll(SearchIndex.tokenize(field));
+            // Ids are handed out in increasing order, so every list of postings stays sorted.
+            for (String word : words) this.postings.computeIfAbsent(word, w -> new Postings()).add(id);
+        }
+
+        /**
+         * Removes a card from the index. Its postings are left in place
+         * and skipped until enough cards have been removed to rebuild
+         * the index.
+         *
+         * @param card The card to remove.
+         */
+        private void remove(Card card) {
+            Integer id = this.documentIds.remove(card);
+            if (id == null) return;
+
+            this.documents[id] = null;
+            if (++this.removedDocumentCount > SearchIndex.INITIAL_CAPACITY && this.removedDocumentCount > this.documentCount / 2)
+                this.rebuild();
+        }
+
+        /** Indexes the cards whose ticket title has changed since they were indexed again. */
+        private void updateTicketTitles() {
+            List<Document> outdated = new ArrayList<>();
+            for (int id = 0; id < this.documentCount; id++) {
+                Document document = this.documents[id];
+                if (document != null && !Objects.equals(document.ticketTitle, SearchIndex.getTicketTitle(document.ticket)))
+                    outdated.add(document);
+            }
+            for (Document document : outdated) {
+                this.remove(document.card);
+                this.add(new Document(document.card, document.epochDay, document.startTimeInMinutes, document.description, document.ticket));
+            }
+        }
+
+        /** Rebuilds the index from the cards still in it, dropping the postings of removed cards. */
+        private void rebuild() {
+            Document[] documents = Arrays.copyOf(this.documents, this.documentCount);
+            this.postings.clear();
+            this.documentIds.clear();
+            this.documents = new Document[Math.max(SearchIndex.INITIAL_CAPACITY, this.documentCount - this.removedDocumentCount)];
+            this.documentCount = 0;
+            this.removedDocumentCount = 0;
+            for (Document document : documents) {
+                if (document != null) this.add(document);
+            }
+        }
+    }
+
+    /** The values of a card as they were indexed. */
+    private static class Document {
+        private final Card card;
+        private final long epochDay;
+        private final int startTimeInMinutes;
+        private final String description;
+        private final Ticket ticket;
+        private final String ticketTitle;
+
+        /**
+         * Creates the document of a card.
+         *
+         * @param card The card indexed.
+         * @param epochDay The number of days between the epoch and the card's day.
+         * @param startTimeInMinutes The card's start time in minutes.
+         * @param description The card's description.
+         * @param ticket The card's ticket.
+         */
+        private Document(Card card, long epochDay, int startTimeInMinutes, String description, Ticket ticket) {
+            this.card = card;
+            this.epochDay = epochDay;
+            this.startTimeInMinutes = startTimeInMinutes;
+            this.description = description;
+            this.ticket = ticket;
+            this.ticketTitle = SearchIndex.getTicketTitle(ticket);
+        }
+
+        /** Returns the card's searchable fields. */
+        private List<String> getFields() {
+            List<String> fields = new ArrayList<>(3);
+            if (this.description != null) fields.add(this.description);
+            fields.add(this.ticket.toString());
+            if (this.ticketTitle != null) fields.add(this.ticketTitle);
+            return fields;
+        }
+
+        /** Checks that the words of every phrase appear next to each other in one of the card's fields. */
+        private boolean containsPhrases(List<List<String>> phrases) {
+            if (phrases.isEmpty()) return true;
+
+            List<String> fields = this.getFields();
+            for (List<String> phrase : phrases) {
+                String joinedPhrase = " " + String.join(" ", phrase) + " ";
+                boolean found = false;
+                for (String field : fields) {
+                    if (found = (" " + String.join(" ", SearchIndex.tokenize(field)) + " ").contains(joinedPhrase)) break;
+                }
+                if (!found) return false;
+            }
+            return true;
+        }
+    }
+
+    /** The sorted ids of the cards containing a word. */
+    private static class Postings {
+        private int[] ids = new int[4];
+        private int size;
+
+        /** Adds an id greater than every id already added. */
+        private void add(int id) {
+            if (this.size == this.ids.length) this.ids = Arrays.copyOf(this.ids, this.size * 2);
+            this.ids[this.size++] = id;
+        }
+
+        /** Sets the bit of every id in the set passed. */
+        private void addTo(BitSet documents) {
+            for (int i = 0; i < this.size; i++) documents.set(this.ids[i]);
+        }
+    }
+}
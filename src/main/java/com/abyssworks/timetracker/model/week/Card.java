@@ -16,14 +16,14 @@ public class Card implements Cloneable{
     public static final int MINIMUM_CARD_DURATION = 1;
     public static int DRAGGABLE_CARD_MIN_DURATION = 5;
 
-    public enum FontSize {Big, Small}
-    public enum Components {Title, Description, TicketAndDuration}
-
-    private Calendar date;
-    private Ticket ticket;
-    private String description;
-    private int startTimeInMinutes;
-    private int endTimeInMinutes;
+    private volatile Calendar date;
+    private volatile int dayIndex;
+    private volatile Ticket ticket;
+    private volatile String description;
+    private volatile int startTimeInMinutes;
+    private volatile int endTimeInMinutes;
+    private volatile RecurrenceRule recurrence;
+    private volatile int version;
 
     /**
      * Creates an instance of a Card data type.
@@ -44,7 +44,8 @@ public class Card implements Cloneable{
         if (startTimeInMinutes >= endTimeInMinutes) throw new IllegalStateException("Start time can not be after end time.");
         if (startTimeInMinutes + Card.MINIMUM_CARD_DURATION > endTimeInMinutes) throw new IllegalStateException("Duration can not be less than " + Card.MINIMUM_CARD_DURATION + " minutes.");
 
-        this.date = date;
+        this.date = Card.copyDate(date);
+        this.dayIndex = this.date.get(Calendar.DAY_OF_WEEK) - 1;
         this.ticket = ticket;
         this.description = description;
         this.startTimeInMinutes = startTimeInMinutes;
@@ -75,7 +76,7 @@ public class Card implements Cloneable{
      * @return True if this card intersects with the card passed.
      */
     public boolean checkForCollision(Card c) {
-        return (this.getDate().get(Calendar.DAY_OF_WEEK) == c.getDate().get(Calendar.DAY_OF_WEEK) &&
+        return (this.getDayIndex() == c.getDayIndex() &&
                 this.checkForCollision(c.getStartTimeInMinutes(), c.getEndTimeInMinutes()));
     }
 
@@ -84,40 +85,6 @@ public class Card implements Cloneable{
         return this.getDurationInMinutes() >= Card.DRAGGABLE_CARD_MIN_DURATION/GUI.getPixPerMin();
     }
 
-    /**
-     * Returns the components to display on the card along with
-     * their font size.
-     *
-     * @return a hashmap with the name of the component and text size
-     * as key value pairs.
-     */
-    public Map<Card.Components, Card.FontSize> getComponentsToDisplay() {
-        Map<Card.Components, Card.FontSize> componentsToDisplay = new HashMap<>();
-        int duration = this.getDurationInMinutes();
-
-        if (!this.isDraggable()) return componentsToDisplay;
-        if (duration < 20/GUI.getPixPerMin()) {
-            componentsToDisplay.put(Components.Title, FontSize.Small);
-        } else if (duration < 30/GUI.getPixPerMin()) {
-            componentsToDisplay.put(Components.Title, FontSize.Big);
-        } else if (duration < 40/GUI.getPixPerMin()) {
-            componentsToDisplay.put(Components.Title, FontSize.Big);
-            componentsToDisplay.put(Components.TicketAndDuration, FontSize.Small);
-        } else if (duration < 50/GUI.getPixPerMin()) {
-            componentsToDisplay.put(Components.Title, FontSize.Big);
-            componentsToDisplay.put(Components.TicketAndDuration, FontSize.Big);
-        } else if (duration < 60/GUI.getPixPerMin()) {
-            componentsToDisplay.put(Components.Title, FontSize.Big);
-            componentsToDisplay.put(Components.Description, FontSize.Small);
-            componentsToDisplay.put(Components.TicketAndDuration, FontSize.Big);
-        } else {
-            componentsToDisplay.put(Components.Title, FontSize.Big);
-            componentsToDisplay.put(Components.Description, FontSize.Big);
-            componentsToDisplay.put(Components.TicketAndDuration, FontSize.Big);
-        }
-        return componentsToDisplay;
-    }
-
     /** Returns the card's duration. */
     public int getDurationInMinutes() {
         return this.endTimeInMinutes - this.startTimeInMinutes;
@@ -125,15 +92,38 @@ public class Card implements Cloneable{
 
     /** Returns the index of the day the card is on. */
     public int getDayIndex() {
-        return this.date.get(Calendar.DAY_OF_WEEK) - 1;
+        return this.dayIndex;
     }
-    /** Returns the date associated with this card. */
+    /** Returns a copy of the date associated with this card. */
     public Calendar getDate() {
-        return this.date;
+        return (Calendar) this.date.clone();
     }
-    /** Updates the date associated with this card. */
-    public void setDate(Calendar date) {
-        this.date = date;
+    /**
+     * Updates the date associated with this card. Like the card's
+     * other setters, this must only be called on a card that is not
+     * in a day, or while holding the write lock with the card removed
+     * from its day, since the day keeps its cards sorted and totalled.
+     * Cards in the model are changed through Week and WeekManager,
+     * which reinsert them and publish the change.
+     */
+    void setDate(Calendar date) {
+        Calendar newDate = Card.copyDate(date);
+        this.date = newDate;
+        this.dayIndex = newDate.get(Calendar.DAY_OF_WEEK) - 1;
+        this.version++;
+    }
+
+    /**
+     * Copies the date passed and computes all its fields, so the
+     * copy is never modified when it is read from.
+     *
+     * @param date The date to copy.
+     * @return The copy of the date.
+     */
+    private static Calendar copyDate(Calendar date) {
+        Calendar copy = (Calendar) date.clone();
+        copy.get(Calendar.DAY_OF_WEEK);
+        return copy;
     }
 
     /** Returns the ticket associated with this card. */
@@ -141,8 +131,9 @@ public class Card implements Cloneable{
         return this.ticket;
     }
     /** Updates the ticket associated with this card. */
-    public void setTicket(Ticket ticket) {
+    void setTicket(Ticket ticket) {
         this.ticket = ticket;
+        this.version++;
     }
 
     /** Returns this card's description. */
@@ -150,8 +141,9 @@ public class Card implements Cloneable{
         return this.description;
     }
     /** Updates this card's description. */
-    public void setDescription(String description) {
+    void setDescription(String description) {
         this.description = description;
+        this.version++;
     }
 
     /** Returns this card's start time. */
@@ -159,8 +151,9 @@ public class Card implements Cloneable{
         return this.startTimeInMinutes;
     }
     /** Updates this card's start time. */
-    public void setStartTimeInMinutes(int startTimeInMinutes) {
+    void setStartTimeInMinutes(int startTimeInMinutes) {
         this.startTimeInMinutes = startTimeInMinutes;
+        this.version++;
     }
 
     /** Returns this card's end time. */
@@ -168,8 +161,28 @@ public class Card implements Cloneable{
         return this.endTimeInMinutes;
     }
     /** Updates this card's end time. */
-    public void setEndTimeInMinutes(int endTimeInMinutes) {
+    void setEndTimeInMinutes(int endTimeInMinutes) {
         this.endTimeInMinutes = endTimeInMinutes;
+        this.version++;
+    }
+
+    /** Returns the rule this card is an occurrence of, or null if the card was logged by hand. */
+    public RecurrenceRule getRecurrence() {
+        return this.recurrence;
+    }
+    /** Updates the rule this card is an occurrence of. */
+    void setRecurrence(RecurrenceRule recurrence) {
+        this.recurrence = recurrence;
+    }
+
+    /** Returns whether this card is an unchanged occurrence of a recurrence rule, which is not saved as a worklog. */
+    public boolean isVirtual() {
+        return this.recurrence != null;
+    }
+
+    /** Returns a number that changes every time one of this card's fields is updated. */
+    public int getVersion() {
+        return this.version;
     }
 
     /** Returns a string representation of this card. */
@@ -201,6 +214,6 @@ public class Card implements Cloneable{
      */
     @Override
     public Card clone() {
-        return new Card((Calendar) this.date.clone(), this.ticket, this.description, this.startTimeInMinutes, this.endTimeInMinutes);
+        return new Card(this.date, this.ticket, this.description, this.startTimeInMinutes, this.endTimeInMinutes);
     }
 }
@@ -0,0 +1,93 @@
+package com.abyssworks.timetracker.model.week;
+
+import com.abyssworks.timetracker.model.data.Ticket;
+import com.abyssworks.timetracker.util.Time;
+
+import java.util.Calendar;
+import java.util.Objects;
+
+/**
+ * The following class holds the values of a card at a single point
+ * in time. Unlike the card itself, a card state is never changed, so
+ * it can be kept in a snapshot and read without locking.
+ *
+ * @author Dysterio
+ */
+public final class CardState {
+    public final Card CARD;
+    public final long EPOCH_DAY;
+    public final Ticket TICKET;
+    public final String DESCRIPTION;
+    public final int START_TIME_IN_MINUTES;
+    public final int END_TIME_IN_MINUTES;
+    public final RecurrenceRule RECURRENCE;
+
+    private final Calendar date;
+
+    /**
+     * Creates the state of the card passed. Must be called while
+     * holding the write lock, so the card is not changed mid-copy.
+     *
+     * @param card The card to copy the values of.
+     */
+    CardState(Card card) {
+        this.CARD = card;
+        this.date = card.getDate();
+        this.EPOCH_DAY = Time.getEpochDay(this.date);
+        this.TICKET = card.getTicket();
+        this.DESCRIPTION = card.getDescription();
+        this.START_TIME_IN_MINUTES = card.getStartTimeInMinutes();
+        this.END_TIME_IN_MINUTES = card.getEndTimeInMinutes();
+        this.RECURRENCE = card.getRecurrence();
+    }
+
+    /**
+     * Sets the card's values back to the ones in this state. Must be
+     * called while holding the write lock, with the card removed
+     * from its day.
+     */
+    void restore() {
+        this.CARD.setDate(this.date);
+        this.CARD.setTicket(this.TICKET);
+        this.CARD.setDescription(this.DESCRIPTION);
+        this.CARD.setStartTimeInMinutes(this.START_TIME_IN_MINUTES);
+        this.CARD.setEndTimeInMinutes(this.END_TIME_IN_MINUTES);
+        if (this.RECURRENCE != null) RecurrenceManager.reattach(this.CARD, this.RECURRENCE);
+    }
+
+    /** Returns whether the card was an unchanged occurrence of a recurrence rule. */
+    public boolean isVirtual() {
+        return this.RECURRENCE != null;
+    }
+
+    /** Returns a copy of the card's date. */
+    public Calendar getDate() {
+        return (Calendar) this.date.clone();
+    }
+
+    /** Returns a new card with the values in this state, which is not added to any week. */
+    public Card toCard() {
+        return new Card(this.date, this.TICKET, this.DESCRIPTION, this.START_TIME_IN_MINUTES, this.END_TIME_IN_MINUTES);
+    }
+
+    /** Returns whether the state passed holds the same card with the same values. */
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof CardState)) return false;
+        CardState state = (CardState) o;
+        return this.CARD == state.CARD &&
+                this.EPOCH_DAY == state.EPOCH_DAY &&
+                this.TICKET == state.TICKET &&
+                Objects.equals(this.DESCRIPTION, state.DESCRIPTION) &&
+                this.START_TIME_IN_MINUTES == state.START_TIME_IN_MINUTES &&
+                this.END_TIME_IN_MINUTES == state.END_TIME_IN_MINUTES &&
+                this.RECURRENCE == state.RECURRENCE;
+    }
+
+    /** Returns the hash code of this state. */
+    @Override
+    public int hashCode() {
+        return Objects.hash(System.identityHashCode(this.CARD), this.EPOCH_DAY, this.START_TIME_IN_MINUTES, this.END_TIME_IN_MINUTES);
+    }
+}
@@ -1,15 +1,28 @@
 package com.abyssworks.timetracker.model.week;
 
+import com.abyssworks.timetracker.model.event.ModelEvent;
+import com.abyssworks.timetracker.model.event.ModelEventBus;
+import com.abyssworks.timetracker.util.Time;
+
 import java.util.*;
 
 /**
  * Represents a Day data type that stores the cards assigned to that day.
+ * The cards are kept in an array sorted by their start time which is
+ * replaced on every change, so readers never see a half-updated day.
  *
  * @author Dysterio
  */
 public class Day {
+    private static final Card[] NO_CARDS = new Card[0];
+    /** A day without any cards that can not be changed, shared by the days that have not been created yet. */
+    public static final Day EMPTY = new Day();
+
     private final Calendar startDate;
-    private final Set<Card> cards = new HashSet<>();
+    private final long epochDay;
+    private final TimeAggregate timeAggregate = new TimeAggregate();
+    private final TimeAggregate weekTimeAggregate;
+    private volatile Card[] cards = Day.NO_CARDS;
 
     /**
      * Creates a Day data type.
@@ -17,9 +30,29 @@ public class Day {
      * @param date The day's date.
      */
     public Day(Calendar date) {
+        this(date, new TimeAggregate());
+    }
+
+    /**
+     * Creates a Day data type that belongs to a week.
+     *
+     * @param date The day's date.
+     * @param weekTimeAggregate The totals of the week, which are
+     *                          updated along with this day's totals.
+     */
+    Day(Calendar date, TimeAggregate weekTimeAggregate) {
         if (date == null) throw new IllegalArgumentException("Date passed to day can not be null.");
 
         this.startDate = date;
+        this.epochDay = Time.getEpochDay(date);
+        this.weekTimeAggregate = weekTimeAggregate;
+    }
+
+    /** Creates the empty day. */
+    private Day() {
+        this.startDate = null;
+        this.epochDay = 0;
+        this.weekTimeAggregate = null;
     }
 
     /**
@@ -33,19 +66,145 @@ public class Day {
      * @return True if a card with the passed timeslot can be added.
      */
     public boolean canAddCard(Card[] exceptions, int startTimeInMinutes, int endTimeInMinutes) {
-        ArrayList<Card> exceptionsToIgnore = new ArrayList<>(Arrays.asList(exceptions));
-        for (Card card : this.cards) {
-            if (exceptionsToIgnore.contains(card)) continue;
-            if (card.checkForCollision(startTimeInMinutes, endTimeInMinutes))
-                return false;
-        }
         if (startTimeInMinutes < 0) throw new IllegalArgumentException("Start time passed to card can not be negative.");
         if (endTimeInMinutes < 0) throw new IllegalArgumentException("End time passed to card can not be negative.");
         if (startTimeInMinutes > 60 * 24) throw new IllegalArgumentException("Start time can not be greater than the number of minutes in the day.");
         if (endTimeInMinutes > 60 * 24) throw new IllegalArgumentException("End time can not be greater than the number of minutes in the day,");
+
+        return ModelLock.read(() -> {
+            for (Card card : this.cards) {
+                if (Day.isException(card, exceptions)) continue;
+                if (card.checkForCollision(startTimeInMinutes, endTimeInMinutes))
+                    return false;
+            }
+            return true;
+        });
+    }
+
+    /**
+     * Checks if the time slot passed intersects with an existing card
+     * in this day, ignoring up to two exception cards. Unlike the
+     * other checks, this one does not allocate, so it can be called
+     * on every mouse movement.
+     *
+     * @param startTimeInMinutes Timeslot start time.
+     * @param endTimeInMinutes Timeslot end time.
+     * @param exception A card to not be considered, or null.
+     * @param otherException Another card to not be considered, or null.
+     * @return True if a card with the passed timeslot can be added.
+     */
+    public boolean canAddCard(int startTimeInMinutes, int endTimeInMinutes, Card exception, Card otherException) {
+        if (startTimeInMinutes < 0) throw new IllegalArgumentException("Start time passed to card can not be negative.");
+        if (endTimeInMinutes < 0) throw new IllegalArgumentException("End time passed to card can not be negative.");
+        if (startTimeInMinutes > 60 * 24) throw new IllegalArgumentException("Start time can not be greater than the number of minutes in the day.");
+        if (endTimeInMinutes > 60 * 24) throw new IllegalArgumentException("End time can not be greater than the number of minutes in the day,");
+
+        long stamp = ModelLock.tryOptimisticRead();
+        if (stamp != 0) {
+            boolean canAdd = this.isTimeSlotFree(startTimeInMinutes, endTimeInMinutes, exception, otherException);
+            if (ModelLock.validate(stamp)) return canAdd;
+        }
+        return ModelLock.read(() -> this.isTimeSlotFree(startTimeInMinutes, endTimeInMinutes, exception, otherException));
+    }
+
+    /** Checks the time slot against every card apart from the exceptions. */
+    private boolean isTimeSlotFree(int startTimeInMinutes, int endTimeInMinutes, Card exception, Card otherException) {
+        for (Card card : this.cards) {
+            if (card == exception || card == otherException) continue;
+            if (card.checkForCollision(startTimeInMinutes, endTimeInMinutes))
+                return false;
+        }
         return true;
     }
 
+    /**
+     * Returns the time at which the free time starting at the time
+     * passed ends, which is the start of the next card or the end of
+     * the day. Like the collision check, this does not allocate, so
+     * it can be called on every mouse movement.
+     *
+     * @param timeInMinutes The time the free time starts at.
+     * @param exception A card to not be considered, or null.
+     * @return The end of the free time in minutes.
+     */
+    public int getFreeTimeEnd(int timeInMinutes, Card exception) {
+        long stamp = ModelLock.tryOptimisticRead();
+        if (stamp != 0) {
+            int freeTimeEnd = this.findFreeTimeEnd(timeInMinutes, exception);
+            if (ModelLock.validate(stamp)) return freeTimeEnd;
+        }
+        return ModelLock.read(() -> this.findFreeTimeEnd(timeInMinutes, exception));
+    }
+
+    /** Returns the start of the first card starting at or after the time passed, or the end of the day. */
+    private int findFreeTimeEnd(int timeInMinutes, Card exception) {
+        for (Card card : this.cards) {
+            if (card != exception && card.getStartTimeInMinutes() >= timeInMinutes)
+                return card.getStartTimeInMinutes();
+        }
+        return 60 * 24;
+    }
+
+    /**
+     * Adds the free slots of this day to the list passed. The cards
+     * are sorted by their start time and never overlap, so the gaps
+     * between them are found in a single pass. Every slot is shrunk
+     * to start and end on the minute gap passed.
+     *
+     * @param date The day's date, which the shared empty day does not know.
+     * @param fromTimeInMinutes The time to start looking from.
+     * @param minDurationInMinutes The shortest slot to add.
+     * @param minuteGap The minute gap the slots are aligned to.
+     * @param slots The list to add the slots to.
+     */
+    void findFreeSlots(Calendar date, int fromTimeInMinutes, int minDurationInMinutes, int minuteGap, List<FreeSlot> slots) {
+        ModelLock.read(() -> {
+            int freeTimeStart = fromTimeInMinutes;
+            for (Card card : this.cards) {
+                if (card.getEndTimeInMinutes() <= freeTimeStart) continue;
+                FreeSlot.add(date, freeTimeStart, card.getStartTimeInMinutes(), minDurationInMinutes, minuteGap, slots);
+                freeTimeStart = card.getEndTimeInMinutes();
+            }
+            FreeSlot.add(date, freeTimeStart, 60 * 24, minDurationInMinutes, minuteGap, slots);
+            return null;
+        });
+    }
+
+    /** Checks if the card passed is one of the exceptions. */
+    private static boolean isException(Card card, Card[] exceptions) {
+        for (Card exception : exceptions) {
+            if (exception == card) return true;
+        }
+        return false;
+    }
+
+    /**
+     * Checks if all the cards passed can be placed in this day at
+     * once. The existing cards and the new cards are sorted by their
+     * start time and checked for overlaps in a single sweep, so the
+     * cards passed are also checked against each other.
+     *
+     * @param newCards The cards to be placed in this day.
+     * @param exceptions The existing cards to not be considered.
+     * @return True if none of the cards collide.
+     */
+    public boolean canAddCards(Collection<Card> newCards, Set<Card> exceptions) {
+        return ModelLock.read(() -> {
+            Card[] cards = this.cards;
+            List<Card> sortedCards = new ArrayList<>(cards.length + newCards.size());
+            for (Card card : cards) {
+                if (!exceptions.contains(card)) sortedCards.add(card);
+            }
+            sortedCards.addAll(newCards);
+            sortedCards.sort(Comparator.comparingInt(Card::getStartTimeInMinutes));
+            for (int i = 1; i < sortedCards.size(); i++) {
+                if (sortedCards.get(i).getStartTimeInMinutes() < sortedCards.get(i - 1).getEndTimeInMinutes())
+                    return false;
+            }
+            return true;
+        });
+    }
+
     /**
      * Gets the card at the time passed (if any). Otherwise, returns
      * null.
@@ -55,6 +214,16 @@ public class Day {
      * @return The card at the provided time.
      */
     public Card getCardAtTime(int startTimeInMinutes, int endTimeInMinutes) {
+        long stamp = ModelLock.tryOptimisticRead();
+        if (stamp != 0) {
+            Card card = this.findCardAtTime(startTimeInMinutes, endTimeInMinutes);
+            if (ModelLock.validate(stamp)) return card;
+        }
+        return ModelLock.read(() -> this.findCardAtTime(startTimeInMinutes, endTimeInMinutes));
+    }
+
+    /** Returns the first card that intersects with the time passed, or null. */
+    private Card findCardAtTime(int startTimeInMinutes, int endTimeInMinutes) {
         for (Card card : this.cards) {
             if (card.checkForCollision(startTimeInMinutes, endTimeInMinutes))
                 return card;
@@ -70,7 +239,9 @@ public class Day {
     public void addCard(Card card) {
         if (card == null) throw new IllegalArgumentException("Card added can not be null.");
 
-        this.cards.add(card);
+        ModelLock.write(() -> {
+            if (this.insertCard(card)) ModelEventBus.publish(ModelEvent.cardAdded(card));
+        });
     }
 
     /**
@@ -80,13 +251,115 @@ public class Day {
      */
     public void removeCard(Card card) {
         if (card == null) throw new IllegalArgumentException("Card added can not be null.");
-        if (!this.cards.contains(card)) throw new IllegalStateException("Non-existant card can not be removed.");
 
-        this.cards.remove(card);
+        ModelLock.write(() -> {
+            this.deleteCard(card);
+            ModelEventBus.publish(ModelEvent.cardRemoved(card));
+        });
+    }
+
+    /**
+     * Inserts the card into this day without publishing a change.
+     * Must be called while holding the write lock.
+     *
+     * @param card The card to insert.
+     * @return False if the card was already in this day.
+     */
+    boolean insertCard(Card card) {
+        if (this == Day.EMPTY) throw new IllegalStateException("The empty day can not be changed.");
+
+        Card[] cards = this.cards;
+        if (Day.indexOf(cards, card) != -1) return false;
+        int insertionIndex = 0;
+        while (insertionIndex < cards.length && cards[insertionIndex].getStartTimeInMinutes() <= card.getStartTimeInMinutes())
+            insertionIndex++;
+
+        Card[] newCards = new Card[cards.length + 1];
+        System.arraycopy(cards, 0, newCards, 0, insertionIndex);
+        newCards[insertionIndex] = card;
+        System.arraycopy(cards, insertionIndex, newCards, insertionIndex + 1, cards.length - insertionIndex);
+        this.cards = newCards;
+        this.timeAggregate.add(card);
+        this.weekTimeAggregate.add(card);
+        ModelHistory.dayChanged(this);
+        return true;
+    }
+
+    /**
+     * Deletes the card from this day without publishing a change.
+     * Must be called while holding the write lock.
+     *
+     * @param card The card to delete.
+     */
+    void deleteCard(Card card) {
+        if (this == Day.EMPTY) throw new IllegalStateException("The empty day can not be changed.");
+
+        Card[] cards = this.cards;
+        int index = Day.indexOf(cards, card);
+        if (index == -1) throw new IllegalStateException("Non-existant card can not be removed.");
+
+        Card[] newCards = new Card[cards.length - 1];
+        System.arraycopy(cards, 0, newCards, 0, index);
+        System.arraycopy(cards, index + 1, newCards, index, cards.length - index - 1);
+        this.cards = newCards;
+        this.timeAggregate.remove(card);
+        this.weekTimeAggregate.remove(card);
+        ModelHistory.dayChanged(this);
+    }
+
+    /**
+     * Updates this day's totals after a card in this day has been
+     * changed in place. Must be called while holding the write lock.
+     *
+     * @param previous A copy of the card before it was changed.
+     * @param card The changed card.
+     */
+    void cardChanged(Card previous, Card card) {
+        this.timeAggregate.remove(previous);
+        this.weekTimeAggregate.remove(previous);
+        this.timeAggregate.add(card);
+        this.weekTimeAggregate.add(card);
+        ModelHistory.dayChanged(this);
+    }
+
+    /** Returns the index of the card in the array passed, or -1. */
+    private static int indexOf(Card[] cards, Card card) {
+        for (int i = 0; i < cards.length; i++) {
+            if (cards[i] == card) return i;
+        }
+        return -1;
+    }
+
+    /** Returns an unmodifiable list of the cards sorted by their start time. */
+    public List<Card> getCards() {
+        return Collections.unmodifiableList(Arrays.asList(this.cards));
+    }
+
+    /**
+     * Returns the states of the cards in this day. Must be called
+     * while holding the write lock.
+     *
+     * @return The card states sorted by their start time.
+     */
+    CardState[] getCardStates() {
+        Card[] cards = this.cards;
+        CardState[] states = new CardState[cards.length];
+        for (int i = 0; i < cards.length; i++) states[i] = new CardState(cards[i]);
+        return states;
+    }
+
+    /** Returns the number of days between the epoch and this day. */
+    long getEpochDay() {
+        return this.epochDay;
+    }
+
+    /** Returns the totals of the time logged in this day. */
+    public TimeAggregate getTimeAggregate() {
+        return this.timeAggregate;
     }
 
-    /** Returns an unmodifiable set of the cards. */
-    public Set<Card> getCards() {
-        return Collections.unmodifiableSet(this.cards);
+    /** Returns whether this day has no cards assigned to it. */
+    public boolean isEmpty() {
+        return this.cards.length == 0;
     }
 }
@@ -0,0 +1,190 @@
+package com.abyssworks.timetracker.model.week;
+
+import com.abyssworks.timetracker.TimeTracker;
+
+import java.util.Calendar;
+
+/**
+ * The following class follows a card being dragged across a week
+ * without changing the card or the week. Every position the card is
+ * dragged to is checked against the cards already in the week, and
+ * the last valid one is kept as the position of a preview that can be
+ * displayed in place of the card. The preview is only a day and two
+ * times, so dragging touches no card at all. The card is only changed
+ * once the drag is committed, in a single step, and nothing is changed
+ * if the drag is dropped instead.
+ *
+ * @author Dysterio
+ */
+public class DragTransaction {
+    private final Week week;
+    private final Card card;
+    private int previewDayIndex;
+    private int previewStartTimeInMinutes;
+    private int previewEndTimeInMinutes;
+    private boolean duplicate = false;
+
+    /**
+     * Starts dragging the card passed.
+     *
+     * @param week The week the card is dragged across.
+     * @param card The card to drag, which must be in the week.
+     */
+    public DragTransaction(Week week, Card card) {
+        if (week == null) throw new IllegalArgumentException("Week can not be null.");
+        if (card == null) throw new IllegalArgumentException("Card to be dragged can not be null.");
+
+        this.week = week;
+        this.card = card;
+        this.previewDayIndex = card.getDayIndex();
+        this.previewStartTimeInMinutes = card.getStartTimeInMinutes();
+        this.previewEndTimeInMinutes = card.getEndTimeInMinutes();
+    }
+
+    /** Returns the card being dragged, which is left as it was until the drag is committed. */
+    public Card getCard() {
+        return this.card;
+    }
+
+    /** Returns the index of the day the card has been dragged to. */
+    public int getPreviewDayIndex() {
+        return this.previewDayIndex;
+    }
+
+    /** Returns the start time the card has been dragged to. */
+    public int getPreviewStartTimeInMinutes() {
+        return this.previewStartTimeInMinutes;
+    }
+
+    /** Returns the end time the card has been dragged or resized to. */
+    public int getPreviewEndTimeInMinutes() {
+        return this.previewEndTimeInMinutes;
+    }
+
+    /** Returns the duration of the card once it has been dragged or resized. */
+    public int getPreviewDurationInMinutes() {
+        return this.previewEndTimeInMinutes - this.previewStartTimeInMinutes;
+    }
+
+    /** Returns whether the card will be duplicated instead of moved. */
+    public boolean isDuplicate() {
+        return this.duplicate;
+    }
+
+    /**
+     * Chooses between moving the card and leaving it in place while
+     * adding a copy of it at the position it has been dragged to.
+     *
+     * @param duplicate True to duplicate the card.
+     */
+    public void setDuplicate(boolean duplicate) {
+        this.duplicate = duplicate;
+    }
+
+    /**
+     * Moves the preview to the day passed and by the number of time
+     * bars passed, if it can be placed there without colliding with
+     * another card. If it can not, the preview is kept on its day or
+     * at its time when either of them has room for it.
+     *
+     * @param newDayIndex The index of the day the card is dragged to.
+     * @param timeIndexDiff The number of time bars the card is dragged by.
+     * @return True if the preview's time changed.
+     */
+    public boolean moveBy(int newDayIndex, int timeIndexDiff) {
+        int dayIndex = this.previewDayIndex;
+        int startTimeInMinutes = this.previewStartTimeInMinutes;
+        int endTimeInMinutes = this.previewEndTimeInMinutes;
+        int dayDiff = dayIndex - newDayIndex;
+        int minuteDiff = timeIndexDiff * TimeTracker.getMinuteGap();
+        if (startTimeInMinutes + minuteDiff < 0 || endTimeInMinutes + minuteDiff > 24 * 60) {
+            minuteDiff = 0;
+        }
+        int newStartTimeInMinutes = startTimeInMinutes + minuteDiff;
+        int newEndTimeInMinutes = endTimeInMinutes + minuteDiff;
+
+        boolean canAddCardAtNewPos = this.week.canAddCard(newDayIndex, newStartTimeInMinutes, newEndTimeInMinutes, this.card);
+        boolean canRepositionCardOnOldDay = this.week.canAddCard(dayIndex, newStartTimeInMinutes, newEndTimeInMinutes, this.card);
+        boolean canRepositionCardOnOldTime = this.week.canAddCard(newDayIndex, startTimeInMinutes, endTimeInMinutes, this.card);
+        if (canRepositionCardOnOldDay && minuteDiff != 0) {
+            newDayIndex = dayIndex;
+        } else if (canRepositionCardOnOldTime && dayDiff != 0) {
+            newStartTimeInMinutes = startTimeInMinutes;
+            newEndTimeInMinutes = endTimeInMinutes;
+            minuteDiff = 0;
+        } else if (!canAddCardAtNewPos) return false;
+
+        this.setPreview(newDayIndex, newStartTimeInMinutes, newEndTimeInMinutes);
+        return minuteDiff != 0;
+    }
+
+    /**
+     * Moves the preview's end time by the number of time bars passed,
+     * stopping before the next card and never making the card too
+     * short to be dragged.
+     *
+     * @param timeIndexDiff The number of time bars to move the end time by.
+     * @return The number of time bars the end time was actually moved by.
+     */
+    public int resizeBy(int timeIndexDiff) {
+        int minuteDiff = timeIndexDiff * TimeTracker.getMinuteGap();
+        while (this.getPreviewDurationInMinutes() + minuteDiff < Card.DRAGGABLE_CARD_MIN_DURATION) {
+            minuteDiff += TimeTracker.getMinuteGap();
+            timeIndexDiff++;
+        }
+
+        int dayIndex = this.previewDayIndex;
+        int startTime = this.previewStartTimeInMinutes;
+        int newEndTime = this.previewEndTimeInMinutes + minuteDiff;
+        int freeTimeEnd = this.week.getDayAtIndex(dayIndex).getFreeTimeEnd(startTime, this.card);
+        if (newEndTime > freeTimeEnd) {
+            // Steps back by whole time bars until the card stops before the next card.
+            int timeIndicesOver = (newEndTime - freeTimeEnd + TimeTracker.getMinuteGap() - 1) / TimeTracker.getMinuteGap();
+            newEndTime -= timeIndicesOver * TimeTracker.getMinuteGap();
+            timeIndexDiff -= timeIndicesOver;
+        }
+
+        if (!this.week.canAddCard(dayIndex, startTime, newEndTime, this.card)) return 0;
+        this.setPreview(dayIndex, startTime, newEndTime);
+        return timeIndexDiff;
+    }
+
+    /** Places the preview at the day and times passed. */
+    private void setPreview(int dayIndex, int startTimeInMinutes, int endTimeInMinutes) {
+        this.previewDayIndex = dayIndex;
+        this.previewStartTimeInMinutes = startTimeInMinutes;
+        this.previewEndTimeInMinutes = endTimeInMinutes;
+    }
+
+    /**
+     * Returns whether committing the drag would change the week. A
+     * copy that would overlap the card it is duplicated from is not
+     * added, so the preview is only shown once it is clear of the card.
+     */
+    public boolean hasChanged() {
+        boolean sameDay = this.previewDayIndex == this.card.getDayIndex();
+        if (this.duplicate && sameDay && this.card.checkForCollision(this.previewStartTimeInMinutes, this.previewEndTimeInMinutes)) return false;
+        return !sameDay ||
+                this.previewStartTimeInMinutes != this.card.getStartTimeInMinutes() ||
+                this.previewEndTimeInMinutes != this.card.getEndTimeInMinutes();
+    }
+
+    /**
+     * Applies the drag to the week in a single step. The card is
+     * moved or resized to the preview's position, or a copy of it is
+     * added there if the card is being duplicated.
+     */
+    public void commit() {
+        if (!this.hasChanged()) return;
+
+        if (this.duplicate) {
+            Calendar date = this.week.getStartDate();
+            date.add(Calendar.DATE, this.previewDayIndex);
+            WeekManager.addCard(new Card(date, this.card.getTicket(), this.card.getDescription(), this.previewStartTimeInMinutes, this.previewEndTimeInMinutes));
+        } else if (this.previewDayIndex == this.card.getDayIndex() && this.previewStartTimeInMinutes == this.card.getStartTimeInMinutes()) {
+            this.week.resizeCard(this.card, this.previewEndTimeInMinutes);
+        } else {
+            this.week.moveCard(this.card, this.previewDayIndex, this.previewStartTimeInMinutes, this.previewEndTimeInMinutes);
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package com.abyssworks.timetracker.model.week;
+
+import com.abyssworks.timetracker.util.Time;
+
+import java.util.Calendar;
+import java.util.List;
+
+/**
+ * The following class holds a stretch of time in a day that no card
+ * has been assigned to. A free slot is never changed, so it can be
+ * handed out to any thread.
+ *
+ * @author Dysterio
+ */
+public final class FreeSlot {
+    public final long EPOCH_DAY;
+    public final int START_TIME_IN_MINUTES;
+    public final int END_TIME_IN_MINUTES;
+
+    private final Calendar date;
+
+    /**
+     * Creates a free slot.
+     *
+     * @param date The slot's date.
+     * @param startTimeInMinutes The slot's start time.
+     * @param endTimeInMinutes The slot's end time.
+     */
+    FreeSlot(Calendar date, int startTimeInMinutes, int endTimeInMinutes) {
+        this.date = (Calendar) date.clone();
+        this.EPOCH_DAY = Time.getEpochDay(date);
+        this.START_TIME_IN_MINUTES = startTimeInMinutes;
+        this.END_TIME_IN_MINUTES = endTimeInMinutes;
+    }
+
+    /**
+     * Adds the free time passed to the list once it has been shrunk
+     * to start and end on the minute gap, if it is still long enough.
+     *
+     * @param date The date of the free time.
+     * @param startTimeInMinutes The start of the free time.
+     * @param endTimeInMinutes The end of the free time.
+     * @param minDurationInMinutes The shortest slot to add.
+     * @param minuteGap The minute gap the slot is aligned to.
+     * @param slots The list to add the slot to.
+     */
+    static void add(Calendar date, int startTimeInMinutes, int endTimeInMinutes, int minDurationInMinutes, int minuteGap, List<FreeSlot> slots) {
+        int alignedStartTime = (startTimeInMinutes + minuteGap - 1) / minuteGap * minuteGap;
+        int alignedEndTime = endTimeInMinutes / minuteGap * minuteGap;
+        if (alignedEndTime - alignedStartTime >= Math.max(minDurationInMinutes, Card.MINIMUM_CARD_DURATION))
+            slots.add(new FreeSlot(date, alignedStartTime, alignedEndTime));
+    }
+
+    /** Returns a copy of the slot's date. */
+    public Calendar getDate() {
+        return (Calendar) this.date.clone();
+    }
+
+    /** Returns the slot's duration. */
+    public int getDurationInMinutes() {
+        return this.END_TIME_IN_MINUTES - this.START_TIME_IN_MINUTES;
+    }
+
+    @Override
+    public String toString() {
+        return Time.formatDate(this.date) + " " + Time.formatTimeInMinutes(this.START_TIME_IN_MINUTES) + " - " + Time.formatTimeInMinutes(this.END_TIME_IN_MINUTES);
+    }
+}
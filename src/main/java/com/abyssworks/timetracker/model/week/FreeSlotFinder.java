@@ -0,0 +1,170 @@
+package com.abyssworks.timetracker.model.week;
+
+import com.abyssworks.timetracker.TimeTracker;
+import com.abyssworks.timetracker.util.Time;
+
+import java.util.*;
+
+/**
+ * The following class finds the time no card has been assigned to,
+ * and places new cards in it. Every day is looked at in a single pass
+ * over its cards. The slots found are aligned to the minute gap,
+ * while the cards placed keep the minutes they were logged with.
+ *
+ * @author Dysterio
+ */
+public class FreeSlotFinder {
+    /** The number of days looked at when placing a card, starting with the card's own day. */
+    public static final int MAX_DAYS_TO_SEARCH = 31;
+
+    /**
+     * Finds the free slots of the day passed.
+     *
+     * @param date The day's date.
+     * @param minDurationInMinutes The shortest slot to return.
+     * @return The free slots sorted by their start time.
+     */
+    public static List<FreeSlot> findFreeSlots(Calendar date, int minDurationInMinutes) {
+        return FreeSlotFinder.findFreeSlots(date, date, minDurationInMinutes);
+    }
+
+    /**
+     * Finds the free slots of the week passed.
+     *
+     * @param week The week to look in.
+     * @param minDurationInMinutes The shortest slot to return.
+     * @return The free slots sorted by their date and start time.
+     */
+    public static List<FreeSlot> findFreeSlots(Week week, int minDurationInMinutes) {
+        if (week == null) throw new IllegalArgumentException("Week can not be null.");
+
+        Calendar endDate = week.getStartDate();
+        endDate.add(Calendar.DATE, 6);
+        return FreeSlotFinder.findFreeSlots(week.getStartDate(), endDate, minDurationInMinutes);
+    }
+
+    /**
+     * Finds the free slots of every day between the dates passed.
+     *
+     * @param from The first day to look in.
+     * @param to The last day to look in.
+     * @param minDurationInMinutes The shortest slot to return.
+     * @return The free slots sorted by their date and start time.
+     */
+    public static List<FreeSlot> findFreeSlots(Calendar from, Calendar to, int minDurationInMinutes) {
+        if (from == null) throw new IllegalArgumentException("Start date can not be null.");
+        if (to == null) throw new IllegalArgumentException("End date can not be null.");
+        if (minDurationInMinutes < 0) throw new IllegalArgumentException("Minimum duration can not be negative.");
+
+        List<FreeSlot> slots = new ArrayList<>();
+        int minuteGap = TimeTracker.getMinuteGap();
+        long lastDay = Time.getEpochDay(to);
+        Calendar date = (Calendar) from.clone();
+        for (long day = Time.getEpochDay(from); day <= lastDay; day++) {
+            WeekManager.getDay(date).findFreeSlots(date, 0, minDurationInMinutes, minuteGap, slots);
+            date.add(Calendar.DATE, 1);
+        }
+        return slots;
+    }
+
+    /**
+     * Finds the first free slot long enough for the duration passed,
+     * starting at the date and time passed and moving on to the
+     * following days.
+     *
+     * @param date The first day to look in.
+     * @param fromTimeInMinutes The time to start looking from on the first day.
+     * @param durationInMinutes The duration the slot must fit.
+     * @param maxDays The number of days to look in.
+     * @return The slot found, shortened to the duration passed, or
+     * null if none of the days has room.
+     */
+    public static FreeSlot findNextFreeSlot(Calendar date, int fromTimeInMinutes, int durationInMinutes, int maxDays) {
+        return FreeSlotFinder.findNextFreeSlot(date, fromTimeInMinutes, durationInMinutes, maxDays, TimeTracker.getMinuteGap());
+    }
+
+    /**
+     * Finds the first free slot long enough for the duration passed,
+     * aligned to the minute gap passed.
+     *
+     * @param date The first day to look in.
+     * @param fromTimeInMinutes The time to start looking from on the first day.
+     * @param durationInMinutes The duration the slot must fit.
+     * @param maxDays The number of days to look in.
+     * @param minuteGap The minute gap the slot is aligned to, or 1 to find the first free minute.
+     * @return The slot found, shortened to the duration passed, or
+     * null if none of the days has room.
+     */
+    private static FreeSlot findNextFreeSlot(Calendar date, int fromTimeInMinutes, int durationInMinutes, int maxDays, int minuteGap) {
+        if (date == null) throw new IllegalArgumentException("Date can not be null.");
+        if (fromTimeInMinutes < 0) throw new IllegalArgumentException("Start time can not be negative.");
+        if (durationInMinutes < Card.MINIMUM_CARD_DURATION) throw new IllegalArgumentException("Duration can not be less than " + Card.MINIMUM_CARD_DURATION + " minutes.");
+
+        List<FreeSlot> slots = new ArrayList<>();
+        Calendar day = (Calendar) date.clone();
+        for (int i = 0; i < maxDays; i++) {
+            WeekManager.getDay(day).findFreeSlots(day, i == 0 ? fromTimeInMinutes : 0, durationInMinutes, minuteGap, slots);
+            if (!slots.isEmpty()) {
+                FreeSlot slot = slots.get(0);
+                return new FreeSlot(day, slot.START_TIME_IN_MINUTES, slot.START_TIME_IN_MINUTES + durationInMinutes);
+            }
+            day.add(Calendar.DATE, 1);
+        }
+        return null;
+    }
+
+    /**
+     * Adds the card passed at its date and time if it fits there.
+     * Otherwise, it is moved to the first free time at or after its
+     * date and start time that fits its duration. The card is not
+     * aligned to the minute gap, so it keeps the minutes it was
+     * logged with wherever it has room.
+     *
+     * @param card The card to place, which must not be in a day yet.
+     * @return False if no room was found within {@link #MAX_DAYS_TO_SEARCH} days.
+     */
+    public static boolean placeInNextFreeSlot(Card card) {
+        if (card == null) throw new IllegalArgumentException("Card to be placed can not be null.");
+
+        return ModelLock.writeAndGet(() -> {
+            if (WeekManager.getDay(card.getDate()).canAddCard(card.getStartTimeInMinutes(), card.getEndTimeInMinutes(), null, null)) {
+                WeekManager.addCard(card);
+                return true;
+            }
+            FreeSlot slot = FreeSlotFinder.findNextFreeSlot(card.getDate(), card.getStartTimeInMinutes(),
+                    card.getDurationInMinutes(), FreeSlotFinder.MAX_DAYS_TO_SEARCH, 1);
+            if (slot == null) return false;
+
+            card.setDate(slot.getDate());
+            card.setStartTimeInMinutes(slot.START_TIME_IN_MINUTES);
+            card.setEndTimeInMinutes(slot.END_TIME_IN_MINUTES);
+            WeekManager.addCard(card);
+            return true;
+        });
+    }
+
+    /**
+     * Places every card passed as {@link #placeInNextFreeSlot(Card)}
+     * does. The cards are placed in order of their date and start
+     * time, so a card is only moved if it collides with a card
+     * already in its day or with one placed before it. The cards are
+     * placed in a single step.
+     *
+     * @param cards The cards to place, which must not be in a day yet.
+     * @return The cards that could not be placed.
+     */
+    public static List<Card> placeInNextFreeSlots(Collection<Card> cards) {
+        if (cards == null) throw new IllegalArgumentException("Cards to be placed can not be null.");
+
+        List<Card> sortedCards = new ArrayList<>(cards);
+        sortedCards.sort(Comparator.<Card>comparingLong(card -> Time.getEpochDay(card.getDate()))
+                .thenComparingInt(Card::getStartTimeInMinutes));
+        return ModelLock.writeAndGet(() -> {
+            List<Card> cardsNotPlaced = new ArrayList<>();
+            for (Card card : sortedCards) {
+                if (!FreeSlotFinder.placeInNextFreeSlot(card)) cardsNotPlaced.add(card);
+            }
+            return cardsNotPlaced;
+        });
+    }
+}
@@ -0,0 +1,167 @@
+package com.abyssworks.timetracker.model.week;
+
+import java.util.*;
+
+/**
+ * The following class records a snapshot of the worklogs after every
+ * change, and undoes and redoes the changes by putting the cards back
+ * into the state of an earlier snapshot. Only the days touched by a
+ * change are looked at when undoing it.
+ *
+ * @author Dysterio
+ */
+public class ModelHistory {
+    private static final int MAX_STEPS = 100;
+
+    // The following fields are only used while holding the write lock.
+    private static final Set<Day> changedDays = new HashSet<>();
+    private static final Deque<Step> undoSteps = new ArrayDeque<>();
+    private static final Deque<Step> redoSteps = new ArrayDeque<>();
+    private static boolean restoring;
+
+    private static volatile ModelSnapshot snapshot = ModelSnapshot.EMPTY;
+
+    /** Returns the snapshot of the worklogs after the last change. */
+    public static ModelSnapshot getSnapshot() {
+        return ModelHistory.snapshot;
+    }
+
+    /**
+     * Records that the cards of the day passed have changed. Must be
+     * called while holding the write lock.
+     *
+     * @param day The changed day.
+     */
+    static void dayChanged(Day day) {
+        ModelHistory.changedDays.add(day);
+    }
+
+    /**
+     * Creates a new snapshot from the days that have changed, and
+     * records the change so it can be undone. Called by the lock at
+     * the end of every write.
+     */
+    static void commit() {
+        if (ModelHistory.changedDays.isEmpty()) return;
+
+        ModelSnapshot before = ModelHistory.snapshot;
+        ModelSnapshot after = before;
+        Set<Long> changedEpochDays = new HashSet<>();
+        boolean worklogsChanged = false;
+        for (Day day : ModelHistory.changedDays) {
+            CardState[] previousCards = after.getDay(day.getEpochDay());
+            CardState[] cards = day.getCardStates();
+            if (Arrays.equals(cards, previousCards)) continue;
+            after = after.withDay(day.getEpochDay(), cards);
+            changedEpochDays.add(day.getEpochDay());
+            worklogsChanged |= !ModelHistory.haveSameWorklogs(cards, previousCards);
+        }
+        ModelHistory.changedDays.clear();
+        ModelHistory.snapshot = after;
+        // Creating the occurrences of recurrence rules is not a change the user can undo.
+        if (!worklogsChanged || ModelHistory.restoring) return;
+        ModelHistory.addStep(new Step(before, changedEpochDays));
+    }
+
+    /** Returns whether the card states passed are the same once the occurrences of recurrence rules are left out. */
+    private static boolean haveSameWorklogs(CardState[] cards, CardState[] otherCards) {
+        int j = 0;
+        for (CardState card : cards) {
+            if (card.isVirtual()) continue;
+            while (j < otherCards.length && otherCards[j].isVirtual()) j++;
+            if (j == otherCards.length || !card.equals(otherCards[j++])) return false;
+        }
+        while (j < otherCards.length && otherCards[j].isVirtual()) j++;
+        return j == otherCards.length;
+    }
+
+    /** Records a step that can be undone, which clears the steps that could be redone. */
+    private static void addStep(Step step) {
+        ModelHistory.undoSteps.push(step);
+        if (ModelHistory.undoSteps.size() > ModelHistory.MAX_STEPS) ModelHistory.undoSteps.removeLast();
+        ModelHistory.redoSteps.clear();
+    }
+
+    /** Undoes the last change. */
+    public static void undo() {
+        ModelLock.write(() -> ModelHistory.move(ModelHistory.undoSteps, ModelHistory.redoSteps));
+    }
+
+    /** Redoes the last change undone. */
+    public static void redo() {
+        ModelLock.write(() -> ModelHistory.move(ModelHistory.redoSteps, ModelHistory.undoSteps));
+    }
+
+    /** Restores the step at the top of one stack and records the reverse step on the other. */
+    private static void move(Deque<Step> from, Deque<Step> to) {
+        if (from.isEmpty()) return;
+
+        to.push(ModelHistory.restore(from.pop()));
+    }
+
+    /**
+     * Puts the cards of the days changed by the step passed back
+     * into the state they were in before the step. Must be called
+     * while holding the write lock.
+     *
+     * @param step The step to revert.
+     * @return The step that reverts this restoration.
+     */
+    private static Step restore(Step step) {
+        ModelSnapshot current = ModelHistory.snapshot;
+        Map<Card, CardState> currentStates = new IdentityHashMap<>();
+        Map<Card, CardState> targetStates = new IdentityHashMap<>();
+        for (long epochDay : step.epochDays) {
+            for (CardState state : current.getDay(epochDay)) currentStates.put(state.CARD, state);
+            for (CardState state : step.snapshot.getDay(epochDay)) targetStates.put(state.CARD, state);
+        }
+        Set<Card> cards = Collections.newSetFromMap(new IdentityHashMap<>());
+        cards.addAll(currentStates.keySet());
+        cards.addAll(targetStates.keySet());
+
+        ModelHistory.restoring = true;
+        try {
+            for (Card card : cards) {
+                CardState currentState = currentStates.get(card);
+                CardState targetState = targetStates.get(card);
+                if (Objects.equals(currentState, targetState)) continue;
+                // Occurrences that were created or removed along with a rule are left to the rule.
+                if ((currentState == null || currentState.isVirtual()) && (targetState == null || targetState.isVirtual())) continue;
+                WeekManager.restoreCard(card, currentState != null, targetState);
+            }
+            ModelHistory.commit();
+        } finally {
+            ModelHistory.restoring = false;
+        }
+        return new Step(current, step.epochDays);
+    }
+
+    /** Returns whether there is a change that can be undone. */
+    public static boolean canUndo() {
+        return ModelLock.read(() -> !ModelHistory.undoSteps.isEmpty());
+    }
+
+    /** Returns whether there is a change that can be redone. */
+    public static boolean canRedo() {
+        return ModelLock.read(() -> !ModelHistory.redoSteps.isEmpty());
+    }
+
+    /** Forgets every change recorded so far, such as loading the worklogs from the data file. */
+    public static void clear() {
+        ModelLock.write(() -> {
+            ModelHistory.undoSteps.clear();
+            ModelHistory.redoSteps.clear();
+        });
+    }
+
+    /** A change that can be undone: the snapshot before it and the days it touched. */
+    private static class Step {
+        private final ModelSnapshot snapshot;
+        private final Set<Long> epochDays;
+
+        private Step(ModelSnapshot snapshot, Set<Long> epochDays) {
+            this.snapshot = snapshot;
+            this.epochDays = epochDays;
+        }
+    }
+}
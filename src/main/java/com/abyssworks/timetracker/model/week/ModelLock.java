@@ -0,0 +1,125 @@
+package com.abyssworks.timetracker.model.week;
+
+import com.abyssworks.timetracker.model.event.ModelEventBus;
+
+import java.util.concurrent.locks.StampedLock;
+import java.util.function.Supplier;
+
+/**
+ * The following class guards the weeks, days and cards so that
+ * they can be read from any thread. Reads are attempted without
+ * locking and are only repeated under a read lock if a write
+ * happened in the meantime, while writes hold the lock for as
+ * short as possible.
+ *
+ * @author Dysterio
+ */
+final class ModelLock {
+    private static final StampedLock LOCK = new StampedLock();
+    private static final ThreadLocal<Hold> HOLDS = ThreadLocal.withInitial(Hold::new);
+
+    private ModelLock() {}
+
+    /**
+     * Runs the reader passed and returns a result that is consistent
+     * with a single state of the model.
+     *
+     * @param reader The function reading from the model.
+     * @return The reader's result.
+     */
+    static <T> T read(Supplier<T> reader) {
+        Hold hold = ModelLock.HOLDS.get();
+        if (hold.depth > 0) return reader.get();
+
+        long stamp = ModelLock.LOCK.tryOptimisticRead();
+        if (stamp != 0) {
+            try {
+                T result = reader.get();
+                if (ModelLock.LOCK.validate(stamp)) return result;
+            } catch (RuntimeException e) {
+                // The data may have been changed mid-read, in which case the read is retried under the lock.
+                if (ModelLock.LOCK.validate(stamp)) throw e;
+            }
+        }
+
+        hold.stamp = ModelLock.LOCK.readLock();
+        hold.writing = false;
+        hold.depth++;
+        try {
+            return reader.get();
+        } finally {
+            hold.depth--;
+            ModelLock.LOCK.unlockRead(hold.stamp);
+        }
+    }
+
+    /**
+     * Returns a stamp for reading without a lock or a function
+     * object, or 0 if the model is currently being changed. The read
+     * is only valid if {@link #validate(long)} returns true afterwards.
+     */
+    static long tryOptimisticRead() {
+        return ModelLock.HOLDS.get().depth > 0 ? 0 : ModelLock.LOCK.tryOptimisticRead();
+    }
+
+    /** Returns whether no change has been made since the stamp passed was returned. */
+    static boolean validate(long stamp) {
+        return stamp != 0 && ModelLock.LOCK.validate(stamp);
+    }
+
+    /**
+     * Runs the writer passed while holding the write lock. Writes
+     * nested inside another write reuse the lock already held. The
+     * changes published by the writer are delivered together once
+     * the lock has been released, and a snapshot of the changed days
+     * is recorded before it is.
+     *
+     * @param writer The function writing to the model.
+     * @return The writer's result.
+     */
+    static <T> T writeAndGet(Supplier<T> writer) {
+        Hold hold = ModelLock.HOLDS.get();
+        if (hold.depth > 0) {
+            if (!hold.writing) throw new IllegalStateException("The model can not be changed while it is being read.");
+            return writer.get();
+        }
+
+        ModelEventBus.beginBatch();
+        try {
+            hold.stamp = ModelLock.LOCK.writeLock();
+            hold.writing = true;
+            hold.depth++;
+            try {
+                return writer.get();
+            } finally {
+                try {
+                    ModelHistory.commit();
+                } finally {
+                    hold.depth--;
+                    ModelLock.LOCK.unlockWrite(hold.stamp);
+                }
+            }
+        } finally {
+            ModelEventBus.endBatch();
+        }
+    }
+
+    /**
+     * Runs the writer passed while holding the write lock.
+     *
+     * @param writer The function writing to the model.
+     */
+    static void write(Runnable writer) {
+        ModelLock.writeAndGet(() -> {
+            writer.run();
+            return null;
+        });
+    }
+
+    /** Tracks the lock held by a single thread. */
+    private static class Hold {
+        private long stamp;
+        private boolean writing;
+        private int depth;
+    }
+}
@@ -0,0 +1,84 @@
+package com.abyssworks.timetracker.model.week;
+
+import com.abyssworks.timetracker.util.PersistentLongMap;
+import com.abyssworks.timetracker.util.Time;
+
+import java.util.*;
+
+/**
+ * The following class holds the worklogs as they were at the end of
+ * a single change. A snapshot is never changed: every change creates
+ * a new snapshot that shares all the days it did not touch with the
+ * previous one. This lets the history keep many snapshots cheaply,
+ * and lets any thread read a consistent state of the worklogs
+ * without locking.
+ *
+ * @author Dysterio
+ */
+public final class ModelSnapshot {
+    private static final CardState[] NO_CARDS = new CardState[0];
+    static final ModelSnapshot EMPTY = new ModelSnapshot(PersistentLongMap.empty());
+
+    private final PersistentLongMap<CardState[]> days;
+
+    private ModelSnapshot(PersistentLongMap<CardState[]> days) {
+        this.days = days;
+    }
+
+    /**
+     * Returns the states of the cards on the day passed, sorted by
+     * their start time.
+     *
+     * @param epochDay The number of days between the epoch and the day.
+     * @return The card states, which must not be changed.
+     */
+    CardState[] getDay(long epochDay) {
+        CardState[] cards = this.days.get(epochDay);
+        return cards == null ? ModelSnapshot.NO_CARDS : cards;
+    }
+
+    /**
+     * Returns a snapshot with the cards of the day passed replaced.
+     * This snapshot is left unchanged.
+     *
+     * @param epochDay The number of days between the epoch and the day.
+     * @param cards The day's card states.
+     * @return The new snapshot.
+     */
+    ModelSnapshot withDay(long epochDay, CardState[] cards) {
+        return new ModelSnapshot(cards.length == 0 ? this.days.remove(epochDay) : this.days.put(epochDay, cards));
+    }
+
+    /** Returns the states of the cards on the date passed, sorted by their start time. */
+    public List<CardState> getCards(Calendar date) {
+        return Collections.unmodifiableList(Arrays.asList(this.getDay(Time.getEpochDay(date))));
+    }
+
+    /** Returns the state of every card in this snapshot, apart from the occurrences of recurrence rules. */
+    public List<CardState> getAllCardStates() {
+        List<CardState> states = new ArrayList<>();
+        this.days.forEachValue(dayCards -> {
+            for (CardState state : dayCards) {
+                if (!state.isVirtual()) states.add(state);
+            }
+        });
+        return states;
+    }
+
+    /**
+     * Returns a copy of every card in this snapshot, apart from the
+     * occurrences of recurrence rules. The copies hold the values the
+     * cards had when the snapshot was taken, and are not in any week,
+     * so they can be read while the cards themselves are changed.
+     */
+    public Set<Card> getAllCards() {
+        Set<Card> cards = new HashSet<>();
+        for (CardState state : this.getAllCardStates()) cards.add(state.toCard());
+        return cards;
+    }
+
+    /** Returns the number of days that have cards in this snapshot. */
+    public int getNumberOfDays() {
+        return this.days.size();
+    }
+}
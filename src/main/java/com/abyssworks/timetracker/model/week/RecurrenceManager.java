@@ -0,0 +1,225 @@
+package com.abyssworks.timetracker.model.week;
+
+import com.abyssworks.timetracker.model.event.ModelEvent;
+import com.abyssworks.timetracker.model.event.ModelEventBus;
+import com.abyssworks.timetracker.util.Time;
+
+import java.util.*;
+
+/**
+ * The following class handles the recurrence rules. Instead of
+ * storing every occurrence as a worklog, the occurrences of a week
+ * are only created as virtual cards when the week itself is
+ * created. Changing an occurrence turns it into a regular card and
+ * excludes its date from the rule.
+ *
+ * @author Dysterio
+ */
+public class RecurrenceManager {
+    // Replaced on every change, so the rules can be read from any thread without locking or allocating.
+    private static volatile RecurrenceRule[] rules = new RecurrenceRule[0];
+
+    /** Returns all the recurrence rules. */
+    public static List<RecurrenceRule> getRules() {
+        return Collections.unmodifiableList(Arrays.asList(RecurrenceManager.rules));
+    }
+
+    /**
+     * Checks if any rule repeats on the date passed, without
+     * creating the week containing it.
+     *
+     * @param date The date to check.
+     * @return True if an occurrence of a rule falls on the date.
+     */
+    static boolean occursOn(Calendar date) {
+        for (RecurrenceRule rule : RecurrenceManager.rules) {
+            if (rule.occursOn(date)) return true;
+        }
+        return false;
+    }
+
+    /**
+     * Adds the rules passed and creates their occurrences in the
+     * weeks that have already been loaded.
+     *
+     * @param newRules The rules to add.
+     */
+    public static void addRules(Collection<RecurrenceRule> newRules) {
+        if (newRules == null) throw new IllegalArgumentException("Rules to be added can not be null.");
+        if (newRules.isEmpty()) return;
+
+        ModelLock.write(() -> {
+            List<RecurrenceRule> rules = new ArrayList<>(Arrays.asList(RecurrenceManager.rules));
+            rules.addAll(newRules);
+            RecurrenceManager.rules = rules.toArray(new RecurrenceRule[0]);
+            WeekManager.forEachLoadedWeek(week -> {
+                boolean added = false;
+                for (RecurrenceRule rule : newRules) added |= RecurrenceManager.materializeRule(rule, week);
+                if (added) WeekManager.registerWeek(week);
+            });
+            ModelEventBus.publish(ModelEvent.recurrenceChanged());
+        });
+    }
+
+    /**
+     * Removes every rule, leaving the occurrences that have already
+     * been created to the caller. Must be called while holding the
+     * write lock.
+     */
+    static void clearRules() {
+        RecurrenceManager.rules = new RecurrenceRule[0];
+    }
+
+    /**
+     * Makes the card passed repeat on the days passed, starting
+     * from the card's date. If the card is already an occurrence of
+     * a rule, that rule is ended and replaced from the card's date
+     * onwards. If no days are passed, the card stops repeating.
+     *
+     * @param card The card to repeat.
+     * @param dayIndexes The indexes of the days the card repeats on.
+     * @param intervalInWeeks The number of weeks between occurrences.
+     */
+    public static void repeatCard(Card card, Collection<Integer> dayIndexes, int intervalInWeeks) {
+        if (card == null) throw new IllegalArgumentException("Card to be repeated can not be null.");
+
+        ModelLock.write(() -> {
+            RecurrenceRule previousRule = card.getRecurrence();
+            if (previousRule != null) RecurrenceManager.endRule(previousRule, card.getDate());
+            if (!dayIndexes.isEmpty()) {
+                RecurrenceRule rule = new RecurrenceRule(card.getDate(), dayIndexes, intervalInWeeks, card.getTicket(),
+                        card.getDescription(), card.getStartTimeInMinutes(), card.getEndTimeInMinutes());
+                // The card stays as it is and takes the place of the rule's first occurrence.
+                if (previousRule == null) rule.addException(card.getDate());
+                RecurrenceManager.addRules(Collections.singletonList(rule));
+            }
+            WeekManager.markWorklogsChanged();
+        });
+    }
+
+    /**
+     * Stops a rule from repeating on and after the date passed, and
+     * removes the occurrences that have already been created.
+     *
+     * @param rule The rule to end.
+     * @param date The first date without an occurrence.
+     */
+    private static void endRule(RecurrenceRule rule, Calendar date) {
+        Calendar endDate = (Calendar) date.clone();
+        endDate.add(Calendar.DATE, -1);
+        rule.setEndDate(endDate);
+        if (rule.hasNoOccurrences()) {
+            List<RecurrenceRule> rules = new ArrayList<>(Arrays.asList(RecurrenceManager.rules));
+            rules.remove(rule);
+            RecurrenceManager.rules = rules.toArray(new RecurrenceRule[0]);
+        }
+
+        long firstRemovedDay = Time.getEpochDay(date);
+        WeekManager.forEachLoadedWeek(week -> {
+            for (int i = 0; i < 7; i++) {
+                Day day = week.getDayAtIndex(i);
+                for (Card card : day.getCards()) {
+                    if (card.getRecurrence() != rule || Time.getEpochDay(card.getDate()) < firstRemovedDay) continue;
+                    day.deleteCard(card);
+                    ModelEventBus.publish(ModelEvent.cardRemoved(card));
+                }
+            }
+        });
+        ModelEventBus.publish(ModelEvent.recurrenceChanged());
+    }
+
+    /**
+     * Creates the occurrences of every rule in a newly created week.
+     * Must be called while holding the write lock.
+     *
+     * @param week The week to fill.
+     * @return True if any occurrences were added.
+     */
+    static boolean materialize(Week week) {
+        boolean added = false;
+        for (RecurrenceRule rule : RecurrenceManager.rules) added |= RecurrenceManager.materializeRule(rule, week);
+        return added;
+    }
+
+    /**
+     * Creates a week that has not been loaded yet the way loading it
+     * would, filled with the occurrences of every rule, but without
+     * storing the week or publishing its occurrences. This lets the
+     * time logged by the rules be read over any range of dates
+     * without loading the weeks. Must be called while reading the
+     * model.
+     *
+     * @param weekStartDate The week's start date.
+     * @return The week, or the shared empty week if no rule occurs in it.
+     */
+    static Week project(Calendar weekStartDate) {
+        Week week = new Week(weekStartDate);
+        boolean added = false;
+        for (RecurrenceRule rule : RecurrenceManager.rules) added |= RecurrenceManager.insertOccurrences(rule, week, false);
+        return added ? week : Week.EMPTY;
+    }
+
+    /**
+     * Creates the occurrences of a rule in the week passed. An
+     * occurrence is skipped if it would collide with another card.
+     *
+     * @param rule The rule to create the occurrences of.
+     * @param week The week to fill.
+     * @return True if any occurrences were added.
+     */
+    private static boolean materializeRule(RecurrenceRule rule, Week week) {
+        return RecurrenceManager.insertOccurrences(rule, week, true);
+    }
+
+    /**
+     * Inserts the occurrences of a rule into the week passed, skipping
+     * the ones that would collide with another card.
+     *
+     * @param rule The rule to create the occurrences of.
+     * @param week The week to fill.
+     * @param publish Whether the occurrences are published as added cards.
+     * @return True if any occurrences were added.
+     */
+    private static boolean insertOccurrences(RecurrenceRule rule, Week week, boolean publish) {
+        boolean added = false;
+        Calendar date = week.getStartDate();
+        for (int i = 0; i < 7; i++) {
+            if (rule.occursOn(date) && week.canAddCard(i, rule.getStartTimeInMinutes(), rule.getEndTimeInMinutes())) {
+                Card occurrence = rule.createOccurrence(date);
+                week.getOrCreateDay(i).insertCard(occurrence);
+                if (publish) ModelEventBus.publish(ModelEvent.cardAdded(occurrence));
+                added = true;
+            }
+            date.add(Calendar.DATE, 1);
+        }
+        return added;
+    }
+
+    /**
+     * Turns an occurrence into a regular card, so that changing it
+     * does not affect the rule's other occurrences. Must be called
+     * while holding the write lock, before the card is changed.
+     *
+     * @param card The card about to be changed.
+     */
+    static void detach(Card card) {
+        RecurrenceRule rule = card.getRecurrence();
+        if (rule == null) return;
+
+        rule.addException(card.getDate());
+        card.setRecurrence(null);
+    }
+
+    /**
+     * Turns a card back into an occurrence of the rule passed, as
+     * part of undoing the change that detached it. Must be called
+     * while holding the write lock.
+     *
+     * @param card The card to turn back into an occurrence.
+     * @param rule The rule the card was an occurrence of.
+     */
+    static void reattach(Card card, RecurrenceRule rule) {
+        rule.removeException(card.getDate());
+        card.setRecurrence(rule);
+    }
+}
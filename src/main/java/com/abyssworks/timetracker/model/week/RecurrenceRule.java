@@ -0,0 +1,200 @@
+package com.abyssworks.timetracker.model.week;
+
+import com.abyssworks.timetracker.model.data.Ticket;
+import com.abyssworks.timetracker.util.Time;
+import org.json.JSONArray;
+import org.json.JSONObject;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The following class describes a card that repeats on certain
+ * days of the week, every given number of weeks. The rule is stored
+ * once and its occurrences are only created when a week containing
+ * them is loaded.
+ *
+ * @author Dysterio
+ */
+public class RecurrenceRule {
+    private final Calendar anchorDate;
+    private final int dayMask;
+    private final int intervalInWeeks;
+    private final Ticket ticket;
+    private final String description;
+    private final int startTimeInMinutes;
+    private final int endTimeInMinutes;
+    private final Set<Long> exceptions = ConcurrentHashMap.newKeySet();
+    private volatile Calendar endDate;
+
+    /**
+     * Creates a recurrence rule.
+     *
+     * @param anchorDate The first date the rule applies to. The weeks
+     *                   are counted from the week containing it.
+     * @param dayIndexes The indexes of the days the card repeats on.
+     * @param intervalInWeeks The number of weeks between occurrences.
+     * @param ticket The ticket logged by every occurrence.
+     * @param description The description of every occurrence.
+     * @param startTimeInMinutes The start time of every occurrence.
+     * @param endTimeInMinutes The end time of every occurrence.
+     */
+    public RecurrenceRule(Calendar anchorDate, Collection<Integer> dayIndexes, int intervalInWeeks, Ticket ticket, String description, int startTimeInMinutes, int endTimeInMinutes) {
+        if (anchorDate == null) throw new IllegalArgumentException("Anchor date can not be null.");
+        if (dayIndexes == null || dayIndexes.isEmpty()) throw new IllegalArgumentException("Recurrence must repeat on at least one day.");
+        if (intervalInWeeks < 1) throw new IllegalArgumentException("Interval in weeks can not be less than 1.");
+        if (ticket == null) throw new IllegalArgumentException("Ticket passed to recurrence can not be null.");
+        if (startTimeInMinutes < 0 || endTimeInMinutes > 60 * 24) throw new IllegalArgumentException("Recurrence times must be within the day.");
+        if (startTimeInMinutes + Card.MINIMUM_CARD_DURATION > endTimeInMinutes) throw new IllegalStateException("Duration can not be less than " + Card.MINIMUM_CARD_DURATION + " minutes.");
+
+        int dayMask = 0;
+        for (int dayIndex : dayIndexes) {
+            if (dayIndex < 0 || dayIndex > 6) throw new IllegalArgumentException("Day index must be between 0 and 6.");
+            dayMask |= 1 << dayIndex;
+        }
+        this.anchorDate = (Calendar) anchorDate.clone();
+        this.anchorDate.get(Calendar.DAY_OF_WEEK);
+        this.dayMask = dayMask;
+        this.intervalInWeeks = intervalInWeeks;
+        this.ticket = ticket;
+        this.description = description;
+        this.startTimeInMinutes = startTimeInMinutes;
+        this.endTimeInMinutes = endTimeInMinutes;
+    }
+
+    /**
+     * Checks if the card repeats on the date passed.
+     *
+     * @param date The date to check.
+     * @return True if an occurrence falls on the date.
+     */
+    public boolean occursOn(Calendar date) {
+        long day = Time.getEpochDay(date);
+        long anchorDay = Time.getEpochDay(this.anchorDate);
+        if (day < anchorDay) return false;
+        Calendar endDate = this.endDate;
+        if (endDate != null && day > Time.getEpochDay(endDate)) return false;
+        if ((this.dayMask & (1 << (date.get(Calendar.DAY_OF_WEEK) - 1))) == 0) return false;
+        long anchorWeekStart = anchorDay - (this.anchorDate.get(Calendar.DAY_OF_WEEK) - 1);
+        if (((day - anchorWeekStart) / 7) % this.intervalInWeeks != 0) return false;
+
+        // Checked last, as looking the day up boxes it.
+        return !this.exceptions.contains(day);
+    }
+
+    /**
+     * Creates the occurrence on the date passed.
+     *
+     * @param date The occurrence's date.
+     * @return The occurrence as a card.
+     */
+    Card createOccurrence(Calendar date) {
+        Card card = new Card(date, this.ticket, this.description, this.startTimeInMinutes, this.endTimeInMinutes);
+        card.setRecurrence(this);
+        return card;
+    }
+
+    /** Stops the card from repeating on the date passed. */
+    void addException(Calendar date) {
+        this.exceptions.add(Time.getEpochDay(date));
+    }
+
+    /** Lets the card repeat on the date passed again. */
+    void removeException(Calendar date) {
+        this.exceptions.remove(Time.getEpochDay(date));
+    }
+
+    /** Stops the card from repeating after the date passed. */
+    void setEndDate(Calendar endDate) {
+        Calendar copy = (Calendar) endDate.clone();
+        copy.get(Calendar.DAY_OF_WEEK);
+        this.endDate = copy;
+    }
+
+    /** Returns whether the rule has ended before its first occurrence. */
+    boolean hasNoOccurrences() {
+        Calendar endDate = this.endDate;
+        return endDate != null && Time.getEpochDay(endDate) < Time.getEpochDay(this.anchorDate);
+    }
+
+    /** Returns the indexes of the days the card repeats on. */
+    public List<Integer> getDayIndexes() {
+        List<Integer> dayIndexes = new ArrayList<>();
+        for (int i = 0; i < 7; i++) {
+            if ((this.dayMask & (1 << i)) != 0) dayIndexes.add(i);
+        }
+        return dayIndexes;
+    }
+
+    /** Returns the number of weeks between occurrences. */
+    public int getIntervalInWeeks() {
+        return this.intervalInWeeks;
+    }
+
+    /** Returns the ticket logged by every occurrence. */
+    public Ticket getTicket() {
+        return this.ticket;
+    }
+
+    /** Returns the description of every occurrence. */
+    public String getDescription() {
+        return this.description;
+    }
+
+    /** Returns the start time of every occurrence. */
+    public int getStartTimeInMinutes() {
+        return this.startTimeInMinutes;
+    }
+
+    /** Returns the end time of every occurrence. */
+    public int getEndTimeInMinutes() {
+        return this.endTimeInMinutes;
+    }
+
+    /**
+     * Converts this rule into a JSON object that can be saved to the
+     * data file.
+     *
+     * @return The rule as a JSON object.
+     */
+    public JSONObject toJSON() {
+        JSONObject json = new JSONObject();
+        json.put("anchorDate", Time.getDateAsJSONString(this.anchorDate));
+        json.put("days", new JSONArray(this.getDayIndexes()));
+        json.put("intervalInWeeks", this.intervalInWeeks);
+        json.put("ticket", this.ticket.toString());
+        json.put("description", this.description);
+        json.put("startTime", Time.formatTimeInMinutes(this.startTimeInMinutes));
+        json.put("endTime", Time.formatTimeInMinutes(this.endTimeInMinutes));
+        if (this.endDate != null) json.put("endDate", Time.getDateAsJSONString(this.endDate));
+        JSONArray exceptions = new JSONArray();
+        new TreeSet<>(this.exceptions).forEach(day -> exceptions.put(Time.getDateAsJSONString(Time.getCalendarFromEpochDay(day))));
+        json.put("exceptions", exceptions);
+        return json;
+    }
+
+    /**
+     * Creates a rule from a JSON object saved in the data file.
+     *
+     * @param json The rule as a JSON object.
+     * @param ticket The ticket referenced by the rule.
+     * @return The rule.
+     */
+    public static RecurrenceRule fromJSON(JSONObject json, Ticket ticket) {
+        List<Integer> dayIndexes = new ArrayList<>();
+        JSONArray days = json.getJSONArray("days");
+        for (int i = 0; i < days.length(); i++) dayIndexes.add(days.getInt(i));
+
+        RecurrenceRule rule = new RecurrenceRule(Time.getCalendarFromDateString(json.getString("anchorDate")),
+                dayIndexes,
+                json.getInt("intervalInWeeks"),
+                ticket,
+                json.getString("description"),
+                Time.getTimeInMinutesFromString(json.getString("startTime")),
+                Time.getTimeInMinutesFromString(json.getString("endTime")));
+        if (json.has("endDate")) rule.setEndDate(Time.getCalendarFromDateString(json.getString("endDate")));
+        JSONArray exceptions = json.getJSONArray("exceptions");
+        for (int i = 0; i < exceptions.length(); i++) rule.addException(Time.getCalendarFromDateString(exceptions.getString(i)));
+        return rule;
+    }
+}
@@ -0,0 +1,77 @@
+package com.abyssworks.timetracker.model.week;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The following class keeps running totals of the time logged by
+ * a set of cards: in total, per ticket, and per epic. The totals are
+ * updated as cards are added and removed, so they can be read at any
+ * time without going through the cards.
+ *
+ * @author Dysterio
+ */
+public class TimeAggregate {
+    private final Map<String, Integer> minutesPerTicket = new ConcurrentHashMap<>();
+    private final Map<String, Integer> minutesPerEpic = new ConcurrentHashMap<>();
+    private volatile int totalMinutes;
+
+    /**
+     * Adds the card's time to the totals. Must be called while
+     * holding the write lock.
+     *
+     * @param card The card to add.
+     */
+    void add(Card card) {
+        this.update(card, card.getDurationInMinutes());
+    }
+
+    /**
+     * Removes the card's time from the totals. Must be called while
+     * holding the write lock.
+     *
+     * @param card The card to remove.
+     */
+    void remove(Card card) {
+        this.update(card, -card.getDurationInMinutes());
+    }
+
+    /** Adds the minutes passed to the totals the card counts towards. */
+    private void update(Card card, int minutes) {
+        this.totalMinutes += minutes;
+        TimeAggregate.addMinutes(this.minutesPerTicket, card.getTicket().toString(), minutes);
+        String epicTag = card.getTicket().getEpicTag();
+        if (epicTag != null) TimeAggregate.addMinutes(this.minutesPerEpic, epicTag, minutes);
+    }
+
+    /** Adds the minutes to the key's total, dropping the key once its total reaches zero. */
+    private static void addMinutes(Map<String, Integer> totals, String key, int minutes) {
+        totals.merge(key, minutes, (total, change) -> total + change == 0 ? null : total + change);
+    }
+
+    /** Returns the total minutes logged. */
+    public int getTotalMinutes() {
+        return this.totalMinutes;
+    }
+
+    /** Returns the minutes logged against the ticket with the tag passed. */
+    public int getMinutesForTicket(String ticketTag) {
+        return this.minutesPerTicket.getOrDefault(ticketTag, 0);
+    }
+
+    /** Returns the minutes logged against the tickets of the epic with the tag passed. */
+    public int getMinutesForEpic(String epicTag) {
+        return this.minutesPerEpic.getOrDefault(epicTag, 0);
+    }
+
+    /** Returns the minutes logged per ticket tag. */
+    public Map<String, Integer> getMinutesPerTicket() {
+        return Collections.unmodifiableMap(this.minutesPerTicket);
+    }
+
+    /** Returns the minutes logged per epic tag. */
+    public Map<String, Integer> getMinutesPerEpic() {
+        return Collections.unmodifiableMap(this.minutesPerEpic);
+    }
+}
@@ -1,20 +1,28 @@
 package com.abyssworks.timetracker.model.week;
 
+import com.abyssworks.timetracker.model.event.ModelEvent;
+import com.abyssworks.timetracker.model.event.ModelEventBus;
+import com.abyssworks.timetracker.util.FrameClock;
 import com.abyssworks.timetracker.util.Time;
-import com.abyssworks.timetracker.view.GUI;
 
 import java.util.*;
 
 /**
  * The following class outlines a Week data type that is responsible
- * for handling the data associated with a particular week.
+ * for handling the data associated with a particular week. A day is
+ * only created once a card is assigned to it, until then the shared
+ * empty day is returned in its place.
  *
  * @author Dysterio
  */
 public class Week {
+    /** A week without any cards that can not be changed, returned by lookups of weeks that do not exist. */
+    public static final Week EMPTY = new Week();
+
     private final Calendar startDate;
-    private final Calendar endDate;
-    private final List<Day> days = new ArrayList<>();
+    private final long startDay;
+    private final TimeAggregate timeAggregate = new TimeAggregate();
+    private volatile Day[] days = new Day[7];
 
     /**
      * Creates a new Week data object.
@@ -26,28 +34,35 @@ public class Week {
         if (startDate.get(Calendar.DAY_OF_WEEK) != Calendar.SUNDAY) throw new IllegalStateException("Week's start day must start on Sunday.");
 
         this.startDate = startDate;
-        this.endDate = (Calendar) startDate.clone();
-        this.instantiateDays();
+        this.startDay = Time.getEpochDay(startDate);
     }
 
-    /** Instantiates the Day objects for this week. */
-    private void instantiateDays() {
-        for (int i = 0; i < 7; i++) {
-            this.days.add(new Day((Calendar) this.startDate.clone()));
-            this.endDate.add(Calendar.DATE, 1);
-        }
-        this.endDate.add(Calendar.DATE, -1);
+    /** Creates the empty week. */
+    private Week() {
+        this.startDate = null;
+        this.startDay = Long.MIN_VALUE;
     }
 
     /**
-     * Compares this week with the present week.
+     * Compares this week with the present week, as sampled for the
+     * current frame.
      *
      * @return -1, 0, or 1 if this week comes before, at the same time, or after the present week respectively.
      */
     public int weekRelationshipToPresentWeek() {
-        Calendar calendar = Calendar.getInstance();
-        if (Time.compareDates(calendar, this.startDate) < 0) return 1;
-        else if (Time.compareDates(calendar, this.endDate) > 0) return -1;
+        return this.weekRelationshipToPresentWeek(FrameClock.frame());
+    }
+
+    /**
+     * Compares this week with the week of the present time passed.
+     *
+     * @param now The present time.
+     * @return -1, 0, or 1 if this week comes before, at the same time, or after the present week respectively.
+     */
+    public int weekRelationshipToPresentWeek(FrameClock.Sample now) {
+        long today = now.EPOCH_DAY;
+        if (today < this.startDay) return 1;
+        else if (today > this.startDay + 6) return -1;
         else return 0;
     }
 
@@ -59,7 +74,7 @@ public class Week {
     public void addCard(Card card) {
         if (card == null) throw new IllegalArgumentException("Card to be added can not be null.");
 
-        this.getDayAtIndex(card.getDayIndex()).addCard(card);
+        ModelLock.write(() -> this.getOrCreateDay(card.getDayIndex()).addCard(card));
     }
 
     /**
@@ -68,7 +83,58 @@ public class Week {
      * @param card The card to remove.
      */
     public void removeCard(Card card) {
-        this.getDayAtIndex(card.getDayIndex()).removeCard(card);
+        ModelLock.write(() -> {
+            RecurrenceManager.detach(card);
+            this.getOrCreateDay(card.getDayIndex()).removeCard(card);
+        });
+    }
+
+    /**
+     * Moves a card to the day and time passed. If the card is not in
+     * this week yet, it is added instead.
+     *
+     * @param card The card to move.
+     * @param dayIndex The index of the card's new day.
+     * @param startTimeInMinutes The card's new start time.
+     * @param endTimeInMinutes The card's new end time.
+     */
+    public void moveCard(Card card, int dayIndex, int startTimeInMinutes, int endTimeInMinutes) {
+        if (card == null) throw new IllegalArgumentException("Card to be moved can not be null.");
+
+        Calendar newDate = this.getStartDate();
+        newDate.add(Calendar.DATE, dayIndex);
+        ModelLock.write(() -> {
+            Day newDay = this.getOrCreateDay(dayIndex);
+            Card previous = card.clone();
+            RecurrenceManager.detach(card);
+            Day oldDay = this.getDayAtIndex(card.getDayIndex());
+            boolean existed = oldDay.getCards().contains(card);
+            if (existed) oldDay.deleteCard(card);
+            card.setDate(newDate);
+            card.setStartTimeInMinutes(startTimeInMinutes);
+            card.setEndTimeInMinutes(endTimeInMinutes);
+            newDay.insertCard(card);
+            ModelEventBus.publish(existed ? new ModelEvent(ModelEvent.Type.CardMoved, card, previous) : ModelEvent.cardAdded(card));
+        });
+    }
+
+    /**
+     * Changes the end time of a card in this week.
+     *
+     * @param card The card to resize.
+     * @param endTimeInMinutes The card's new end time.
+     */
+    public void resizeCard(Card card, int endTimeInMinutes) {
+        if (card == null) throw new IllegalArgumentException("Card to be resized can not be null.");
+
+        ModelLock.write(() -> {
+            Card previous = card.clone();
+            RecurrenceManager.detach(card);
+            card.setEndTimeInMinutes(endTimeInMinutes);
+            Day day = this.getDayAtIndex(card.getDayIndex());
+            if (day.getCards().contains(card)) day.cardChanged(previous, card);
+            ModelEventBus.publish(new ModelEvent(ModelEvent.Type.CardResized, card, previous));
+        });
     }
 
     /** Checks if a card can be added at the date and time passed. */
@@ -76,9 +142,14 @@ public class Week {
         return this.getDayAtIndex(dayIndex).canAddCard(exceptions, startTimeInMinutes, endTimeInMinutes);
     }
 
+    /** Checks if a card can be added at the date and time passed, ignoring the card passed. */
+    public boolean canAddCard(int dayIndex, int startTimeInMinutes, int endTimeInMinutes, Card exception) {
+        return this.getDayAtIndex(dayIndex).canAddCard(startTimeInMinutes, endTimeInMinutes, exception, null);
+    }
+
     /** Checks if a card can be added at the date and time passed. */
     public boolean canAddCard(int dayIndex, int startTimeInMinutes, int endTimeInMinutes) {
-        return this.getDayAtIndex(dayIndex).canAddCard(new Card[]{}, startTimeInMinutes, endTimeInMinutes);
+        return this.getDayAtIndex(dayIndex).canAddCard(startTimeInMinutes, endTimeInMinutes, null, null);
     }
 
     /**
@@ -88,15 +159,18 @@ public class Week {
      * @return True if the card is in this week. Otherwise false.
      */
     public boolean checkForCard(Card card) {
-        for (Day day : this.days) {
-            if (day.getCards().contains(card))
-                return true;
-        }
-        return false;
+        return ModelLock.read(() -> {
+            for (Day day : this.days) {
+                if (day != null && day.getCards().contains(card))
+                    return true;
+            }
+            return false;
+        });
     }
 
     /**
-     * Gets the day at a specific index.
+     * Gets the day at a specific index. If no card has been assigned
+     * to the day yet, the shared empty day is returned.
      *
      * @param dayIndex The day's index.
      * @return The specified day.
@@ -105,18 +179,30 @@ public class Week {
         if (dayIndex < 0) throw new IllegalArgumentException("Day index can not be less than 0.");
         if (dayIndex > 6) throw new IllegalArgumentException("Day index can not be greater than 6.");
 
-        return this.days.get(dayIndex);
+        Day day = this.days[dayIndex];
+        return day == null ? Day.EMPTY : day;
     }
 
     /**
-     * Returns the card on the day and time provided.
+     * Gets the day at a specific index, creating it if needed. Must be
+     * called while holding the write lock.
      *
-     * @param dayIndex The index of the day to check for the card.
-     * @param timeInMinutes The time in minutes at which to check for a card.
-     * @return The card object at that time and day.
+     * @param dayIndex The day's index.
+     * @return The specified day.
      */
-    public Card getCardAtDayAndTime(int dayIndex, int timeInMinutes) {
-        return this.getDayAtIndex(dayIndex).getCardAtTime(timeInMinutes, timeInMinutes + GUI.getPixPerMin());
+    Day getOrCreateDay(int dayIndex) {
+        if (this == Week.EMPTY) throw new IllegalStateException("The empty week can not be changed.");
+
+        Day day = this.getDayAtIndex(dayIndex);
+        if (day != Day.EMPTY) return day;
+
+        Calendar date = this.getStartDate();
+        date.add(Calendar.DATE, dayIndex);
+        day = new Day(date, this.timeAggregate);
+        Day[] days = this.days.clone();
+        days[dayIndex] = day;
+        this.days = days;
+        return day;
     }
 
     /**
@@ -125,11 +211,13 @@ public class Week {
      * @return A set of all the cards.
      */
     public Set<Card> getAllCards() {
-        Set<Card> cards = new HashSet<>();
-        for (Day day : this.days) {
-            cards.addAll(day.getCards());
-        }
-        return cards;
+        return ModelLock.read(() -> {
+            Set<Card> cards = new HashSet<>();
+            for (Day day : this.days) {
+                if (day != null) cards.addAll(day.getCards());
+            }
+            return cards;
+        });
     }
 
     /**
@@ -139,17 +227,30 @@ public class Week {
      */
     public boolean isEmpty() {
         for (Day d : this.days) {
-            if (d.getCards().size() > 0) return false;
+            if (d != null && !d.isEmpty()) return false;
         }
         return true;
     }
 
+    /** Returns the totals of the time logged in this week. */
+    public TimeAggregate getTimeAggregate() {
+        return this.timeAggregate;
+    }
+
     /** Returns this week's start date. */
     public Calendar getStartDate() {
+        if (this == Week.EMPTY) throw new IllegalStateException("The empty week has no dates.");
         return (Calendar) this.startDate.clone();
     }
     /** Returns this week's end date. */
     public Calendar getEndDate() {
-        return (Calendar) this.endDate.clone();
+        Calendar endDate = this.getStartDate();
+        endDate.add(Calendar.DATE, 6);
+        return endDate;
+    }
+
+    /** Returns the number of days between the epoch and this week's start date. */
+    long getStartDay() {
+        return this.startDay;
     }
 }
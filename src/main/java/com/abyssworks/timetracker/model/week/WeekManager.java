@@ -1,15 +1,22 @@
 package com.abyssworks.timetracker.model.week;
 
 import com.abyssworks.timetracker.TimeTracker;
+import com.abyssworks.timetracker.model.data.Ticket;
+import com.abyssworks.timetracker.model.event.ModelEvent;
+import com.abyssworks.timetracker.model.event.ModelEventBus;
+import com.abyssworks.timetracker.util.FrameClock;
 import com.abyssworks.timetracker.util.Time;
 import com.abyssworks.timetracker.view.popup.CardPopup;
-import com.abyssworks.timetracker.view.week.WeekHeader;
 
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
 
 /**
  * This class handles the back-end associated with changing
- * and handling the weeks via the week header.
+ * and handling the weeks via the week header. The weeks can be
+ * read from any thread, while changes are made one at a time.
  *
  * @author Dysterio
  */
@@ -17,40 +24,91 @@ public class WeekManager {
     public static final int NEXT = 1;
     public static final int PREV = -1;
 
-    private static final Map<String, Week> weeksData = new HashMap<>();
-    private static final Calendar displayWeekStartDate = Calendar.getInstance();
-    private static Week currentWeek;
+    private static final Map<Long, Week> weeksData = new ConcurrentHashMap<>();
+    // The sorted keys of the stored weeks, replaced on every change, so weeks that do not exist are found without boxing their key.
+    private static volatile long[] storedWeekKeys = new long[0];
+    private static volatile Calendar displayWeekStartDate;
+    private static volatile long displayWeekKey;
+    private static volatile Week currentWeek;
+    private static volatile boolean worklogsChanged;
 
     static {
-        WeekManager.displayWeekStartDate.setFirstDayOfWeek(Calendar.SUNDAY);
-        WeekManager.displayWeekStartDate.set(Calendar.DAY_OF_WEEK, Calendar.SUNDAY);
+        Calendar weekStartDate = Time.getCalendarFromEpochDay(FrameClock.now().EPOCH_DAY);
+        weekStartDate.setFirstDayOfWeek(Calendar.SUNDAY);
+        weekStartDate.set(Calendar.DAY_OF_WEEK, Calendar.SUNDAY);
+        weekStartDate.get(Calendar.DAY_OF_WEEK); // Computes all the fields now, so later reads do not modify the calendar.
+        WeekManager.displayWeekStartDate = weekStartDate;
+        WeekManager.displayWeekKey = Time.getEpochDay(weekStartDate);
         WeekManager.getDisplayWeek();
+        ModelEventBus.subscribe(events -> {
+            for (ModelEvent event : events) {
+                if (event.isCardEvent()) WeekManager.worklogsChanged = true;
+            }
+        }, ModelEventBus.Delivery.Sync);
     }
 
     /** Returns the currently displayed week's start and end date. */
     public static String getDisplayWeekStartAndEndDate() {
         Calendar calendar = (Calendar) WeekManager.displayWeekStartDate.clone();
-        String startDate = TimeTracker.DATE_FORMAT.format(calendar.getTime());
+        String startDate = Time.formatDate(calendar);
         calendar.add(Calendar.DATE, 6);
-        String endDate = TimeTracker.DATE_FORMAT.format(calendar.getTime());
+        String endDate = Time.formatDate(calendar);
         return startDate + " - " + endDate;
     }
 
     /**
-     * Returns the week that should be currently displayed.
+     * Returns the week that should be currently displayed. The week
+     * is only looked up when the displayed week has changed, and only
+     * created if it does not exist yet.
      *
      * @return The week to be displayed.
      */
     public static Week getDisplayWeek() {
-        return WeekManager.currentWeek = WeekManager.weeksData.getOrDefault(
-                TimeTracker.DATE_FORMAT.format(WeekManager.displayWeekStartDate.getTime()),
-                new Week(WeekManager.displayWeekStartDate));
+        Week week = WeekManager.currentWeek;
+        if (week != null && week.getStartDay() == WeekManager.displayWeekKey) return week;
+
+        return ModelLock.writeAndGet(() -> {
+            Calendar weekStartDate = WeekManager.displayWeekStartDate;
+            long weekKey = WeekManager.displayWeekKey;
+            Week displayWeek = WeekManager.weeksData.get(weekKey);
+            if (displayWeek == null) displayWeek = WeekManager.createWeek((Calendar) weekStartDate.clone());
+            return WeekManager.currentWeek = displayWeek;
+        });
+    }
+
+    /**
+     * Creates a week and fills it with the occurrences of the
+     * recurrence rules. The week is only stored if it has cards.
+     * Must be called while holding the write lock.
+     *
+     * @param weekStartDate The week's start date.
+     * @return The new week.
+     */
+    private static Week createWeek(Calendar weekStartDate) {
+        Week week = new Week(weekStartDate);
+        if (RecurrenceManager.materialize(week)) WeekManager.registerWeek(week);
+        return week;
     }
 
-    /** Returns the present day's index. */
+    /**
+     * Runs the reader passed and returns a result that is consistent
+     * with a single state of the weeks, days and cards, from any
+     * thread. The reader is first run without locking and is only
+     * run again under a read lock if a change was made in the
+     * meantime, so it must not change anything outside of the result
+     * it builds.
+     *
+     * @param reader The function reading from the model.
+     * @return The reader's result.
+     */
+    public static <T> T read(Supplier<T> reader) {
+        if (reader == null) throw new IllegalArgumentException("Reader can not be null.");
+        return ModelLock.read(reader);
+    }
+
+    /** Returns the present day's index, as sampled for the current frame. */
     public static int getCurrDayIndex() {
-        Calendar calendar = Calendar.getInstance();
-        return calendar.get(Calendar.DAY_OF_WEEK) - 1;
+        return FrameClock.frame().DAY_INDEX;
     }
 
     /**
@@ -59,31 +117,101 @@ public class WeekManager {
      * @param direction The direction to change the week in.
      */
     public static void changeWeek(int direction) {
-        WeekManager.displayWeekStartDate.add(Calendar.DATE, 7 * direction);
+        ModelLock.write(() -> {
+            Calendar weekStartDate = (Calendar) WeekManager.displayWeekStartDate.clone();
+            weekStartDate.add(Calendar.DATE, 7 * direction);
+            weekStartDate.get(Calendar.DAY_OF_WEEK);
+            WeekManager.displayWeekStartDate = weekStartDate;
+            WeekManager.displayWeekKey = Time.getEpochDay(weekStartDate);
+        });
     }
 
     /**
-     * Returns the week object associated with the date
+     * Changes the display week to the week containing the date
      * passed.
      *
-     * @param date The date to check for.
-     * @return The week which contains the date.
+     * @param date The date to show.
      */
-    private static Week getWeekFromDate(Calendar date) {
+    public static void changeWeek(Calendar date) {
         if (date == null) throw new IllegalArgumentException("Date can not be null.");
 
+        Calendar weekStartDate = WeekManager.getWeekStartDate(date);
+        weekStartDate.get(Calendar.DAY_OF_WEEK);
+        ModelLock.write(() -> {
+            WeekManager.displayWeekStartDate = weekStartDate;
+            WeekManager.displayWeekKey = Time.getEpochDay(weekStartDate);
+        });
+    }
+
+    /**
+     * Returns the start date of the week which contains the
+     * date passed.
+     *
+     * @param date The date to check for.
+     * @return The Sunday of the week containing the date.
+     */
+    private static Calendar getWeekStartDate(Calendar date) {
         Calendar weekStartDate = (Calendar) date.clone();
+        weekStartDate.getTimeInMillis(); // Computes any pending fields, otherwise setting the day of the week is ignored.
         weekStartDate.set(Calendar.DAY_OF_WEEK, Calendar.SUNDAY);
+        return weekStartDate;
+    }
 
-        String startDate = TimeTracker.DATE_FORMAT.format(weekStartDate.getTime());
-        if (WeekManager.weeksData.containsKey(startDate)) {
-            return WeekManager.weeksData.get(startDate);
-        } else {
-            if (Time.compareDates(WeekManager.currentWeek.getStartDate(), weekStartDate) == 0)
-                return WeekManager.currentWeek;
-            else
-                return new Week(weekStartDate);
-        }
+    /**
+     * Returns the key a week is stored under, which is the number
+     * of days between the epoch and the week's start date.
+     *
+     * @param date A date in the week.
+     * @return The week's key.
+     */
+    private static long getWeekKey(Calendar date) {
+        return Time.getEpochDay(date) - (date.get(Calendar.DAY_OF_WEEK) - 1);
+    }
+
+    /**
+     * Returns the week object associated with the key
+     * passed. If the week does not exist, the shared empty
+     * week is returned instead of creating one.
+     *
+     * @param weekKey The week's key.
+     * @return The week with the key passed.
+     */
+    private static Week getWeekFromKey(long weekKey) {
+        Week week = WeekManager.currentWeek;
+        if (week != null && week.getStartDay() == weekKey) return week;
+        if (Arrays.binarySearch(WeekManager.storedWeekKeys, weekKey) < 0) return Week.EMPTY;
+
+        week = WeekManager.weeksData.get(weekKey);
+        return week == null ? Week.EMPTY : week;
+    }
+
+    /**
+     * Returns the week starting on the day passed as it is stored,
+     * without creating it or filling it with the occurrences of the
+     * recurrence rules, so weeks can be looked up from any thread
+     * and over any range of dates.
+     *
+     * @param weekStartDay The number of days between the epoch and the week's start date.
+     * @return The week, or the shared empty week if it does not exist.
+     */
+    public static Week getStoredWeek(long weekStartDay) {
+        return WeekManager.getWeekFromKey(weekStartDay);
+    }
+
+    /**
+     * Returns the week starting on the day passed as it would be
+     * displayed, without creating or storing it. A week that has not
+     * been loaded yet is returned as a copy filled with the
+     * occurrences of the recurrence rules, which is dropped once
+     * read. Must be called while reading the model, see read.
+     *
+     * @param weekStartDay The number of days between the epoch and the week's start date.
+     * @return The week, or the shared empty week if it has no cards.
+     */
+    public static Week getProjectedWeek(long weekStartDay) {
+        Week week = WeekManager.getWeekFromKey(weekStartDay);
+        if (week != Week.EMPTY) return week;
+        return RecurrenceManager.project(Time.getCalendarFromEpochDay(weekStartDay));
     }
 
     /**
@@ -104,10 +232,31 @@ public class WeekManager {
         if (startTimeInMinutes >= endTimeInMinutes) throw new IllegalStateException("Start time can not be after end time.");
         if (startTimeInMinutes + Card.MINIMUM_CARD_DURATION > endTimeInMinutes) throw new IllegalStateException("Duration can not be less than " + Card.MINIMUM_CARD_DURATION + " minutes.");
 
-        Week week = WeekManager.getWeekFromDate(date);
-        if (week.isEmpty()) return true;
+        return WeekManager.getDay(date).canAddCard(startTimeInMinutes, endTimeInMinutes, exception, null);
+    }
+
+    /**
+     * Returns the day of the date passed, or the shared empty day if
+     * no card has been assigned to it. If the week has not been
+     * created yet, it is only created when an occurrence of a
+     * recurrence rule falls on the date, so looking up an empty date
+     * does not allocate. Must not be called while reading the model,
+     * as the week may have to be created first.
+     *
+     * @param date The date of the day.
+     * @return The day of the date passed.
+     */
+    static Day getDay(Calendar date) {
         int dayIndex = date.get(Calendar.DAY_OF_WEEK) - 1;
-        return week.canAddCard(dayIndex, startTimeInMinutes, endTimeInMinutes, exception);
+        Week week = WeekManager.getWeekFromKey(WeekManager.getWeekKey(date));
+        if (week == Week.EMPTY) {
+            if (!RecurrenceManager.occursOn(date)) return Day.EMPTY;
+            week = ModelLock.writeAndGet(() -> {
+                Week storedWeek = WeekManager.getWeekFromKey(WeekManager.getWeekKey(date));
+                return storedWeek != Week.EMPTY ? storedWeek : WeekManager.createWeek(WeekManager.getWeekStartDate(date));
+            });
+        }
+        return week.getDayAtIndex(dayIndex);
     }
 
     /**
@@ -118,14 +267,146 @@ public class WeekManager {
     public static void addCard(Card card) {
         if (card == null) throw new IllegalArgumentException("Card to be added can not be null.");
 
-        Calendar weekStartDate = (Calendar) card.getDate().clone();
-        TimeTracker.DATE_FORMAT.format(weekStartDate.getTime()); // Dummy line without which code breaks idk :'(
-        weekStartDate.set(Calendar.DAY_OF_WEEK, Calendar.SUNDAY);
+        ModelLock.write(() -> {
+            WeekResolver weekResolver = new WeekResolver();
+            weekResolver.resolve(card.getDate()).addCard(card);
+            weekResolver.commit();
+        });
+    }
+
+    /**
+     * Adds all the cards passed in a single step. The cards are
+     * grouped by the day they fall on and every day is checked for
+     * collisions once. If any of the cards collide, none of them
+     * are added.
+     *
+     * @param cards The cards to add.
+     */
+    public static void addCards(Collection<Card> cards) {
+        WeekManager.addCards(cards, true);
+    }
 
-        String startDate = TimeTracker.DATE_FORMAT.format(weekStartDate.getTime());
-        Week week = WeekManager.getWeekFromDate(weekStartDate);
-        if (!WeekManager.weeksData.containsKey(startDate)) WeekManager.weeksData.put(startDate, week);
-        week.addCard(card);
+    /**
+     * Adds the worklogs read from the data file in a single step, at
+     * the dates and times they were saved with. Worklogs saved by
+     * older versions may overlap, and are loaded overlapping rather
+     * than being moved, so the user's history is never changed
+     * without them asking.
+     *
+     * @param cards The cards to load.
+     */
+    public static void loadCards(Collection<Card> cards) {
+        WeekManager.addCards(cards, false);
+    }
+
+    /**
+     * Adds all the cards passed in a single step.
+     *
+     * @param cards The cards to add.
+     * @param checkCollisions True to add none of the cards if any of them collide.
+     */
+    private static void addCards(Collection<Card> cards, boolean checkCollisions) {
+        if (cards == null) throw new IllegalArgumentException("Cards to be added can not be null.");
+
+        ModelLock.write(() -> {
+            WeekResolver weekResolver = new WeekResolver();
+            Map<Day, List<Card>> cardsByDay = new HashMap<>();
+            for (Card card : cards) {
+                if (card == null) throw new IllegalArgumentException("Card to be added can not be null.");
+                Day day = weekResolver.resolve(card.getDate()).getOrCreateDay(card.getDayIndex());
+                cardsByDay.computeIfAbsent(day, d -> new ArrayList<>()).add(card);
+            }
+            for (Map.Entry<Day, List<Card>> entry : cardsByDay.entrySet()) {
+                if (checkCollisions && !entry.getKey().canAddCards(entry.getValue(), Collections.emptySet()))
+                    throw new IllegalStateException("Cards to be added collide with each other or with existing cards.");
+            }
+
+            for (Map.Entry<Day, List<Card>> entry : cardsByDay.entrySet()) {
+                for (Card card : entry.getValue()) entry.getKey().addCard(card);
+            }
+            weekResolver.commit();
+        });
+    }
+
+    /**
+     * Moves all the cards passed by the same number of days and
+     * minutes in a single step. If any of the cards would leave
+     * its day or collide with another card, none of them are moved.
+     *
+     * @param cards The cards to move.
+     * @param dayOffset The number of days to move the cards by.
+     * @param minuteOffset The number of minutes to move the cards by.
+     */
+    public static void moveCards(Collection<Card> cards, int dayOffset, int minuteOffset) {
+        if (cards == null) throw new IllegalArgumentException("Cards to be moved can not be null.");
+
+        ModelLock.write(() -> {
+            WeekResolver weekResolver = new WeekResolver();
+            Set<Card> cardsToMove = new HashSet<>(cards);
+            Map<Card, Day> sourceDays = new HashMap<>();
+            Map<Card, Card> movedCards = new HashMap<>();
+            Map<Day, List<Card>> movedCardsByDay = new HashMap<>();
+            for (Card card : cardsToMove) {
+                if (card == null) throw new IllegalArgumentException("Card to be moved can not be null.");
+                Day sourceDay = weekResolver.resolve(card.getDate()).getDayAtIndex(card.getDayIndex());
+                if (!sourceDay.getCards().contains(card)) throw new IllegalStateException("Non-existant card can not be moved.");
+
+                int newStartTimeInMinutes = card.getStartTimeInMinutes() + minuteOffset;
+                int newEndTimeInMinutes = card.getEndTimeInMinutes() + minuteOffset;
+                if (newStartTimeInMinutes < 0 || newEndTimeInMinutes > 60 * 24) throw new IllegalStateException("Cards can not be moved outside of their day.");
+                Calendar newDate = card.getDate();
+                newDate.add(Calendar.DATE, dayOffset);
+                Card movedCard = new Card(newDate, card.getTicket(), card.getDescription(), newStartTimeInMinutes, newEndTimeInMinutes);
+
+                Day targetDay = weekResolver.resolve(newDate).getOrCreateDay(movedCard.getDayIndex());
+                sourceDays.put(card, sourceDay);
+                movedCards.put(card, movedCard);
+                movedCardsByDay.computeIfAbsent(targetDay, d -> new ArrayList<>()).add(movedCard);
+            }
+            for (Map.Entry<Day, List<Card>> entry : movedCardsByDay.entrySet()) {
+                if (!entry.getKey().canAddCards(entry.getValue(), cardsToMove))
+                    throw new IllegalStateException("Cards to be moved collide with each other or with existing cards.");
+            }
+
+            for (Card card : cardsToMove) {
+                Card movedCard = movedCards.get(card);
+                Card previous = card.clone();
+                RecurrenceManager.detach(card);
+                sourceDays.get(card).deleteCard(card);
+                card.setDate(movedCard.getDate());
+                card.setStartTimeInMinutes(movedCard.getStartTimeInMinutes());
+                card.setEndTimeInMinutes(movedCard.getEndTimeInMinutes());
+                weekResolver.resolve(card.getDate()).getOrCreateDay(card.getDayIndex()).insertCard(card);
+                ModelEventBus.publish(new ModelEvent(ModelEvent.Type.CardMoved, card, previous));
+            }
+            weekResolver.commit();
+        });
+    }
+
+    /**
+     * Removes all the cards passed in a single step. If any of the
+     * cards can not be found, none of them are removed.
+     *
+     * @param cards The cards to remove.
+     */
+    public static void removeCards(Collection<Card> cards) {
+        if (cards == null) throw new IllegalArgumentException("Cards to be removed can not be null.");
+
+        ModelLock.write(() -> {
+            WeekResolver weekResolver = new WeekResolver();
+            Map<Card, Day> cardsToRemove = new HashMap<>();
+            for (Card card : cards) {
+                if (card == null) throw new IllegalArgumentException("Card to be removed can not be null.");
+                Day day = weekResolver.resolve(card.getDate()).getDayAtIndex(card.getDayIndex());
+                if (!day.getCards().contains(card)) throw new IllegalStateException("Non-existant card can not be removed.");
+                cardsToRemove.put(card, day);
+            }
+
+            for (Map.Entry<Card, Day> entry : cardsToRemove.entrySet()) {
+                RecurrenceManager.detach(entry.getKey());
+                entry.getValue().removeCard(entry.getKey());
+            }
+        });
     }
 
     /**
@@ -136,42 +417,190 @@ public class WeekManager {
      * @param cardPopup The popup.
      */
     public static void updateCard(Card card, CardPopup cardPopup) {
-        Week week = WeekManager.getWeekFromDate(card.getDate());
-        week.removeCard(card);
-        card.setDate(cardPopup.getDate());
-        card.setTicket(cardPopup.getTicket());
-        card.setDescription(cardPopup.getDescription());
-        card.setStartTimeInMinutes(cardPopup.getTimeInMinutes(true));
-        card.setEndTimeInMinutes(cardPopup.getTimeInMinutes(false));
-        WeekManager.addCard(card);
+        Calendar date = cardPopup.getDate();
+        Ticket ticket = cardPopup.getTicket();
+        String description = cardPopup.getDescription();
+        int startTimeInMinutes = cardPopup.getTimeInMinutes(true);
+        int endTimeInMinutes = cardPopup.getTimeInMinutes(false);
+        ModelLock.write(() -> {
+            Card previous = card.clone();
+            RecurrenceManager.detach(card);
+            WeekResolver weekResolver = new WeekResolver();
+            weekResolver.resolve(card.getDate()).getDayAtIndex(card.getDayIndex()).deleteCard(card);
+            card.setDate(date);
+            card.setTicket(ticket);
+            card.setDescription(description);
+            card.setStartTimeInMinutes(startTimeInMinutes);
+            card.setEndTimeInMinutes(endTimeInMinutes);
+            weekResolver.resolve(card.getDate()).getOrCreateDay(card.getDayIndex()).insertCard(card);
+            weekResolver.commit();
+            ModelEventBus.publish(new ModelEvent(ModelEvent.Type.CardEdited, card, previous));
+        });
     }
 
     /**
-     * Returns all the cards currently stored in the program.
+     * Puts a card back into an earlier state as part of undoing or
+     * redoing a change. Must be called while holding the write lock.
      *
-     * @return A set of all the cards.
+     * @param card The card to restore.
+     * @param inDay Whether the card is currently in a day.
+     * @param state The state to restore, or null if the card should
+     *              be removed.
      */
-    private static Set<Card> getAllCards() {
-        Set<Card> cards = new HashSet<>();
-        for (Week week : WeekManager.weeksData.values()) {
-            cards.addAll(week.getAllCards());
+    static void restoreCard(Card card, boolean inDay, CardState state) {
+        Card previous = card.clone();
+        RecurrenceManager.detach(card);
+        WeekResolver weekResolver = new WeekResolver();
+        if (inDay) weekResolver.resolve(card.getDate()).getDayAtIndex(card.getDayIndex()).deleteCard(card);
+        if (state == null) {
+            ModelEventBus.publish(ModelEvent.cardRemoved(card));
+            return;
         }
-        return cards;
+
+        state.restore();
+        weekResolver.resolve(card.getDate()).getOrCreateDay(card.getDayIndex()).insertCard(card);
+        weekResolver.commit();
+        ModelEventBus.publish(inDay ? new ModelEvent(ModelEvent.Type.CardEdited, card, previous) : ModelEvent.cardAdded(card));
+    }
+
+    /**
+     * Runs the action passed on every week that has been loaded,
+     * including the displayed week. Must be called while holding
+     * the write lock.
+     *
+     * @param action The action to run with each week.
+     */
+    static void forEachLoadedWeek(Consumer<Week> action) {
+        WeekManager.weeksData.values().forEach(action);
+        Week currentWeek = WeekManager.currentWeek;
+        if (currentWeek != null && !WeekManager.weeksData.containsKey(currentWeek.getStartDay()))
+            action.accept(currentWeek);
+    }
+
+    /** Stores a week that has cards assigned to it. Must be called while holding the write lock. */
+    static void registerWeek(Week week) {
+        if (WeekManager.weeksData.putIfAbsent(week.getStartDay(), week) != null) return;
+
+        long[] keys = WeekManager.storedWeekKeys;
+        int insertionIndex = -(Arrays.binarySearch(keys, week.getStartDay()) + 1);
+        long[] newKeys = new long[keys.length + 1];
+        System.arraycopy(keys, 0, newKeys, 0, insertionIndex);
+        newKeys[insertionIndex] = week.getStartDay();
+        System.arraycopy(keys, insertionIndex, newKeys, insertionIndex + 1, keys.length - insertionIndex);
+        WeekManager.storedWeekKeys = newKeys;
+    }
+
+    /**
+     * Removes every card, week and recurrence rule, leaving the model
+     * as it is before the worklogs are loaded. The removed cards are
+     * published so the indexes follow, and no change is left to undo.
+     */
+    static void clear() {
+        ModelLock.write(() -> {
+            WeekManager.forEachLoadedWeek(week -> {
+                for (int i = 0; i < 7; i++) {
+                    Day day = week.getDayAtIndex(i);
+                    for (Card card : day.getCards()) {
+                        day.deleteCard(card);
+                        ModelEventBus.publish(ModelEvent.cardRemoved(card));
+                    }
+                }
+            });
+            RecurrenceManager.clearRules();
+            WeekManager.weeksData.clear();
+            WeekManager.storedWeekKeys = new long[0];
+            WeekManager.currentWeek = null;
+        });
+        ModelHistory.clear();
+    }
+
+    /** Records that the worklogs have changed in a way that is not published as a card event. */
+    static void markWorklogsChanged() {
+        WeekManager.worklogsChanged = true;
+    }
+
+    /**
+     * Returns a copy of all the cards currently stored in the program,
+     * apart from the occurrences of recurrence rules. The copies are
+     * made from the latest snapshot, so no lock is needed and a card
+     * changed while they are read is not torn.
+     *
+     * @return A set of copies of all the cards.
+     */
+    private static Set<Card> getAllCards() {
+        return ModelHistory.getSnapshot().getAllCards();
     }
 
     /**
      * Saves the data to the json files.
      */
     public static void saveWorklogs() {
-        TimeTracker.saveWorklogs(WeekManager.getAllCards());
+        WeekManager.worklogsChanged = false;
+        TimeTracker.saveWorklogs(WeekManager.getAllCards(), RecurrenceManager.getRules());
     }
 
     /**
-     * Check if any changes have been made to the work logs
+     * Check if any changes have been made to the work logs. The
+     * worklogs are only compared with the saved file if a card has
+     * changed since they were last saved or compared.
      *
      * @return True if changes have been made
      */
     public static boolean changesMadeToWorklogs() {
-        return TimeTracker.changesMadeToWorklog(WeekManager.getAllCards());
+        if (!WeekManager.worklogsChanged) return false;
+
+        WeekManager.worklogsChanged = false;
+        boolean changesMade = TimeTracker.changesMadeToWorklog(WeekManager.getAllCards(), RecurrenceManager.getRules());
+        if (changesMade) WeekManager.worklogsChanged = true;
+        return changesMade;
+    }
+
+    /**
+     * Resolves the weeks that a batch of cards fall on. The week is
+     * looked up once per day, and any week that does not exist yet is
+     * only filled with the occurrences of the recurrence rules and
+     * registered once the batch is committed, so a batch that fails
+     * leaves nothing behind. The cards of the batch take precedence
+     * over the occurrences they collide with.
+     */
+    private static class WeekResolver {
+        private final Map<Long, Week> weeksByDay = new HashMap<>();
+        private final Map<Long, Week> newWeeks = new HashMap<>();
+        private final List<Week> createdWeeks = new ArrayList<>();
+
+        /**
+         * Returns the week which contains the date passed.
+         *
+         * @param date The date to check for.
+         * @return The week which contains the date.
+         */
+        private Week resolve(Calendar date) {
+            long dayId = Time.getEpochDay(date);
+            Week week = this.weeksByDay.get(dayId);
+            if (week != null) return week;
+
+            long weekKey = WeekManager.getWeekKey(date);
+            week = WeekManager.weeksData.get(weekKey);
+            if (week == null) week = this.newWeeks.get(weekKey);
+            if (week == null) {
+                Week currentWeek = WeekManager.currentWeek;
+                if (currentWeek != null && currentWeek.getStartDay() == weekKey) {
+                    week = currentWeek;
+                } else {
+                    week = new Week(WeekManager.getWeekStartDate(date));
+                    this.createdWeeks.add(week);
+                }
+                this.newWeeks.put(weekKey, week);
+            }
+            this.weeksByDay.put(dayId, week);
+            return week;
+        }
+
+        /** Fills the weeks created while resolving with the occurrences of the recurrence rules, and registers them. */
+        private void commit() {
+            for (Week week : this.createdWeeks) RecurrenceManager.materialize(week);
+            this.createdWeeks.clear();
+            this.newWeeks.values().forEach(WeekManager::registerWeek);
+        }
     }
 }
@@ -3,8 +3,7 @@ package com.abyssworks.timetracker.util;
 import java.awt.*;
 import java.awt.font.FontRenderContext;
 import java.awt.font.GlyphVector;
-import java.util.ArrayList;
-import java.util.Arrays;
+import java.util.*;
 import java.util.List;
 
 /**
@@ -12,6 +11,14 @@ import java.util.List;
  * a string to be displayed on the string. It also provides
  * utility functions for truncating strings and getting their
  * dimensions.
+ * <p>
+ * Measuring and truncating text is repeated for every card on every
+ * paint, so the results are kept in a bounded cache keyed by the
+ * text, font, and space available. A card whose text or size changes
+ * simply looks up a different entry, and entries no longer used are
+ * dropped once the cache is full. Every thread looks entries up with
+ * a key of its own that is reused, so finding a cached entry on every
+ * paint allocates nothing.
  *
  * @author Dysterio
  */
@@ -20,6 +27,20 @@ public class DisplayString {
     public final int WIDTH;
     public final int HEIGHT;
 
+    /** The number of measured and truncated strings kept in the cache. */
+    private static final int MAX_CACHED_LAYOUTS = 4096;
+    private static final int DIMENSIONS = 0;
+    private static final int TRUNCATED_TO_WIDTH_WITH_ELLIPSES = 1;
+    private static final int TRUNCATED_TO_WIDTH_WITH_HYPHEN = 2;
+    private static final int TRUNCATED_TO_WIDTH_AND_HEIGHT = 3;
+    private static final Map<LayoutKey, Object> LAYOUT_CACHE = new LinkedHashMap<LayoutKey, Object>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<LayoutKey, Object> eldest) {
+            return this.size() > DisplayString.MAX_CACHED_LAYOUTS;
+        }
+    };
+    private static final ThreadLocal<LayoutKey> LOOKUP_KEYS = ThreadLocal.withInitial(LayoutKey::new);
+
     /**
      * Creates an instance of the DisplayString object using the
      * text, text width, and text height passed.
@@ -42,6 +63,15 @@ public class DisplayString {
      * @return The string's dimensions as a DisplayString object.
      */
     public static DisplayString getStringDimensions(Graphics2D g, String text) {
+        LayoutKey key = DisplayString.LOOKUP_KEYS.get().set(DisplayString.DIMENSIONS, g, text, 0, 0);
+        DisplayString cached = (DisplayString) DisplayString.getCachedLayout(key);
+        if (cached != null) return cached;
+
+        return (DisplayString) DisplayString.cacheLayout(key, DisplayString.measureString(g, text));
+    }
+
+    /** Measures a string without looking in the cache. */
+    private static DisplayString measureString(Graphics2D g, String text) {
         FontRenderContext frc = g.getFontRenderContext();
         GlyphVector gv = g.getFont().createGlyphVector(frc, text);
         Rectangle displayTextRectangle = gv.getPixelBounds(null, 0, 0);
@@ -61,6 +91,16 @@ public class DisplayString {
      *                  object.
      */
     public static DisplayString truncateStringToFitWidth(Graphics2D g, String text, int width, boolean ellipses) {
+        int kind = ellipses ? DisplayString.TRUNCATED_TO_WIDTH_WITH_ELLIPSES : DisplayString.TRUNCATED_TO_WIDTH_WITH_HYPHEN;
+        LayoutKey key = DisplayString.LOOKUP_KEYS.get().set(kind, g, text, width, 0);
+        DisplayString cached = (DisplayString) DisplayString.getCachedLayout(key);
+        if (cached != null) return cached;
+
+        return (DisplayString) DisplayString.cacheLayout(key, DisplayString.truncateToWidth(g, text, width, ellipses));
+    }
+
+    /** Truncates a string to fit inside a width without looking in the cache. */
+    private static DisplayString truncateToWidth(Graphics2D g, String text, int width, boolean ellipses) {
         FontMetrics fm = g.getFontMetrics();
         StringBuilder displayString = new StringBuilder();
         int ending = ellipses ? fm.stringWidth("...") : fm.stringWidth("-");
@@ -78,7 +118,7 @@ public class DisplayString {
         if (textWidth > width) displayText += ellipses ? "..." : "-";
         else displayText = text;
 
-        return DisplayString.getStringDimensions(g, displayText);
+        return DisplayString.measureString(g, displayText);
     }
 
     /**
@@ -90,9 +130,20 @@ public class DisplayString {
      * @param width The width that the truncated text must fit inside.
      * @param height The height that the truncated text must fit inside.
      * @return The truncated string and its dimensions as an array of
-     *              DisplayString objects.
+     *              DisplayString objects, which can not be modified.
      */
+    @SuppressWarnings("unchecked")
     public static List<DisplayString> truncateStringToFitWidthAndHeight(Graphics2D g, String text, int width, int height) {
+        LayoutKey key = DisplayString.LOOKUP_KEYS.get().set(DisplayString.TRUNCATED_TO_WIDTH_AND_HEIGHT, g, text, width, height);
+        List<DisplayString> cached = (List<DisplayString>) DisplayString.getCachedLayout(key);
+        if (cached != null) return cached;
+
+        List<DisplayString> lines = Collections.unmodifiableList(DisplayString.wrapToWidthAndHeight(g, text, width, height));
+        return (List<DisplayString>) DisplayString.cacheLayout(key, lines);
+    }
+
+    /** Wraps a string into the lines that fit inside a width and height without looking in the cache. */
+    private static List<DisplayString> wrapToWidthAndHeight(Graphics2D g, String text, int width, int height) {
         FontMetrics fm = g.getFontMetrics();
         int spaceWidth = fm.charWidth(' ');
         List<String> words = new ArrayList<>();
@@ -117,7 +168,7 @@ public class DisplayString {
             // Check if a single word is too big
             String oldWord = words.get(wordIndex);
             if (fm.stringWidth(oldWord) > width) {
-                String newWord = DisplayString.truncateStringToFitWidth(g, oldWord, width, false).TEXT;
+                String newWord = DisplayString.truncateToWidth(g, oldWord, width, false).TEXT;
                 words.set(wordIndex, newWord);
                 words.add(wordIndex + 1, oldWord.substring(newWord.length() - 1));
             }
@@ -132,16 +183,86 @@ public class DisplayString {
                 if (wordIndex >= words.size()) break;
                 if (!word.endsWith("\n")) break;
             }
-            lines.add(DisplayString.getStringDimensions(g, line.toString()));
+            lines.add(DisplayString.measureString(g, line.toString()));
         }
         // Add ellipses if text was truncated
         if (wordIndex < words.size()) {
             DisplayString lastLine = lines.get(numOfLinesThatWillFit-1);
             String lastLineText = lastLine.TEXT + "                         "; // Buffer to ensure ellipses.
-            lastLine = DisplayString.truncateStringToFitWidth(g, lastLineText, width, true);
+            lastLine = DisplayString.truncateToWidth(g, lastLineText, width, true);
             lines.set(numOfLinesThatWillFit-1, lastLine);
         }
 
         return lines;
     }
+
+    /** Returns the layout cached under the key passed, or null if there is none. */
+    private static Object getCachedLayout(LayoutKey key) {
+        synchronized (DisplayString.LAYOUT_CACHE) {
+            return DisplayString.LAYOUT_CACHE.get(key);
+        }
+    }
+
+    /** Caches the layout passed under a copy of the key passed, as the key is reused, and returns it. */
+    private static Object cacheLayout(LayoutKey key, Object layout) {
+        LayoutKey storedKey = new LayoutKey().set(key.kind, key.text, key.font, key.frc, key.width, key.height);
+        synchronized (DisplayString.LAYOUT_CACHE) {
+            DisplayString.LAYOUT_CACHE.put(storedKey, layout);
+        }
+        return layout;
+    }
+
+    /**
+     * The following class identifies a measured or truncated string.
+     * The font render context is part of the key, since the same text
+     * and font measure differently when scaled or anti-aliased. The
+     * keys used for looking up are changed for every lookup, while
+     * the keys stored in the cache are never changed.
+     */
+    private static final class LayoutKey {
+        private int kind;
+        private String text;
+        private Font font;
+        private FontRenderContext frc;
+        private int width;
+        private int height;
+        private int hash;
+
+        /** Identifies the string passed as laid out with the graphics object's font. */
+        private LayoutKey set(int kind, Graphics2D g, String text, int width, int height) {
+            return this.set(kind, text, g.getFont(), g.getFontRenderContext(), width, height);
+        }
+
+        /** Identifies the string passed as laid out with the font passed. */
+        private LayoutKey set(int kind, String text, Font font, FontRenderContext frc, int width, int height) {
+            this.kind = kind;
+            this.text = text;
+            this.font = font;
+            this.frc = frc;
+            this.width = width;
+            this.height = height;
+            // Computed by hand, as Objects.hash boxes every value into a new array.
+            int hash = kind;
+            hash = 31 * hash + text.hashCode();
+            hash = 31 * hash + font.hashCode();
+            hash = 31 * hash + frc.hashCode();
+            hash = 31 * hash + width;
+            this.hash = 31 * hash + height;
+            return this;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof LayoutKey)) return false;
+            LayoutKey key = (LayoutKey) o;
+            return this.hash == key.hash && this.kind == key.kind && this.width == key.width && this.height == key.height
+                    && this.text.equals(key.text) && this.font.equals(key.font) && this.frc.equals(key.frc);
+        }
+
+        @Override
+        public int hashCode() {
+            return this.hash;
+        }
+    }
 }
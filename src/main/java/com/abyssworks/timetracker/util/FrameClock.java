@@ -0,0 +1,80 @@
+package com.abyssworks.timetracker.util;
+
+import java.awt.*;
+import java.time.Clock;
+import java.time.LocalDateTime;
+
+/**
+ * The following class is the single source of the present time for
+ * the program. The clock it reads from can be replaced, for instance
+ * with a fixed clock, so anything that depends on the time can be
+ * reproduced. While painting, the time is sampled once per frame, so
+ * everything drawn in that frame agrees on the present time.
+ *
+ * @author Dysterio
+ */
+public class FrameClock {
+    private static volatile Clock clock = Clock.systemDefaultZone();
+    private static volatile Sample frameSample;
+    private static volatile AWTEvent frameEvent;
+
+    /** Returns the clock the present time is read from. */
+    public static Clock getClock() {
+        return FrameClock.clock;
+    }
+
+    /**
+     * Replaces the clock the present time is read from.
+     *
+     * @param clock The new clock.
+     */
+    public static void setClock(Clock clock) {
+        if (clock == null) throw new IllegalArgumentException("Clock can not be null.");
+
+        FrameClock.clock = clock;
+        FrameClock.frameEvent = null;
+    }
+
+    /** Returns the present time, read from the clock now. */
+    public static Sample now() {
+        return new Sample(LocalDateTime.now(FrameClock.clock));
+    }
+
+    /**
+     * Returns the present time of the frame being painted. The clock
+     * is only read by the first component painted while handling an
+     * event, and every component painted afterwards while handling
+     * the same event gets the same time. Outside of the event
+     * dispatch thread, the clock is read on every call.
+     *
+     * @return The present time of the current frame.
+     */
+    public static Sample frame() {
+        AWTEvent event = EventQueue.isDispatchThread() ? EventQueue.getCurrentEvent() : null;
+        Sample sample = FrameClock.frameSample;
+        if (event != null && event == FrameClock.frameEvent && sample != null) return sample;
+
+        sample = FrameClock.now();
+        FrameClock.frameSample = sample;
+        FrameClock.frameEvent = event;
+        return sample;
+    }
+
+    /** The present time read from the clock at a single instant. */
+    public static final class Sample {
+        public final long EPOCH_DAY;
+        public final int DAY_INDEX;
+        public final int TIME_OF_DAY_IN_MINUTES;
+        public final int SECOND;
+        public final int MILLISECOND;
+
+        private Sample(LocalDateTime time) {
+            this.EPOCH_DAY = time.toLocalDate().toEpochDay();
+            // Sunday is the first day of the week.
+            this.DAY_INDEX = time.getDayOfWeek().getValue() % 7;
+            this.TIME_OF_DAY_IN_MINUTES = time.getHour() * 60 + time.getMinute();
+            this.SECOND = time.getSecond();
+            this.MILLISECOND = time.getNano() / 1_000_000;
+        }
+    }
+}
@@ -0,0 +1,170 @@
+package com.abyssworks.timetracker.util;
+
+import java.util.function.Consumer;
+
+/**
+ * The following class defines an immutable map with long keys,
+ * stored as a balanced tree. Adding or removing a key returns a new
+ * map that shares every node apart from the ones on the path to the
+ * key, so keeping the previous versions of a map around only costs
+ * a logarithmic number of nodes per change.
+ *
+ * @param <V> The type of the values.
+ * @author Dysterio
+ */
+public final class PersistentLongMap<V> {
+    private static final PersistentLongMap<?> EMPTY = new PersistentLongMap<>(null);
+
+    private final Node<V> root;
+
+    private PersistentLongMap(Node<V> root) {
+        this.root = root;
+    }
+
+    /** Returns the map without any keys. */
+    @SuppressWarnings("unchecked")
+    public static <V> PersistentLongMap<V> empty() {
+        return (PersistentLongMap<V>) PersistentLongMap.EMPTY;
+    }
+
+    /**
+     * Returns the value stored under the key passed.
+     *
+     * @param key The key to look up.
+     * @return The key's value, or null if the key is not in the map.
+     */
+    public V get(long key) {
+        Node<V> node = this.root;
+        while (node != null) {
+            if (key < node.key) node = node.left;
+            else if (key > node.key) node = node.right;
+            else return node.value;
+        }
+        return null;
+    }
+
+    /**
+     * Returns a map with the key passed set to the value passed.
+     * This map is left unchanged.
+     *
+     * @param key The key to set.
+     * @param value The key's new value.
+     * @return The new map.
+     */
+    public PersistentLongMap<V> put(long key, V value) {
+        if (value == null) throw new IllegalArgumentException("Value can not be null.");
+
+        return new PersistentLongMap<>(PersistentLongMap.put(this.root, key, value));
+    }
+
+    /**
+     * Returns a map without the key passed. This map is left
+     * unchanged.
+     *
+     * @param key The key to remove.
+     * @return The new map, or this map if the key was not in it.
+     */
+    public PersistentLongMap<V> remove(long key) {
+        if (this.get(key) == null) return this;
+
+        return new PersistentLongMap<>(PersistentLongMap.remove(this.root, key));
+    }
+
+    /** Returns the number of keys in the map. */
+    public int size() {
+        return Node.size(this.root);
+    }
+
+    /** Returns whether the map has no keys. */
+    public boolean isEmpty() {
+        return this.root == null;
+    }
+
+    /**
+     * Runs the action passed on every value, in the order of their
+     * keys.
+     *
+     * @param action The action to run with each value.
+     */
+    public void forEachValue(Consumer<V> action) {
+        PersistentLongMap.forEachValue(this.root, action);
+    }
+
+    private static <V> void forEachValue(Node<V> node, Consumer<V> action) {
+        while (node != null) {
+            PersistentLongMap.forEachValue(node.left, action);
+            action.accept(node.value);
+            node = node.right;
+        }
+    }
+
+    private static <V> Node<V> put(Node<V> node, long key, V value) {
+        if (node == null) return new Node<>(key, value, null, null);
+        if (key < node.key) return PersistentLongMap.balance(node.key, node.value, PersistentLongMap.put(node.left, key, value), node.right);
+        if (key > node.key) return PersistentLongMap.balance(node.key, node.value, node.left, PersistentLongMap.put(node.right, key, value));
+        return value == node.value ? node : new Node<>(key, value, node.left, node.right);
+    }
+
+    private static <V> Node<V> remove(Node<V> node, long key) {
+        if (key < node.key) return PersistentLongMap.balance(node.key, node.value, PersistentLongMap.remove(node.left, key), node.right);
+        if (key > node.key) return PersistentLongMap.balance(node.key, node.value, node.left, PersistentLongMap.remove(node.right, key));
+        if (node.left == null) return node.right;
+        if (node.right == null) return node.left;
+
+        Node<V> successor = node.right;
+        while (successor.left != null) successor = successor.left;
+        return PersistentLongMap.balance(successor.key, successor.value, node.left, PersistentLongMap.remove(node.right, successor.key));
+    }
+
+    /**
+     * Creates a node from the parts passed, rotating it if one side
+     * has become more than one level taller than the other.
+     */
+    private static <V> Node<V> balance(long key, V value, Node<V> left, Node<V> right) {
+        int heightDifference = Node.height(left) - Node.height(right);
+        if (heightDifference > 1) {
+            if (Node.height(left.left) < Node.height(left.right)) left = PersistentLongMap.rotateLeft(left.key, left.value, left.left, left.right);
+            return new Node<>(left.key, left.value, left.left, new Node<>(key, value, left.right, right));
+        }
+        if (heightDifference < -1) {
+            if (Node.height(right.right) < Node.height(right.left)) right = PersistentLongMap.rotateRight(right.key, right.value, right.left, right.right);
+            return new Node<>(right.key, right.value, new Node<>(key, value, left, right.left), right.right);
+        }
+        return new Node<>(key, value, left, right);
+    }
+
+    private static <V> Node<V> rotateLeft(long key, V value, Node<V> left, Node<V> right) {
+        return new Node<>(right.key, right.value, new Node<>(key, value, left, right.left), right.right);
+    }
+
+    private static <V> Node<V> rotateRight(long key, V value, Node<V> left, Node<V> right) {
+        return new Node<>(left.key, left.value, left.left, new Node<>(key, value, left.right, right));
+    }
+
+    /** A node of the tree, which is never changed once created. */
+    private static final class Node<V> {
+        private final long key;
+        private final V value;
+        private final Node<V> left;
+        private final Node<V> right;
+        private final int height;
+        private final int size;
+
+        private Node(long key, V value, Node<V> left, Node<V> right) {
+            this.key = key;
+            this.value = value;
+            this.left = left;
+            this.right = right;
+            this.height = Math.max(Node.height(left), Node.height(right)) + 1;
+            this.size = Node.size(left) + Node.size(right) + 1;
+        }
+
+        private static int height(Node<?> node) {
+            return node == null ? 0 : node.height;
+        }
+
+        private static int size(Node<?> node) {
+            return node == null ? 0 : node.size;
+        }
+    }
+}
@@ -3,21 +3,33 @@ package com.abyssworks.timetracker.util;
 import com.abyssworks.timetracker.TimeTracker;
 
 import java.net.URL;
-import java.text.DateFormat;
-import java.text.ParseException;
-import java.text.SimpleDateFormat;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
 import java.util.Calendar;
 import java.util.Date;
 
 /**
  * The following class defines helper methods for dealing with
- * time.
+ * time. Dates are formatted with immutable formatters and compared
+ * by their day numbers, so every method can be called from any
+ * thread.
  *
  * @author Dysterio
  */
 public class Time {
     public static final String TIME_PATTERN = "HH:mm";
-    public static final DateFormat TIME_FORMAT = new SimpleDateFormat(Time.TIME_PATTERN);
+
+    // Every time of day and every duration up to a day is only turned into text once.
+    private static final String[] TIME_STRINGS = new String[24 * 60 + 1];
+    private static final String[] DURATION_STRINGS = new String[24 * 60 + 1];
+
+    static {
+        for (int timeInMinutes = 0; timeInMinutes <= 24 * 60; timeInMinutes++) {
+            Time.TIME_STRINGS[timeInMinutes] = Time.buildTimeString(timeInMinutes);
+            Time.DURATION_STRINGS[timeInMinutes] = Time.buildDurationString(timeInMinutes);
+        }
+    }
 
     /**
      * Converts the time in minutes to hh:mm format.
@@ -26,11 +38,20 @@ public class Time {
      * @return The time as a string.
      */
     public static String formatTimeInMinutes(int timeInMinutes) {
-        String hour = String.valueOf(timeInMinutes / 60);
-        String minutes = String.valueOf(timeInMinutes % 60);
-        if (minutes.length() == 1) minutes = "0" + minutes;
+        if (timeInMinutes >= 0 && timeInMinutes < Time.TIME_STRINGS.length) return Time.TIME_STRINGS[timeInMinutes];
+        return Time.buildTimeString(timeInMinutes);
+    }
+
+    /** Builds the hh:mm text of the time in minutes passed. */
+    private static String buildTimeString(int timeInMinutes) {
+        StringBuilder time = new StringBuilder(6).append(timeInMinutes / 60).append(':');
+        return Time.appendTwoDigits(time, timeInMinutes % 60).toString();
+    }
 
-        return hour + ":" + minutes;
+    /** Appends the number passed, with a leading zero if it only has one digit. */
+    private static StringBuilder appendTwoDigits(StringBuilder text, int number) {
+        if (number >= 0 && number < 10) text.append('0');
+        return text.append(number);
     }
 
     /**
@@ -41,13 +62,7 @@ public class Time {
      * @return -1, 0, or 1 depending on the relationship between the dates.
      */
     public static int compareDates(Calendar c1, Calendar c2) {
-        try {
-            Date d1 = TimeTracker.DATE_FORMAT.parse(TimeTracker.DATE_FORMAT.format(c1.getTime()));
-            Date d2 = TimeTracker.DATE_FORMAT.parse(TimeTracker.DATE_FORMAT.format(c2.getTime()));
-            return d1.compareTo(d2);
-        } catch (ParseException e) {
-            throw new IllegalArgumentException();
-        }
+        return Long.compare(Time.getEpochDay(c1), Time.getEpochDay(c2));
     }
 
     /**
@@ -57,21 +72,62 @@ public class Time {
      * @return The calendar object representative of the date.
      */
     public static Calendar getCalendarFromDateString(String date) {
-        String[] dateComponents = date.split("/");
-        int day = Integer.parseInt(dateComponents[0]);
-        int month = Integer.parseInt(dateComponents[1]) - 1;
-        int year = Integer.parseInt(dateComponents[2]);
         Calendar cal = Calendar.getInstance();
+        Time.setCalendarFromDateString(cal, date);
+        return cal;
+    }
+
+    /**
+     * Sets the date of the calendar passed to a date represented as
+     * a string, so a single calendar can be reused for many dates.
+     *
+     * @param cal The calendar to set.
+     * @param date The date as a string in the following format: DD/MM/YYY
+     */
+    public static void setCalendarFromDateString(Calendar cal, String date) {
+        int daySeparator = Time.indexOfSeparator(date, '/', 0);
+        int monthSeparator = Time.indexOfSeparator(date, '/', daySeparator + 1);
+        int yearEnd = date.indexOf('/', monthSeparator + 1);
+        int day = Time.parseNumber(date, 0, daySeparator);
+        int month = Time.parseNumber(date, daySeparator + 1, monthSeparator) - 1;
+        int year = Time.parseNumber(date, monthSeparator + 1, yearEnd == -1 ? date.length() : yearEnd);
         cal.set(year, month, day);
+    }
+
+    /**
+     * Creates a calendar set to the start of the day number passed.
+     *
+     * @param epochDay The number of days since the epoch.
+     * @return The calendar object representative of the date.
+     */
+    public static Calendar getCalendarFromEpochDay(long epochDay) {
+        LocalDate localDate = LocalDate.ofEpochDay(epochDay);
+        Calendar cal = Calendar.getInstance();
+        cal.clear();
+        cal.set(localDate.getYear(), localDate.getMonthValue() - 1, localDate.getDayOfMonth());
+        cal.getTimeInMillis(); // Computes the cleared fields, otherwise later changes to the day of the week are resolved wrongly.
         return cal;
     }
 
-    /** Returns the current time of day in minutes. */
+    /** Returns the date of the calendar passed, ignoring the time of day. */
+    public static LocalDate getLocalDate(Calendar date) {
+        return LocalDate.of(date.get(Calendar.YEAR), date.get(Calendar.MONTH) + 1, date.get(Calendar.DAY_OF_MONTH));
+    }
+
+    /**
+     * Converts a Calendar object into the date shown to the user,
+     * in the following format: DD/MMM/YYYY
+     *
+     * @param date The date to format.
+     * @return The date as a string.
+     */
+    public static String formatDate(Calendar date) {
+        return TimeTracker.DATE_FORMAT.format(Time.getLocalDate(date));
+    }
+
+    /** Returns the current time of day in minutes, as sampled for the current frame. */
     public static int getTimeOfDayInMinutes() {
-        Calendar calendar = Calendar.getInstance();
-        int hour = calendar.get(Calendar.HOUR_OF_DAY);
-        int minute = calendar.get(Calendar.MINUTE);
-        return hour * 60 + minute;
+        return FrameClock.frame().TIME_OF_DAY_IN_MINUTES;
     }
 
     /**
@@ -82,7 +138,19 @@ public class Time {
      * @return The time in minutes.
      */
     public static int getTimeInMinutesFromDate(Date date) {
-        return Time.getTimeInMinutesFromString(Time.TIME_FORMAT.format(date));
+        ZonedDateTime time = date.toInstant().atZone(ZoneId.systemDefault());
+        return time.getHour() * 60 + time.getMinute();
+    }
+
+    /**
+     * Creates a Date object holding the time in minutes passed on
+     * the first day of the epoch, as expected by the time spinners.
+     *
+     * @param timeInMinutes The time in minutes.
+     * @return The time as a Date object.
+     */
+    public static Date getDateFromTimeInMinutes(int timeInMinutes) {
+        return Date.from(LocalDate.ofEpochDay(0).atStartOfDay().plusMinutes(timeInMinutes).atZone(ZoneId.systemDefault()).toInstant());
     }
 
     /**
@@ -93,12 +161,42 @@ public class Time {
      * @return The time as minutes.
      */
     public static int getTimeInMinutesFromString(String time) {
-        String[] timeComponents = time.split(":");
-        int hour = Integer.parseInt(timeComponents[0]);
-        int min = Integer.parseInt(timeComponents[1]);
+        int separator = Time.indexOfSeparator(time, ':', 0);
+        int minutesEnd = time.indexOf(':', separator + 1);
+        int hour = Time.parseNumber(time, 0, separator);
+        int min = Time.parseNumber(time, separator + 1, minutesEnd == -1 ? time.length() : minutesEnd);
         return (hour * 60) + min;
     }
 
+    /** Returns the index of the separator passed, failing like a number that can not be parsed if it is missing. */
+    private static int indexOfSeparator(String text, char separator, int fromIndex) {
+        int index = text.indexOf(separator, fromIndex);
+        if (index == -1) throw new NumberFormatException("Missing '" + separator + "' in \"" + text + "\".");
+        return index;
+    }
+
+    /**
+     * Parses the digits between the indices passed, reading the
+     * characters directly so that no strings are created.
+     *
+     * @param text The text to read from.
+     * @param start The index of the first digit.
+     * @param end The index after the last digit.
+     * @return The number the digits represent.
+     */
+    private static int parseNumber(String text, int start, int end) {
+        if (start >= end) throw new NumberFormatException("Missing number in \"" + text + "\".");
+
+        int number = 0;
+        for (int i = start; i < end; i++) {
+            int digit = Character.digit(text.charAt(i), 10);
+            if (digit == -1 || number > (Integer.MAX_VALUE - digit) / 10)
+                throw new NumberFormatException("Invalid number in \"" + text + "\".");
+            number = number * 10 + digit;
+        }
+        return number;
+    }
+
     /**
      * Converts time in minutes into a string representation of the
      * duration it represents in the following format: HhMm
@@ -107,10 +205,16 @@ public class Time {
      * @return The formatted duration as a string.
      */
     public static String formatDuration(int timeInMinutes) {
-        String[] time = Time.formatTimeInMinutes(timeInMinutes).split(":");
-        String hour = (Integer.parseInt(time[0]) == 0) ? "" : (time[0] + "h");
-        String minute = (Integer.parseInt(time[1]) == 0) ? "" : (time[1] + "m");
-        return hour + minute;
+        if (timeInMinutes >= 0 && timeInMinutes < Time.DURATION_STRINGS.length) return Time.DURATION_STRINGS[timeInMinutes];
+        return Time.buildDurationString(timeInMinutes);
+    }
+
+    /** Builds the HhMm text of the duration passed. */
+    private static String buildDurationString(int timeInMinutes) {
+        StringBuilder duration = new StringBuilder(7);
+        if (timeInMinutes / 60 != 0) duration.append(timeInMinutes / 60).append('h');
+        if (timeInMinutes % 60 != 0) Time.appendTwoDigits(duration, timeInMinutes % 60).append('m');
+        return duration.toString();
     }
 
     /**
@@ -121,7 +225,27 @@ public class Time {
      * @return The string version of the date passed.
      */
     public static String getDateAsJSONString(Calendar date) {
-        return TimeTracker.JSON_DATE_FORMAT.format(date.getTime());
+        return TimeTracker.JSON_DATE_FORMAT.format(Time.getLocalDate(date));
+    }
+
+    /**
+     * Returns the number of days between the epoch and the date
+     * passed, ignoring the time of day.
+     *
+     * @param date The date to convert.
+     * @return The date as a day number.
+     */
+    public static long getEpochDay(Calendar date) {
+        // Computed from the date's fields directly, so that it does not allocate.
+        int year = date.get(Calendar.YEAR);
+        int month = date.get(Calendar.MONTH) + 1;
+        int day = date.get(Calendar.DAY_OF_MONTH);
+        if (month <= 2) year--;
+        long era = Math.floorDiv(year, 400);
+        long yearOfEra = year - era * 400;
+        long dayOfYear = (153 * (month + (month > 2 ? -3 : 9)) + 2) / 5 + day - 1;
+        long dayOfEra = yearOfEra * 365 + yearOfEra / 4 - yearOfEra / 100 + dayOfYear;
+        return era * 146097 + dayOfEra - 719468;
     }
 
     /**
@@ -3,6 +3,7 @@ package com.abyssworks.timetracker.view;
 import com.abyssworks.timetracker.model.week.Card;
 import com.abyssworks.timetracker.model.week.WeekManager;
 import com.abyssworks.timetracker.util.Time;
+import com.abyssworks.timetracker.view.overview.OverviewScrollPane;
 import com.abyssworks.timetracker.view.popup.Popup;
 import com.abyssworks.timetracker.view.week.WeekScrollPane;
 
@@ -10,6 +11,7 @@ import javax.swing.*;
 import java.awt.*;
 import java.awt.event.WindowAdapter;
 import java.awt.event.WindowEvent;
+import java.util.Calendar;
 
 /**
  * The GUI class handles the handles all the visual aspects
@@ -18,10 +20,14 @@ import java.awt.event.WindowEvent;
 public class GUI extends JFrame {
     public static final int MINIMUM_WIDTH = 960;
     public static final int MINIMUM_HEIGHT = 540;
+    private static final String WEEK_VIEW = "Week";
+    private static final String OVERVIEW = "Overview";
     private static int pixPerMin = 2;
 
     private final Header header;
     private final WeekScrollPane scrollPane;
+    private final OverviewScrollPane overviewScrollPane;
+    private final JPanel views = new JPanel(new CardLayout());
 
     /**
      * Creates an instance of the GUI.
@@ -35,7 +41,10 @@ public class GUI extends JFrame {
         this.setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
 
         this.scrollPane = new WeekScrollPane();
-        this.header = new Header(this.scrollPane);
+        this.overviewScrollPane = new OverviewScrollPane(this::showWeekOf);
+        this.header = new Header(this.scrollPane, this::showOverview);
+        this.views.add(this.scrollPane, GUI.WEEK_VIEW);
+        this.views.add(this.overviewScrollPane, GUI.OVERVIEW);
         this.displayWeek();
         this.displayWeekHeader();
         Popup.MAIN_WINDOW = this;
@@ -80,7 +89,7 @@ public class GUI extends JFrame {
         this.add(this.header, c);
     }
 
-    /** Displays the week. */
+    /** Displays the week, or the overview of the weeks in its place. */
     private void displayWeek() {
         GridBagConstraints c = new GridBagConstraints();
         c.gridx = 0;
@@ -90,7 +99,29 @@ public class GUI extends JFrame {
         c.gridwidth = GridBagConstraints.REMAINDER;
         c.anchor = GridBagConstraints.PAGE_END;
         c.fill = GridBagConstraints.BOTH;
-        this.add(this.scrollPane, c);
+        this.add(this.views, c);
+    }
+
+    /**
+     * Switches between the week and the overview of the weeks. The
+     * overview opens on the week displayed.
+     *
+     * @param show True to show the overview, false to show the week.
+     */
+    private void showOverview(boolean show) {
+        ((CardLayout) this.views.getLayout()).show(this.views, show ? GUI.OVERVIEW : GUI.WEEK_VIEW);
+        if (show) this.overviewScrollPane.showWeekOf(WeekManager.getDisplayWeek().getStartDate());
+    }
+
+    /**
+     * Shows the week containing the date passed, leaving the overview.
+     *
+     * @param date The date to show.
+     */
+    private void showWeekOf(Calendar date) {
+        this.header.showWeekOf(date);
+        this.header.setOverviewShown(false);
+        this.showOverview(false);
     }
 
     /** Returns the pixels per minute property. */
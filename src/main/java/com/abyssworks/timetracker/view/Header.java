@@ -3,6 +3,7 @@ package com.abyssworks.timetracker.view;
 import com.abyssworks.timetracker.TimeTracker;
 import com.abyssworks.timetracker.model.week.WeekManager;
 import com.abyssworks.timetracker.util.Time;
+import com.abyssworks.timetracker.view.popup.SearchPopup;
 import com.abyssworks.timetracker.view.popup.SettingsPopup;
 import com.abyssworks.timetracker.view.week.WeekScrollPane;
 import com.abyssworks.timetracker.util.DisplayString;
@@ -10,6 +11,8 @@ import com.abyssworks.timetracker.util.DisplayString;
 import javax.swing.*;
 import java.awt.*;
 import java.awt.event.ActionEvent;
+import java.util.Calendar;
+import java.util.function.Consumer;
 
 /**
  * The following class handles displaying information about the
@@ -22,25 +25,36 @@ public class Header extends JPanel {
 
     private final SpringLayout sprintLayout = new SpringLayout();
     private final WeekScrollPane weekScrollPane;
+    private final Consumer<Boolean> overviewToggled;
     private JLabel weekHeading;
     private JButton leftButton;
     private JButton rightButton;
     private JButton saveButton;
     private JButton loadButton;
     private JButton settingsButton;
+    private JButton searchButton;
+    private JToggleButton overviewButton;
 
-    /** Creates a new instance of a Header. */
-    public Header(WeekScrollPane weekScrollPane) {
+    /**
+     * Creates a new instance of a Header.
+     *
+     * @param weekScrollPane The scroll pane displaying the week.
+     * @param overviewToggled The action performed when the overview is shown or hidden.
+     */
+    public Header(WeekScrollPane weekScrollPane, Consumer<Boolean> overviewToggled) {
         super();
         this.setLayout(this.sprintLayout);
         this.setMinimumSize(new Dimension(weekScrollPane.getWidth(), Header.HEADER_HEIGHT));
 
         this.weekScrollPane = weekScrollPane;
+        this.overviewToggled = overviewToggled;
         this.addWeekHeading();
         this.addWeekChangingButtons();
         this.addLoadButton();
         this.addSaveButton();
         this.addSettingsButton();
+        this.addSearchButton();
+        this.addOverviewButton();
         this.updateWeekDisplayed();
     }
 
@@ -150,6 +164,52 @@ public class Header extends JPanel {
                 SpringLayout.VERTICAL_CENTER, this.weekHeading);
     }
 
+    /**
+     * Displays a search button next to the settings button.
+     * Pressing this button opens the search popup.
+     */
+    private void addSearchButton() {
+        this.searchButton = new JButton("Search");
+        this.searchButton.setFocusable(false);
+        this.searchButton.addActionListener(e -> new SearchPopup(this::showWeekOf));
+
+        this.add(this.searchButton);
+        this.sprintLayout.putConstraint(SpringLayout.EAST, this.searchButton,
+                -5,
+                SpringLayout.WEST, this.settingsButton);
+        this.sprintLayout.putConstraint(SpringLayout.VERTICAL_CENTER, this.searchButton,
+                0,
+                SpringLayout.VERTICAL_CENTER, this.weekHeading);
+    }
+
+    /**
+     * Displays an overview button next to the search button.
+     * Pressing this button switches between the week and the
+     * overview of the weeks.
+     */
+    private void addOverviewButton() {
+        this.overviewButton = new JToggleButton("Overview");
+        this.overviewButton.setFocusable(false);
+        this.overviewButton.addActionListener(e -> this.overviewToggled.accept(this.overviewButton.isSelected()));
+
+        this.add(this.overviewButton);
+        this.sprintLayout.putConstraint(SpringLayout.EAST, this.overviewButton,
+                -5,
+                SpringLayout.WEST, this.searchButton);
+        this.sprintLayout.putConstraint(SpringLayout.VERTICAL_CENTER, this.overviewButton,
+                0,
+                SpringLayout.VERTICAL_CENTER, this.weekHeading);
+    }
+
+    /**
+     * Sets whether the overview button shows the overview as shown.
+     *
+     * @param shown True if the overview is shown.
+     */
+    void setOverviewShown(boolean shown) {
+        this.overviewButton.setSelected(shown);
+    }
+
     /**
      * Paints the header.
      *
@@ -176,6 +236,16 @@ public class Header extends JPanel {
         this.updateWeekDisplayed();
     }
 
+    /**
+     * Shows the week containing the date passed.
+     *
+     * @param date The date to show.
+     */
+    void showWeekOf(Calendar date) {
+        WeekManager.changeWeek(date);
+        this.updateWeekDisplayed();
+    }
+
     /** Updates the week displayed and its details */
     private void updateWeekDisplayed() {
         this.weekHeading.setText(WeekManager.getDisplayWeekStartAndEndDate());
@@ -0,0 +1,75 @@
+package com.abyssworks.timetracker.view.overview;
+
+import com.abyssworks.timetracker.TimeTracker;
+import com.abyssworks.timetracker.util.DisplayString;
+import com.abyssworks.timetracker.view.week.WeekHeader;
+
+import javax.swing.*;
+import java.awt.*;
+
+/**
+ * The following class displays the day names above the columns of
+ * the overview, along with a button to change how many weeks are
+ * shown on a screen.
+ *
+ * @author Dysterio
+ */
+final class OverviewHeader extends JPanel {
+    private static final String[] DAYS = new String[]{"Sunday", "Monday", "Tuesday", "Wednesday", "Thursday", "Friday", "Saturday"};
+
+    private final JButton zoomButton;
+
+    /**
+     * Creates the header of the overview passed.
+     *
+     * @param overviewRenderer The overview below the header.
+     */
+    OverviewHeader(OverviewRenderer overviewRenderer) {
+        super(null);
+        this.setPreferredSize(new Dimension(0, WeekHeader.HEADER_HEIGHT));
+        this.zoomButton = new JButton();
+        this.zoomButton.setFocusable(false);
+        this.zoomButton.setMargin(new Insets(0, 0, 0, 0));
+        this.zoomButton.addActionListener(e -> {
+            OverviewRenderer.Zoom zoom = overviewRenderer.getZoom();
+            overviewRenderer.setZoom(zoom == OverviewRenderer.Zoom.Month ? OverviewRenderer.Zoom.Quarter : OverviewRenderer.Zoom.Month);
+            this.updateZoomButton(overviewRenderer.getZoom());
+        });
+        this.updateZoomButton(overviewRenderer.getZoom());
+        this.add(this.zoomButton);
+    }
+
+    /** Labels the zoom button with the zoom it changes to. */
+    private void updateZoomButton(OverviewRenderer.Zoom zoom) {
+        this.zoomButton.setText(zoom == OverviewRenderer.Zoom.Month ? "3M" : "1M");
+        this.zoomButton.setToolTipText(zoom == OverviewRenderer.Zoom.Month ? "Show a quarter" : "Show a month");
+    }
+
+    /** Places the zoom button above the week labels. */
+    @Override
+    public void doLayout() {
+        this.zoomButton.setBounds(2, 2, OverviewRenderer.LABEL_WIDTH - 4, WeekHeader.HEADER_HEIGHT - 4);
+    }
+
+    /**
+     * Renders the day names.
+     *
+     * @param graphics The graphics object.
+     */
+    @Override
+    protected void paintComponent(Graphics graphics) {
+        Graphics2D g = (Graphics2D) graphics;
+        int weekWidth = this.getWidth() - OverviewRenderer.LABEL_WIDTH;
+        double dayWidth = weekWidth / 7.0;
+        g.setColor(TimeTracker.getColorTheme().WeekHeader_BG);
+        g.fillRect(0, 0, this.getWidth(), WeekHeader.HEADER_HEIGHT);
+        for (int i = 0; i < 7; i++) {
+            int startXPos = (int) Math.round(OverviewRenderer.LABEL_WIDTH + i * dayWidth);
+            g.setColor(TimeTracker.getColorTheme().WeekHeader_BORDER);
+            g.drawLine(startXPos, 0, startXPos, WeekHeader.HEADER_HEIGHT);
+            g.setColor(TimeTracker.getColorTheme().WeekHeader_HEADING);
+            DisplayString day = DisplayString.getStringDimensions(g, OverviewHeader.DAYS[i]);
+            g.drawString(day.TEXT, (int) (startXPos + dayWidth / 2.0 - day.WIDTH / 2.0), WeekHeader.HEADER_HEIGHT / 2 + day.HEIGHT / 2);
+        }
+    }
+}
@@ -0,0 +1,478 @@
+package com.abyssworks.timetracker.view.overview;
+
+import com.abyssworks.timetracker.TimeTracker;
+import com.abyssworks.timetracker.model.event.ModelEvent;
+import com.abyssworks.timetracker.model.event.ModelEventBus;
+import com.abyssworks.timetracker.model.week.Card;
+import com.abyssworks.timetracker.util.DisplayString;
+import com.abyssworks.timetracker.util.FrameClock;
+import com.abyssworks.timetracker.util.Time;
+import com.abyssworks.timetracker.view.ColourTheme;
+import com.abyssworks.timetracker.view.week.WeekHeader;
+
+import javax.swing.*;
+import java.awt.*;
+import java.awt.event.MouseAdapter;
+import java.awt.event.MouseEvent;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.*;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Consumer;
+
+/**
+ * The following class draws the time logged over many weeks, one
+ * week per row, with a block for every day split by the epics the
+ * time was logged against. It spans twenty years either side of the
+ * present week, but only the weeks inside the area being painted are
+ * summarized and drawn, so scrolling costs the same wherever it is.
+ * The weeks just above and below the visible ones are summarized in
+ * the background ahead of being scrolled to, and the summaries of the
+ * weeks far from the visible ones are dropped.
+ *
+ * @author Dysterio
+ */
+public class OverviewRenderer extends JPanel implements Scrollable {
+    public static final int LABEL_WIDTH = 60;
+    public static final int RANGE_IN_WEEKS = 52 * 20;
+
+    /** The minutes logged in a day for its block to fill the day's cell. */
+    private static final int FULL_DAY_IN_MINUTES = 8 * 60;
+    private static final int CELL_PADDING = 4;
+    /** The number of screens summarized ahead of the visible weeks, in either direction. */
+    private static final int PREFETCHED_SCREENS = 2;
+    /** The number of screens, in either direction, past which summaries are dropped. */
+    private static final int KEPT_SCREENS = 4;
+    private static final Font SMALL_FONT = new Font("Arial", Font.PLAIN, 10);
+    private static final DateTimeFormatter MONTH_FORMAT = DateTimeFormatter.ofPattern("MMM yyyy");
+    private static final ExecutorService PREFETCHER = Executors.newSingleThreadExecutor(r -> {
+        Thread thread = new Thread(r, "Overview Prefetch");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    /** The number of weeks shown on a screen. */
+    public enum Zoom {
+        Month(96), Quarter(40);
+
+        /** The height of a week's row, in pixels. */
+        public final int ROW_HEIGHT;
+
+        Zoom(int rowHeight) {
+            this.ROW_HEIGHT = rowHeight;
+        }
+    }
+
+    private final Consumer<Calendar> daySelected;
+    private final long firstWeekStartDay;
+    private final int weekCount = OverviewRenderer.RANGE_IN_WEEKS * 2 + 1;
+    // The summaries and the prefetched rows are only used on the event dispatch thread, the prefetcher hands its summaries back to it.
+    private final Map<Long, WeekSummary> summaries = new HashMap<>();
+    private final Map<String, Color> epicColours = new HashMap<>();
+    private Zoom zoom = Zoom.Month;
+    // Summaries built in the background are only kept if the model has not changed since they were started.
+    private int generation = 0;
+    private int prefetchedFirstRow = -1;
+    private int prefetchedLastRow = -1;
+
+    /**
+     * Creates an overview of the weeks around the present week.
+     *
+     * @param daySelected The action performed with the date of a day clicked on.
+     */
+    public OverviewRenderer(Consumer<Calendar> daySelected) {
+        super();
+        if (daySelected == null) throw new IllegalArgumentException("Day selected action can not be null.");
+        this.daySelected = daySelected;
+        FrameClock.Sample now = FrameClock.now();
+        this.firstWeekStartDay = now.EPOCH_DAY - now.DAY_INDEX - 7L * OverviewRenderer.RANGE_IN_WEEKS;
+
+        ToolTipManager.sharedInstance().registerComponent(this);
+        this.addMouseListener(new MouseAdapter() {
+            @Override
+            public void mouseClicked(MouseEvent e) {
+                if (!SwingUtilities.isLeftMouseButton(e)) return;
+                long epochDay = OverviewRenderer.this.getEpochDayAt(e.getX(), e.getY());
+                if (epochDay != Long.MIN_VALUE) OverviewRenderer.this.daySelected.accept(Time.getCalendarFromEpochDay(epochDay));
+            }
+        });
+        ModelEventBus.subscribe(this::modelChanged, ModelEventBus.Delivery.EDT);
+    }
+
+    /** Returns the number of weeks shown on a screen. */
+    public Zoom getZoom() {
+        return this.zoom;
+    }
+
+    /**
+     * Changes the number of weeks shown on a screen, keeping the
+     * week at the top of the screen in place.
+     *
+     * @param zoom The new zoom.
+     */
+    public void setZoom(Zoom zoom) {
+        if (zoom == null) throw new IllegalArgumentException("Zoom can not be null.");
+        if (zoom == this.zoom) return;
+        double topRow = this.getVisibleRect().y / (double) this.zoom.ROW_HEIGHT;
+        this.zoom = zoom;
+        this.setSize(this.getWidth(), this.getPreferredSize().height);
+        this.revalidate();
+        this.scrollTo((int) Math.round(topRow * zoom.ROW_HEIGHT));
+        this.prefetch();
+        this.repaint();
+    }
+
+    /**
+     * Scrolls to the week starting on the day passed, leaving the
+     * week before it above.
+     *
+     * @param weekStartDay The number of days between the epoch and the week's start date.
+     */
+    public void scrollToWeek(long weekStartDay) {
+        int row = (int) ((weekStartDay - this.firstWeekStartDay) / 7);
+        this.scrollTo((row - 1) * this.zoom.ROW_HEIGHT);
+    }
+
+    /** Scrolls the viewport the overview is in to the y coordinate passed. */
+    private void scrollTo(int yPos) {
+        if (!(this.getParent() instanceof JViewport)) return;
+        JViewport viewport = (JViewport) this.getParent();
+        int maxYPos = Math.max(0, this.getPreferredSize().height - viewport.getExtentSize().height);
+        viewport.setViewPosition(new Point(0, Math.max(0, Math.min(yPos, maxYPos))));
+    }
+
+    /** Returns the number of days between the epoch and the start date of the week in the row passed. */
+    private long getWeekStartDay(int row) {
+        return this.firstWeekStartDay + 7L * row;
+    }
+
+    /** Returns the width of a day's column. */
+    private double getDayWidth() {
+        return (this.getWidth() - OverviewRenderer.LABEL_WIDTH) / 7.0;
+    }
+
+    /**
+     * Returns the day drawn at the coordinates passed.
+     *
+     * @param xPos The x coordinate.
+     * @param yPos The y coordinate.
+     * @return The number of days between the epoch and the day, or Long.MIN_VALUE if there is none.
+     */
+    private long getEpochDayAt(int xPos, int yPos) {
+        int row = yPos / this.zoom.ROW_HEIGHT;
+        if (xPos < OverviewRenderer.LABEL_WIDTH || yPos < 0 || row >= this.weekCount) return Long.MIN_VALUE;
+        int dayIndex = Math.min((int) ((xPos - OverviewRenderer.LABEL_WIDTH) / this.getDayWidth()), 6);
+        return this.getWeekStartDay(row) + dayIndex;
+    }
+
+    /**
+     * Returns the summary of the week in the row passed, summarizing
+     * the week now if it has not been summarized yet.
+     *
+     * @param row The week's row.
+     * @return The week's summary.
+     */
+    private WeekSummary getSummary(int row) {
+        long weekStartDay = this.getWeekStartDay(row);
+        WeekSummary summary = this.summaries.get(weekStartDay);
+        if (summary == null) {
+            summary = WeekSummary.create(weekStartDay);
+            this.summaries.put(weekStartDay, summary);
+        }
+        return summary;
+    }
+
+    /**
+     * Drops the summaries affected by the changes passed and repaints
+     * their weeks. Changes to the tickets can move time between epics
+     * anywhere, and changes to the recurrence rules can add or remove
+     * time in weeks that have not been loaded, so both drop every
+     * summary.
+     *
+     * @param events The changes made to the model.
+     */
+    private void modelChanged(List<ModelEvent> events) {
+        this.generation++;
+        this.prefetchedFirstRow = -1;
+        this.prefetchedLastRow = -1;
+        boolean everyWeekChanged = false;
+        for (ModelEvent event : events) everyWeekChanged |= !event.isCardEvent();
+        if (everyWeekChanged) {
+            this.summaries.clear();
+            this.repaint();
+        } else {
+            for (ModelEvent event : events) {
+                this.dropWeekOf(event.CARD);
+                if (event.PREVIOUS != null) this.dropWeekOf(event.PREVIOUS);
+            }
+        }
+        this.prefetch();
+    }
+
+    /** Drops the summary of the week the card passed is in and repaints the week. */
+    private void dropWeekOf(Card card) {
+        long weekStartDay = Time.getEpochDay(card.getDate()) - card.getDayIndex();
+        this.summaries.remove(weekStartDay);
+        long row = (weekStartDay - this.firstWeekStartDay) / 7;
+        if (row >= 0 && row < this.weekCount) this.repaint(0, (int) row * this.zoom.ROW_HEIGHT, this.getWidth(), this.zoom.ROW_HEIGHT);
+    }
+
+    /**
+     * Summarizes the weeks around the visible ones in the background,
+     * and drops the summaries of the weeks far from them. Called on
+     * the event dispatch thread whenever the visible weeks change.
+     */
+    void prefetch() {
+        Rectangle visible = this.getVisibleRect();
+        if (visible.height <= 0) return;
+        int rowHeight = this.zoom.ROW_HEIGHT;
+        int firstVisibleRow = visible.y / rowHeight;
+        int lastVisibleRow = (visible.y + visible.height - 1) / rowHeight;
+        int rowsPerScreen = lastVisibleRow - firstVisibleRow + 1;
+        int firstRow = Math.max(0, firstVisibleRow - rowsPerScreen * OverviewRenderer.PREFETCHED_SCREENS);
+        int lastRow = Math.min(this.weekCount - 1, lastVisibleRow + rowsPerScreen * OverviewRenderer.PREFETCHED_SCREENS);
+        if (firstRow == this.prefetchedFirstRow && lastRow == this.prefetchedLastRow) return;
+        this.prefetchedFirstRow = firstRow;
+        this.prefetchedLastRow = lastRow;
+
+        long firstKeptDay = this.getWeekStartDay(firstVisibleRow - rowsPerScreen * OverviewRenderer.KEPT_SCREENS);
+        long lastKeptDay = this.getWeekStartDay(lastVisibleRow + rowsPerScreen * OverviewRenderer.KEPT_SCREENS);
+        this.summaries.keySet().removeIf(weekStartDay -> weekStartDay < firstKeptDay || weekStartDay > lastKeptDay);
+
+        List<Long> missing = new ArrayList<>();
+        for (int row = firstRow; row <= lastRow; row++) {
+            long weekStartDay = this.getWeekStartDay(row);
+            if (!this.summaries.containsKey(weekStartDay)) missing.add(weekStartDay);
+        }
+        if (missing.isEmpty()) return;
+        int generation = this.generation;
+        OverviewRenderer.PREFETCHER.submit(() -> {
+            List<WeekSummary> prefetched = new ArrayList<>(missing.size());
+            for (long weekStartDay : missing) prefetched.add(WeekSummary.create(weekStartDay));
+            SwingUtilities.invokeLater(() -> this.addPrefetched(prefetched, generation));
+        });
+    }
+
+    /**
+     * Keeps the summaries built in the background that are still
+     * around the visible weeks, unless the model has changed since
+     * they were started.
+     *
+     * @param prefetched The summaries built.
+     * @param generation The generation of the model they were built from.
+     */
+    private void addPrefetched(List<WeekSummary> prefetched, int generation) {
+        if (generation != this.generation) return;
+        long firstDay = this.getWeekStartDay(this.prefetchedFirstRow);
+        long lastDay = this.getWeekStartDay(this.prefetchedLastRow);
+        for (WeekSummary summary : prefetched) {
+            if (summary.START_DAY >= firstDay && summary.START_DAY <= lastDay) this.summaries.putIfAbsent(summary.START_DAY, summary);
+        }
+    }
+
+    /**
+     * Renders the weeks inside the area being painted.
+     *
+     * @param graphics The graphics object.
+     */
+    @Override
+    protected void paintComponent(Graphics graphics) {
+        Graphics2D g = (Graphics2D) graphics;
+        ColourTheme theme = TimeTracker.getColorTheme();
+        FrameClock.Sample now = FrameClock.frame();
+        Rectangle clip = g.getClipBounds();
+        if (clip == null) clip = new Rectangle(0, 0, this.getWidth(), this.getHeight());
+
+        g.setColor(theme.WeekRenderer_BG);
+        g.fillRect(clip.x, clip.y, clip.width, clip.height);
+        g.setColor(theme.WeekHeader_BG);
+        g.fillRect(0, clip.y, OverviewRenderer.LABEL_WIDTH, clip.height);
+
+        int rowHeight = this.zoom.ROW_HEIGHT;
+        int firstRow = Math.max(0, clip.y / rowHeight);
+        int lastRow = Math.min(this.weekCount - 1, (clip.y + clip.height - 1) / rowHeight);
+        g.setFont(OverviewRenderer.SMALL_FONT);
+        for (int row = firstRow; row <= lastRow; row++) {
+            this.drawWeek(g, theme, this.getSummary(row), row * rowHeight, now);
+        }
+        this.drawDaySeparators(g, theme, clip);
+    }
+
+    /**
+     * Draws a week's label and the time logged on each of its days.
+     *
+     * @param g The graphics object.
+     * @param theme The color theme
+     * @param summary The week's summary.
+     * @param yPos The y coordinate of the top of the week's row.
+     * @param now The present time of the frame.
+     */
+    private void drawWeek(Graphics2D g, ColourTheme theme, WeekSummary summary, int yPos, FrameClock.Sample now) {
+        int rowHeight = this.zoom.ROW_HEIGHT;
+        double dayWidth = this.getDayWidth();
+        LocalDate startDate = LocalDate.ofEpochDay(summary.START_DAY);
+        boolean monthStarts = startDate.getDayOfMonth() == 1 || startDate.plusDays(6).getDayOfMonth() < 7;
+
+        g.setColor(monthStarts ? theme.WeekRenderer_HOUR_INDICATOR : theme.WeekRenderer_HORIZONTAL_LINES);
+        g.drawLine(OverviewRenderer.LABEL_WIDTH, yPos, this.getWidth(), yPos);
+        g.setColor(theme.WeekHeader_HEADING);
+        DisplayString weekLabel = DisplayString.getStringDimensions(g, WeekHeader.DATE_FORMAT.format(startDate));
+        g.drawString(weekLabel.TEXT, OverviewRenderer.CELL_PADDING, yPos + weekLabel.HEIGHT);
+        if (monthStarts) {
+            LocalDate monthStart = startDate.getDayOfMonth() == 1 ? startDate : startDate.plusMonths(1).withDayOfMonth(1);
+            DisplayString monthLabel = DisplayString.getStringDimensions(g, OverviewRenderer.MONTH_FORMAT.format(monthStart));
+            g.drawString(monthLabel.TEXT, OverviewRenderer.CELL_PADDING, yPos + weekLabel.HEIGHT + monthLabel.HEIGHT);
+        }
+
+        for (int i = 0; i < 7; i++) {
+            long epochDay = summary.START_DAY + i;
+            int startXPos = (int) Math.round(OverviewRenderer.LABEL_WIDTH + i * dayWidth);
+            int endXPos = (int) Math.round(OverviewRenderer.LABEL_WIDTH + (i + 1) * dayWidth);
+            if (epochDay < now.EPOCH_DAY) {
+                g.setColor(theme.WeekRenderer_PAST_BG);
+                g.fillRect(startXPos, yPos + 1, endXPos - startXPos, rowHeight - 1);
+            }
+            this.drawDay(g, theme, summary.DAYS[i], startDate.plusDays(i).getDayOfMonth(), startXPos, yPos, endXPos - startXPos);
+            if (epochDay == now.EPOCH_DAY) {
+                g.setColor(theme.WeekRenderer_PRESENT_TIME_INDICATOR);
+                g.drawRect(startXPos + 1, yPos + 1, endXPos - startXPos - 2, rowHeight - 2);
+            }
+        }
+    }
+
+    /**
+     * Draws the day of the month and the time logged on a day, as a
+     * block standing at the bottom of the day's cell whose height
+     * grows with the time logged, split by epic from left to right.
+     *
+     * @param g The graphics object.
+     * @param theme The color theme
+     * @param day The day's summary.
+     * @param dayOfMonth The day of the month.
+     * @param xPos The x coordinate of the left of the day's cell.
+     * @param yPos The y coordinate of the top of the day's cell.
+     * @param width The width of the day's cell.
+     */
+    private void drawDay(Graphics2D g, ColourTheme theme, WeekSummary.DaySummary day, int dayOfMonth, int xPos, int yPos, int width) {
+        g.setColor(theme.WeekRenderer_BORDER);
+        DisplayString date = DisplayString.getStringDimensions(g, String.valueOf(dayOfMonth));
+        g.drawString(date.TEXT, xPos + OverviewRenderer.CELL_PADDING, yPos + date.HEIGHT);
+        if (day.TOTAL_MINUTES <= 0) return;
+
+        DisplayString total = DisplayString.getStringDimensions(g, Time.formatDuration(day.TOTAL_MINUTES));
+        g.drawString(total.TEXT, xPos + width - OverviewRenderer.CELL_PADDING - total.WIDTH, yPos + total.HEIGHT);
+
+        int blockWidth = width - OverviewRenderer.CELL_PADDING * 2;
+        int maxBlockHeight = this.zoom.ROW_HEIGHT - date.HEIGHT - OverviewRenderer.CELL_PADDING * 2;
+        if (blockWidth <= 0 || maxBlockHeight <= 0) return;
+        double fill = Math.min(1.0, day.TOTAL_MINUTES / (double) OverviewRenderer.FULL_DAY_IN_MINUTES);
+        int blockHeight = Math.max(2, (int) Math.round(maxBlockHeight * fill));
+        int blockXPos = xPos + OverviewRenderer.CELL_PADDING;
+        int blockYPos = yPos + this.zoom.ROW_HEIGHT - OverviewRenderer.CELL_PADDING - blockHeight;
+
+        // Every epic's share starts where the previous one ended, so rounding never leaves a gap.
+        int minutesDrawn = 0;
+        for (int i = 0; i < day.MINUTES.length; i++) {
+            int segmentStartXPos = blockXPos + (int) Math.round((double) minutesDrawn * blockWidth / day.TOTAL_MINUTES);
+            minutesDrawn += day.MINUTES[i];
+            int segmentEndXPos = blockXPos + (int) Math.round((double) minutesDrawn * blockWidth / day.TOTAL_MINUTES);
+            g.setColor(this.getEpicColour(theme, day.EPIC_TAGS[i]));
+            g.fillRect(segmentStartXPos, blockYPos, segmentEndXPos - segmentStartXPos, blockHeight);
+        }
+        g.setColor(theme.WeekRenderer_CARD_BORDER);
+        g.drawRect(blockXPos, blockYPos, blockWidth, blockHeight);
+    }
+
+    /**
+     * Renders vertical lines to separate days.
+     *
+     * @param g The graphics object.
+     * @param theme The color theme
+     * @param clip The area being painted.
+     */
+    private void drawDaySeparators(Graphics2D g, ColourTheme theme, Rectangle clip) {
+        double dayWidth = this.getDayWidth();
+        g.setColor(theme.WeekRenderer_VERTICAL_LINES);
+        for (int i = 0; i < 7; i++) {
+            int xPos = (int) Math.round(OverviewRenderer.LABEL_WIDTH + i * dayWidth);
+            g.drawLine(xPos, clip.y, xPos, clip.y + clip.height);
+        }
+    }
+
+    /**
+     * Returns the colour of the epic passed. Every epic keeps the
+     * same colour, picked from its tag, while time logged against
+     * tickets without an epic is drawn in the colour of a card.
+     *
+     * @param theme The color theme
+     * @param epicTag The epic's tag, or null for no epic.
+     * @return The epic's colour.
+     */
+    private Color getEpicColour(ColourTheme theme, String epicTag) {
+        if (epicTag == null) return theme.WeekRenderer_CARD_BG;
+        return this.epicColours.computeIfAbsent(epicTag, tag -> {
+            // Spreads the hash codes of similar tags around the colour wheel.
+            float hue = (float) ((tag.hashCode() * 0.618033988749895) % 1.0);
+            return Color.getHSBColor(hue < 0 ? hue + 1 : hue, 0.45f, 0.85f);
+        });
+    }
+
+    /**
+     * Returns the date and the time logged against each epic on the
+     * day under the mouse.
+     *
+     * @param e The mouse event.
+     * @return The tooltip's text, or null if the mouse is not over a day.
+     */
+    @Override
+    public String getToolTipText(MouseEvent e) {
+        long epochDay = this.getEpochDayAt(e.getX(), e.getY());
+        if (epochDay == Long.MIN_VALUE) return null;
+        WeekSummary summary = this.getSummary(e.getY() / this.zoom.ROW_HEIGHT);
+        WeekSummary.DaySummary day = summary.DAYS[(int) (epochDay - summary.START_DAY)];
+
+        StringBuilder text = new StringBuilder("<html>").append(Time.formatDate(Time.getCalendarFromEpochDay(epochDay)));
+        if (day.TOTAL_MINUTES > 0) text.append(": ").append(Time.formatDuration(day.TOTAL_MINUTES));
+        for (int i = 0; i < day.MINUTES.length; i++) {
+            text.append("<br>").append(day.EPIC_TAGS[i] == null ? "No epic" : day.EPIC_TAGS[i])
+                    .append(": ").append(Time.formatDuration(day.MINUTES[i]));
+        }
+        return text.append("</html>").toString();
+    }
+
+    /** Returns the size of every week stacked on top of each other. */
+    @Override
+    public Dimension getPreferredSize() {
+        return new Dimension(OverviewRenderer.LABEL_WIDTH + 7 * 50, this.weekCount * this.zoom.ROW_HEIGHT);
+    }
+
+    @Override
+    public Dimension getPreferredScrollableViewportSize() {
+        return this.getPreferredSize();
+    }
+
+    /** Scrolls a third of a week at a time. */
+    @Override
+    public int getScrollableUnitIncrement(Rectangle visibleRect, int orientation, int direction) {
+        return orientation == SwingConstants.VERTICAL ? this.zoom.ROW_HEIGHT / 3 : 10;
+    }
+
+    /** Scrolls a screen at a time, less a week to keep in sight. */
+    @Override
+    public int getScrollableBlockIncrement(Rectangle visibleRect, int orientation, int direction) {
+        if (orientation != SwingConstants.VERTICAL) return visibleRect.width;
+        return Math.max(this.zoom.ROW_HEIGHT, visibleRect.height - this.zoom.ROW_HEIGHT);
+    }
+
+    @Override
+    public boolean getScrollableTracksViewportWidth() {
+        return true;
+    }
+
+    @Override
+    public boolean getScrollableTracksViewportHeight() {
+        return false;
+    }
+}
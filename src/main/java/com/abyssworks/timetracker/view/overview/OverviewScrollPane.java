@@ -0,0 +1,44 @@
+package com.abyssworks.timetracker.view.overview;
+
+import com.abyssworks.timetracker.util.Time;
+
+import javax.swing.*;
+import java.util.Calendar;
+import java.util.function.Consumer;
+
+/**
+ * The following class handles displaying the overview of the time
+ * logged over many weeks through a scroll pane, allowing the user to
+ * scroll through the weeks.
+ *
+ * @author Dysterio
+ */
+public class OverviewScrollPane extends JScrollPane {
+    private final OverviewRenderer overviewRenderer;
+
+    /**
+     * Initializes the scroll pane.
+     *
+     * @param daySelected The action performed with the date of a day clicked on.
+     */
+    public OverviewScrollPane(Consumer<Calendar> daySelected) {
+        super(JScrollPane.VERTICAL_SCROLLBAR_ALWAYS, JScrollPane.HORIZONTAL_SCROLLBAR_NEVER);
+        this.overviewRenderer = new OverviewRenderer(daySelected);
+        this.setViewportView(this.overviewRenderer);
+        this.setColumnHeaderView(new OverviewHeader(this.overviewRenderer));
+        // Only the rows that scroll into view are painted, the rest are copied.
+        this.getViewport().setScrollMode(JViewport.BLIT_SCROLL_MODE);
+        // The weeks around the visible ones are summarized whenever they change, rather than while painting.
+        this.getViewport().addChangeListener(e -> this.overviewRenderer.prefetch());
+    }
+
+    /**
+     * Scrolls to the week containing the date passed.
+     *
+     * @param date The date to show.
+     */
+    public void showWeekOf(Calendar date) {
+        this.validate();
+        this.overviewRenderer.scrollToWeek(Time.getEpochDay(date) - (date.get(Calendar.DAY_OF_WEEK) - Calendar.SUNDAY));
+    }
+}
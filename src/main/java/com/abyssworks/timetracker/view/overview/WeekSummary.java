@@ -0,0 +1,76 @@
+package com.abyssworks.timetracker.view.overview;
+
+import com.abyssworks.timetracker.model.week.TimeAggregate;
+import com.abyssworks.timetracker.model.week.Week;
+import com.abyssworks.timetracker.model.week.WeekManager;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The following class holds the time logged on every day of a week,
+ * split by epic, as it is drawn by the overview. A summary is read
+ * from the totals the days keep as a single state of the model, so it
+ * can be built from any thread, and it never changes once built. The
+ * weeks that have not been loaded yet are summarized with the
+ * occurrences of the recurrence rules they would be loaded with.
+ *
+ * @author Dysterio
+ */
+final class WeekSummary {
+    /** The number of days between the epoch and the week's start date. */
+    public final long START_DAY;
+    /** The totals of each day, from Sunday to Saturday. */
+    public final DaySummary[] DAYS = new DaySummary[7];
+
+    private WeekSummary(long startDay) {
+        this.START_DAY = startDay;
+    }
+
+    /**
+     * Summarizes the week starting on the day passed, as it would be
+     * displayed.
+     *
+     * @param startDay The number of days between the epoch and the week's start date.
+     * @return The week's summary.
+     */
+    static WeekSummary create(long startDay) {
+        // The totals of all the days are read as a single state of the model.
+        return WeekManager.read(() -> {
+            Week week = WeekManager.getProjectedWeek(startDay);
+            WeekSummary summary = new WeekSummary(startDay);
+            for (int i = 0; i < 7; i++) summary.DAYS[i] = new DaySummary(week.getDayAtIndex(i).getTimeAggregate());
+            return summary;
+        });
+    }
+
+    /** The time logged on a day, split by epic from the epic with the most time to the least. */
+    static final class DaySummary {
+        /** The total minutes logged. */
+        public final int TOTAL_MINUTES;
+        /** The tags of the epics time was logged against, with null for the tickets without an epic. */
+        public final String[] EPIC_TAGS;
+        /** The minutes logged against each epic. */
+        public final int[] MINUTES;
+
+        private DaySummary(TimeAggregate timeAggregate) {
+            int totalMinutes = timeAggregate.getTotalMinutes();
+            List<Map.Entry<String, Integer>> epics = new ArrayList<>(timeAggregate.getMinutesPerEpic().entrySet());
+            epics.sort((e1, e2) -> e1.getValue().equals(e2.getValue()) ? e1.getKey().compareTo(e2.getKey()) : e2.getValue() - e1.getValue());
+
+            int minutesWithoutEpic = totalMinutes;
+            for (Map.Entry<String, Integer> epic : epics) minutesWithoutEpic -= epic.getValue();
+            int segments = epics.size() + (minutesWithoutEpic > 0 ? 1 : 0);
+
+            this.TOTAL_MINUTES = totalMinutes;
+            this.EPIC_TAGS = new String[segments];
+            this.MINUTES = new int[segments];
+            for (int i = 0; i < epics.size(); i++) {
+                this.EPIC_TAGS[i] = epics.get(i).getKey();
+                this.MINUTES[i] = epics.get(i).getValue();
+            }
+            if (minutesWithoutEpic > 0) this.MINUTES[segments - 1] = minutesWithoutEpic;
+        }
+    }
+}
@@ -19,7 +19,7 @@ import java.util.Arrays;
  */
 public class CardContextMenu extends JPopupMenu implements ActionListener {
     public final Card CARD;
-    public enum CardActions { Edit, Move, Resize, Duplicate, Delete };
+    public enum CardActions { Edit, Move, Resize, Duplicate, Repeat, Delete };
 
     private WeekMouseListener weekMouseListener;
 
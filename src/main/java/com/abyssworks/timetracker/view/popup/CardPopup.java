@@ -1,10 +1,10 @@
 package com.abyssworks.timetracker.view.popup;
 
-import ca.odell.glazedlists.GlazedLists;
-import ca.odell.glazedlists.swing.AutoCompleteSupport;
 import com.abyssworks.timetracker.TimeTracker;
 import com.abyssworks.timetracker.controller.keyboard.KeyActivityListener;
 import com.abyssworks.timetracker.model.week.Card;
+import com.abyssworks.timetracker.model.week.FreeSlot;
+import com.abyssworks.timetracker.model.week.FreeSlotFinder;
 import com.abyssworks.timetracker.model.data.Ticket;
 import com.abyssworks.timetracker.model.week.WeekManager;
 import com.abyssworks.timetracker.util.Time;
@@ -20,6 +20,9 @@ import javax.swing.text.DefaultFormatter;
 import java.awt.*;
 import java.awt.event.*;
 import java.text.ParseException;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.format.DateTimeParseException;
 import java.util.Calendar;
 import java.util.Date;
 import java.util.Properties;
@@ -36,7 +39,7 @@ public class CardPopup extends Popup {
     public final Card ORIG_CARD;
 
     private JDatePickerImpl datePicker;
-    private JComboBox<Ticket> ticket;
+    private TicketSelector ticket;
     private JTextArea description;
     private JSpinner startTime;
     private JSpinner endTime;
@@ -110,7 +113,11 @@ public class CardPopup extends Popup {
              */
             @Override
             public Object stringToValue(String text) throws ParseException {
-                return TimeTracker.DATE_FORMAT.parseObject(text);
+                try {
+                    return Date.from(LocalDate.parse(text.trim(), TimeTracker.DATE_INPUT_FORMAT).atStartOfDay(ZoneId.systemDefault()).toInstant());
+                } catch (DateTimeParseException e) {
+                    throw new ParseException(text, e.getErrorIndex());
+                }
             }
 
             /**
@@ -123,7 +130,7 @@ public class CardPopup extends Popup {
             public String valueToString(Object value) {
                 if (value != null) {
                     Calendar calendar = (Calendar) value;
-                    return TimeTracker.DATE_FORMAT.format(calendar.getTime());
+                    return Time.formatDate(calendar);
                 }
                 return "";
             }
@@ -155,9 +162,7 @@ public class CardPopup extends Popup {
      * Adds ticket selector to the popup.
      */
     private void addTicketSelector(Ticket ticketSelected) {
-        this.ticket = new JComboBox<>();
-        AutoCompleteSupport.install(this.ticket, GlazedLists.eventListOf(TimeTracker.getAllTickets()));
-        if (ticketSelected != null) this.ticket.setSelectedItem(ticketSelected);
+        this.ticket = new TicketSelector(ticketSelected);
 
         GridBagConstraints c = new GridBagConstraints();
         c.gridx = 0;
@@ -210,12 +215,7 @@ public class CardPopup extends Popup {
      * @return The JSpinner.
      */
     public static JSpinner createTimeSpinner(int timeInMinutes) {
-        SpinnerDateModel sdm;
-        try {
-            sdm = new SpinnerDateModel(Time.TIME_FORMAT.parse(Time.formatTimeInMinutes(timeInMinutes)), null, null, Calendar.HOUR_OF_DAY);
-        } catch (ParseException e) {
-            throw new IllegalArgumentException("Invalid time format");
-        }
+        SpinnerDateModel sdm = new SpinnerDateModel(Time.getDateFromTimeInMinutes(timeInMinutes), null, null, Calendar.HOUR_OF_DAY);
         JSpinner spinner = new JSpinner(sdm);
         JSpinner.DateEditor de = new JSpinner.DateEditor(spinner, Time.TIME_PATTERN);
         spinner.setEditor(de);
@@ -340,10 +340,26 @@ public class CardPopup extends Popup {
         else if (endTime < startTime + Card.MINIMUM_CARD_DURATION)
             return "    - The duration must be at least " + Card.MINIMUM_CARD_DURATION + " minutes.\n";
         else if (!WeekManager.checkIfCardCanBeAdded(this.getDate(), startTime, endTime, this.ORIG_CARD))
-            return "    - Card collision detected on " + TimeTracker.DATE_FORMAT.format(this.getDate().getTime()) + " between " + Time.formatTimeInMinutes(startTime) + " and " + Time.formatTimeInMinutes(endTime) + ".\n";
+            return "    - Card collision detected on " + Time.formatDate(this.getDate()) + " between " + Time.formatTimeInMinutes(startTime) + " and " + Time.formatTimeInMinutes(endTime) + ".\n" +
+                    this.suggestFreeSlot(startTime, endTime - startTime);
         return "";
     }
 
+    /**
+     * Suggests the first free slot after the time selected that fits
+     * the duration selected.
+     *
+     * @param startTime The start time selected.
+     * @param durationInMinutes The duration selected.
+     * @return The suggestion, or nothing if there is no free slot.
+     */
+    private String suggestFreeSlot(int startTime, int durationInMinutes) {
+        FreeSlot slot = FreeSlotFinder.findNextFreeSlot(this.getDate(), startTime, durationInMinutes, FreeSlotFinder.MAX_DAYS_TO_SEARCH);
+        if (slot == null) return "";
+        return "      The next free slot is on " + Time.formatDate(slot.getDate()) + " between " + Time.formatTimeInMinutes(slot.START_TIME_IN_MINUTES) +
+                " and " + Time.formatTimeInMinutes(slot.END_TIME_IN_MINUTES) + ".\n";
+    }
+
     /**
      * Makes sure the input entered into the popup is
      * valid. If not, an error message is shown.
@@ -370,7 +386,7 @@ public class CardPopup extends Popup {
 
     /** Returns the ticket selected. */
     public Ticket getTicket() {
-        return (Ticket) this.ticket.getSelectedItem();
+        return this.ticket.getTicket();
     }
 
     /** Returns the description entered. */
@@ -0,0 +1,129 @@
+package com.abyssworks.timetracker.view.popup;
+
+import com.abyssworks.timetracker.model.week.Card;
+import com.abyssworks.timetracker.model.week.RecurrenceRule;
+
+import javax.swing.*;
+import java.awt.*;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * This class handles displaying the popup used to choose the
+ * days and weeks on which a card repeats.
+ *
+ * @author Dysterio
+ */
+public class RecurrencePopup extends Popup {
+    private static final String[] DAY_NAMES = {"Sun", "Mon", "Tue", "Wed", "Thu", "Fri", "Sat"};
+
+    private final JCheckBox[] dayCheckBoxes = new JCheckBox[7];
+    private JSpinner intervalInWeeks;
+
+    /**
+     * Displays a new recurrence popup.
+     *
+     * @param card The card to repeat.
+     */
+    public RecurrencePopup(Card card) {
+        super();
+        this.setUndecorated(true);
+        this.setLayout(new GridBagLayout());
+
+        RecurrenceRule rule = card.getRecurrence();
+        List<Integer> dayIndexesSelected = new ArrayList<>();
+        if (rule != null) dayIndexesSelected.addAll(rule.getDayIndexes());
+        else dayIndexesSelected.add(card.getDayIndex());
+        this.addDaySelectors(dayIndexesSelected);
+        this.addIntervalSelector(rule == null ? 1 : rule.getIntervalInWeeks());
+        this.addButtons();
+
+        this.setLocationRelativeTo(Popup.MAIN_WINDOW);
+        this.pack();
+        this.setVisible(true);
+    }
+
+    /**
+     * Adds a check box for every day of the week.
+     *
+     * @param dayIndexesSelected The days initially checked.
+     */
+    private void addDaySelectors(List<Integer> dayIndexesSelected) {
+        GridBagConstraints c = new GridBagConstraints();
+        c.gridy = 0;
+        for (int i = 0; i < 7; i++) {
+            this.dayCheckBoxes[i] = new JCheckBox(RecurrencePopup.DAY_NAMES[i], dayIndexesSelected.contains(i));
+            this.dayCheckBoxes[i].setFocusable(false);
+            c.gridx = i;
+            this.add(this.dayCheckBoxes[i], c);
+        }
+    }
+
+    /**
+     * Adds the selector for the number of weeks between occurrences.
+     *
+     * @param intervalInWeeks The initial number of weeks.
+     */
+    private void addIntervalSelector(int intervalInWeeks) {
+        GridBagConstraints c = new GridBagConstraints();
+        c.gridx = 0;
+        c.gridy = 1;
+        c.gridwidth = 3;
+        c.anchor = GridBagConstraints.LINE_END;
+        c.insets = new Insets(0, 0, 0, CardPopup.LABEL_TEXTFIELD_MARGIN);
+        this.add(new JLabel("Every"), c);
+        c.gridx = 3;
+        c.gridwidth = 1;
+        c.fill = GridBagConstraints.HORIZONTAL;
+        this.intervalInWeeks = new JSpinner(new SpinnerNumberModel(intervalInWeeks, 1, 52, 1));
+        this.add(this.intervalInWeeks, c);
+        c.gridx = 4;
+        c.gridwidth = GridBagConstraints.REMAINDER;
+        c.anchor = GridBagConstraints.LINE_START;
+        c.fill = GridBagConstraints.NONE;
+        this.add(new JLabel("week(s)"), c);
+    }
+
+    /**
+     * Adds the cancel and ok buttons to the popup.
+     */
+    private void addButtons() {
+        GridBagConstraints c = new GridBagConstraints();
+        c.gridx = 0;
+        c.gridy = 2;
+        c.gridwidth = 3;
+        JButton cancelButton = new JButton("Cancel");
+        cancelButton.setFocusable(false);
+        this.add(cancelButton, c);
+        cancelButton.addActionListener(e -> this.dispose());
+
+        c.gridx = 4;
+        c.gridwidth = GridBagConstraints.REMAINDER;
+        JButton okButton = new JButton("OK");
+        okButton.setFocusable(false);
+        this.add(okButton, c);
+        okButton.addActionListener(e -> {
+            this.successful = true;
+            this.dispose();
+        });
+    }
+
+    /** Returns the indexes of the days checked. An empty list means the card should stop repeating. */
+    public List<Integer> getDayIndexes() {
+        List<Integer> dayIndexes = new ArrayList<>();
+        for (int i = 0; i < 7; i++) {
+            if (this.dayCheckBoxes[i].isSelected()) dayIndexes.add(i);
+        }
+        return dayIndexes;
+    }
+
+    /** Returns the number of weeks between occurrences. */
+    public int getIntervalInWeeks() {
+        return (Integer) this.intervalInWeeks.getValue();
+    }
+
+    /** Returns whether the popup was confirmed. */
+    public boolean isSuccessful() {
+        return this.successful;
+    }
+}
@@ -0,0 +1,177 @@
+package com.abyssworks.timetracker.view.popup;
+
+import com.abyssworks.timetracker.model.search.SearchIndex;
+import com.abyssworks.timetracker.model.week.Card;
+import com.abyssworks.timetracker.util.Time;
+
+import javax.swing.*;
+import javax.swing.event.DocumentEvent;
+import javax.swing.event.DocumentListener;
+import java.awt.*;
+import java.awt.event.MouseAdapter;
+import java.awt.event.MouseEvent;
+import java.util.Calendar;
+import java.util.function.Consumer;
+
+/**
+ * This class handles displaying the popup used to search the
+ * worklogs. Choosing one of the results shows the week it is in.
+ *
+ * @author Dysterio
+ */
+public class SearchPopup extends Popup {
+    private static final int MAX_RESULTS = 200;
+    private static final int FIELD_WIDTH = 30;
+    private static final int DATE_FIELD_WIDTH = 8;
+
+    private final Consumer<Calendar> showDate;
+    private final DefaultListModel<Card> results = new DefaultListModel<>();
+    private JTextField queryField;
+    private JTextField fromField;
+    private JTextField toField;
+    private JList<Card> resultList;
+
+    /**
+     * Displays a new search popup.
+     *
+     * @param showDate The action that shows the week containing
+     *                 the date of the result chosen.
+     */
+    public SearchPopup(Consumer<Calendar> showDate) {
+        super();
+        this.showDate = showDate;
+        this.setTitle("Search");
+        this.setLayout(new GridBagLayout());
+
+        this.addQueryField();
+        this.addDateFields();
+        this.addResultList();
+
+        this.pack();
+        this.setLocationRelativeTo(Popup.MAIN_WINDOW);
+        this.setVisible(true);
+    }
+
+    /** Adds the field the query is typed in. */
+    private void addQueryField() {
+        this.queryField = new JTextField(SearchPopup.FIELD_WIDTH);
+        this.queryField.setToolTipText("Words match the start of words, \"quoted words\" must appear together.");
+        this.queryField.getDocument().addDocumentListener(this.createSearchListener());
+        this.queryField.addActionListener(e -> this.chooseResult(0));
+
+        GridBagConstraints c = new GridBagConstraints();
+        c.gridx = 0;
+        c.gridy = 0;
+        c.gridwidth = GridBagConstraints.REMAINDER;
+        c.fill = GridBagConstraints.HORIZONTAL;
+        this.add(this.queryField, c);
+    }
+
+    /** Adds the fields that limit the results to a range of dates. */
+    private void addDateFields() {
+        this.fromField = new JTextField(SearchPopup.DATE_FIELD_WIDTH);
+        this.toField = new JTextField(SearchPopup.DATE_FIELD_WIDTH);
+        this.fromField.setToolTipText("dd/mm/yyyy");
+        this.toField.setToolTipText("dd/mm/yyyy");
+        this.fromField.getDocument().addDocumentListener(this.createSearchListener());
+        this.toField.getDocument().addDocumentListener(this.createSearchListener());
+
+        GridBagConstraints c = new GridBagConstraints();
+        c.gridy = 1;
+        c.insets = new Insets(0, 0, 0, CardPopup.LABEL_TEXTFIELD_MARGIN);
+        c.gridx = 0;
+        this.add(new JLabel("From"), c);
+        c.gridx = 1;
+        this.add(this.fromField, c);
+        c.gridx = 2;
+        this.add(new JLabel("To"), c);
+        c.gridx = 3;
+        this.add(this.toField, c);
+    }
+
+    /** Adds the list of cards found. */
+    private void addResultList() {
+        this.resultList = new JList<>(this.results);
+        this.resultList.setFocusable(false);
+        this.resultList.setVisibleRowCount(10);
+        this.resultList.setCellRenderer(new DefaultListCellRenderer() {
+            @Override
+            public Component getListCellRendererComponent(JList<?> list, Object value, int index, boolean isSelected, boolean cellHasFocus) {
+                Card card = (Card) value;
+                String text = Time.formatDate(card.getDate()) + "  " +
+                        card.getTicket() + "  " + card.getDescription();
+                return super.getListCellRendererComponent(list, text, index, isSelected, cellHasFocus);
+            }
+        });
+        this.resultList.addMouseListener(new MouseAdapter() {
+            @Override
+            public void mouseClicked(MouseEvent e) {
+                SearchPopup.this.chooseResult(SearchPopup.this.resultList.locationToIndex(e.getPoint()));
+            }
+        });
+
+        GridBagConstraints c = new GridBagConstraints();
+        c.gridx = 0;
+        c.gridy = 2;
+        c.gridwidth = GridBagConstraints.REMAINDER;
+        c.fill = GridBagConstraints.BOTH;
+        this.add(new JScrollPane(this.resultList), c);
+    }
+
+    /** Creates a listener that searches again whenever a field changes. */
+    private DocumentListener createSearchListener() {
+        return new DocumentListener() {
+            @Override
+            public void insertUpdate(DocumentEvent e) {
+                SearchPopup.this.search();
+            }
+
+            @Override
+            public void removeUpdate(DocumentEvent e) {
+                SearchPopup.this.search();
+            }
+
+            @Override
+            public void changedUpdate(DocumentEvent e) {
+                SearchPopup.this.search();
+            }
+        };
+    }
+
+    /** Replaces the results with the cards matching the fields. */
+    private void search() {
+        this.results.clear();
+        for (Card card : SearchIndex.search(this.queryField.getText(), SearchPopup.parseDate(this.fromField.getText()),
+                SearchPopup.parseDate(this.toField.getText()), SearchPopup.MAX_RESULTS)) {
+            this.results.addElement(card);
+        }
+    }
+
+    /**
+     * Parses a date typed in one of the date fields.
+     *
+     * @param text The text typed.
+     * @return The date, or null if the text is not a valid date.
+     */
+    private static Calendar parseDate(String text) {
+        try {
+            return Time.getCalendarFromDateString(text.trim());
+        } catch (RuntimeException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Shows the week of the result at the index passed and closes
+     * the popup.
+     *
+     * @param index The index of the result chosen.
+     */
+    private void chooseResult(int index) {
+        if (index < 0 || index >= this.results.size()) return;
+
+        this.successful = true;
+        this.showDate.accept(this.results.get(index).getDate());
+        this.dispose();
+    }
+}
@@ -0,0 +1,87 @@
+package com.abyssworks.timetracker.view.popup;
+
+import com.abyssworks.timetracker.TimeTracker;
+import com.abyssworks.timetracker.model.data.Ticket;
+
+import javax.swing.*;
+import javax.swing.event.DocumentEvent;
+import javax.swing.event.DocumentListener;
+import javax.swing.text.JTextComponent;
+
+/**
+ * The following class defines the combo box used to choose a
+ * ticket. The tickets suggested are looked up in the shared ticket
+ * index as the user types, so only the best matches are ever listed.
+ *
+ * @author Dysterio
+ */
+public class TicketSelector extends JComboBox<Ticket> {
+    private static final int MAX_SUGGESTIONS = 20;
+
+    private final DefaultComboBoxModel<Ticket> suggestions = new DefaultComboBoxModel<>();
+    private final JTextComponent textField;
+    private String lastQuery;
+
+    /**
+     * Creates a ticket selector.
+     *
+     * @param ticketSelected The ticket initially selected, or null.
+     */
+    public TicketSelector(Ticket ticketSelected) {
+        super();
+        this.setModel(this.suggestions);
+        this.setEditable(true);
+        this.textField = (JTextComponent) this.getEditor().getEditorComponent();
+
+        this.updateSuggestions();
+        if (ticketSelected != null) this.setSelectedItem(ticketSelected);
+        this.lastQuery = this.textField.getText();
+        this.textField.getDocument().addDocumentListener(new DocumentListener() {
+            @Override
+            public void insertUpdate(DocumentEvent e) {
+                SwingUtilities.invokeLater(TicketSelector.this::updateSuggestions);
+            }
+
+            @Override
+            public void removeUpdate(DocumentEvent e) {
+                SwingUtilities.invokeLater(TicketSelector.this::updateSuggestions);
+            }
+
+            @Override
+            public void changedUpdate(DocumentEvent e) {}
+        });
+    }
+
+    /**
+     * Replaces the tickets listed with the ones matching the text
+     * typed. The text is left as the user typed it.
+     */
+    private void updateSuggestions() {
+        String text = this.textField.getText();
+        if (text.equals(this.lastQuery)) return;
+        this.lastQuery = text;
+        Object selected = this.getSelectedItem();
+        // Choosing a ticket from the list fills in its tag, which is not a new query.
+        if (selected instanceof Ticket && selected.toString().equals(text)) return;
+
+        int caretPosition = this.textField.getCaretPosition();
+        this.suggestions.removeAllElements();
+        for (Ticket ticket : TimeTracker.findTickets(text, TicketSelector.MAX_SUGGESTIONS)) this.suggestions.addElement(ticket);
+        this.textField.setText(text);
+        this.textField.setCaretPosition(Math.min(caretPosition, text.length()));
+        if (this.isShowing()) {
+            // Hiding the list first resizes it to the new suggestions.
+            this.hidePopup();
+            if (this.suggestions.getSize() > 0) this.showPopup();
+        }
+    }
+
+    /** Returns the ticket chosen, or null if the text typed is not the tag of a ticket. */
+    public Ticket getTicket() {
+        String text = this.textField.getText().trim();
+        Object selected = this.getSelectedItem();
+        if (selected instanceof Ticket && selected.toString().equalsIgnoreCase(text)) return (Ticket) selected;
+
+        return TimeTracker.findTicket(text);
+    }
+}
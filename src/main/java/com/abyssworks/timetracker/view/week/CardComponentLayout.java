@@ -0,0 +1,105 @@
+package com.abyssworks.timetracker.view.week;
+
+import com.abyssworks.timetracker.model.week.Card;
+import com.abyssworks.timetracker.view.GUI;
+
+import java.awt.*;
+
+/**
+ * The following class describes which of a card's components, like
+ * its title and description, are displayed and with which font. The
+ * layout only depends on the card's duration and the zoom, so a table
+ * with the layout of every duration is built once per zoom and cards
+ * look their layout up in it while being painted.
+ *
+ * @author Dysterio
+ */
+final class CardComponentLayout {
+    private static final Font SMALL_BOLD_FONT = CardComponentLayout.createBoldFont(WeekRenderer.SMALL_FONT);
+    private static final Font BIG_BOLD_FONT = CardComponentLayout.createBoldFont(WeekRenderer.BIG_FONT);
+
+    private static final CardComponentLayout NOTHING = new CardComponentLayout(null, null, null);
+    private static final CardComponentLayout SMALL_TITLE = new CardComponentLayout(CardComponentLayout.SMALL_BOLD_FONT, null, null);
+    private static final CardComponentLayout TITLE = new CardComponentLayout(CardComponentLayout.BIG_BOLD_FONT, null, null);
+    private static final CardComponentLayout TITLE_AND_SMALL_TICKET = new CardComponentLayout(CardComponentLayout.BIG_BOLD_FONT, WeekRenderer.SMALL_FONT, null);
+    private static final CardComponentLayout TITLE_AND_TICKET = new CardComponentLayout(CardComponentLayout.BIG_BOLD_FONT, WeekRenderer.BIG_FONT, null);
+    private static final CardComponentLayout TITLE_TICKET_AND_SMALL_DESCRIPTION = new CardComponentLayout(CardComponentLayout.BIG_BOLD_FONT, WeekRenderer.BIG_FONT, WeekRenderer.SMALL_FONT);
+    private static final CardComponentLayout EVERYTHING = new CardComponentLayout(CardComponentLayout.BIG_BOLD_FONT, WeekRenderer.BIG_FONT, WeekRenderer.BIG_FONT);
+
+    private static volatile Table table;
+
+    /** The font of the title, or null if it is not displayed. */
+    public final Font TITLE_FONT;
+    /** The font of the ticket's tag and the duration, or null if they are not displayed. */
+    public final Font TICKET_AND_DURATION_FONT;
+    /** The font of the description, or null if it is not displayed. */
+    public final Font DESCRIPTION_FONT;
+
+    private CardComponentLayout(Font titleFont, Font ticketAndDurationFont, Font descriptionFont) {
+        this.TITLE_FONT = titleFont;
+        this.TICKET_AND_DURATION_FONT = ticketAndDurationFont;
+        this.DESCRIPTION_FONT = descriptionFont;
+    }
+
+    /**
+     * Returns the layout of a card lasting the duration passed at the
+     * current zoom.
+     *
+     * @param durationInMinutes The card's duration.
+     * @return The card's layout.
+     */
+    static CardComponentLayout forDuration(int durationInMinutes) {
+        Table table = CardComponentLayout.table;
+        if (table == null || !table.isValid()) {
+            table = new Table();
+            CardComponentLayout.table = table;
+        }
+        return table.LAYOUTS[Math.min(durationInMinutes, table.LAYOUTS.length - 1)];
+    }
+
+    /** Returns whether none of the card's components are displayed. */
+    boolean isEmpty() {
+        return this == CardComponentLayout.NOTHING;
+    }
+
+    /**
+     * Chooses the layout of a card lasting the duration passed, which
+     * displays more of the card the taller it is.
+     *
+     * @param durationInMinutes The card's duration.
+     * @param pixPerMin The number of pixels per minute.
+     * @return The card's layout.
+     */
+    private static CardComponentLayout create(int durationInMinutes, int pixPerMin) {
+        if (durationInMinutes < Card.DRAGGABLE_CARD_MIN_DURATION/pixPerMin) return CardComponentLayout.NOTHING;
+        if (durationInMinutes < 20/pixPerMin) return CardComponentLayout.SMALL_TITLE;
+        if (durationInMinutes < 30/pixPerMin) return CardComponentLayout.TITLE;
+        if (durationInMinutes < 40/pixPerMin) return CardComponentLayout.TITLE_AND_SMALL_TICKET;
+        if (durationInMinutes < 50/pixPerMin) return CardComponentLayout.TITLE_AND_TICKET;
+        if (durationInMinutes < 60/pixPerMin) return CardComponentLayout.TITLE_TICKET_AND_SMALL_DESCRIPTION;
+        return CardComponentLayout.EVERYTHING;
+    }
+
+    /** Returns the bold version of the font passed. */
+    private static Font createBoldFont(Font font) {
+        return new Font(font.getFontName(), Font.BOLD, font.getSize());
+    }
+
+    /** The layout of every duration a card can last, for a single zoom. */
+    private static final class Table {
+        public final int PIX_PER_MIN;
+        public final int DRAGGABLE_CARD_MIN_DURATION;
+        public final CardComponentLayout[] LAYOUTS = new CardComponentLayout[60 * 24 + 1];
+
+        private Table() {
+            this.PIX_PER_MIN = GUI.getPixPerMin();
+            this.DRAGGABLE_CARD_MIN_DURATION = Card.DRAGGABLE_CARD_MIN_DURATION;
+            for (int i = 0; i < this.LAYOUTS.length; i++) this.LAYOUTS[i] = CardComponentLayout.create(i, this.PIX_PER_MIN);
+        }
+
+        /** Checks if the table was built for the current zoom. */
+        private boolean isValid() {
+            return this.PIX_PER_MIN == GUI.getPixPerMin() && this.DRAGGABLE_CARD_MIN_DURATION == Card.DRAGGABLE_CARD_MIN_DURATION;
+        }
+    }
+}
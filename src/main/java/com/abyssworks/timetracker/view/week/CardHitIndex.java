@@ -0,0 +1,211 @@
+package com.abyssworks.timetracker.view.week;
+
+import com.abyssworks.timetracker.TimeTracker;
+import com.abyssworks.timetracker.model.week.Card;
+import com.abyssworks.timetracker.model.week.Week;
+import com.abyssworks.timetracker.model.week.WeekManager;
+import com.abyssworks.timetracker.view.GUI;
+
+import java.util.List;
+
+/**
+ * The following class finds what the mouse is pointing at in the week
+ * renderer without going through the model. The pixel rows covered
+ * by every card are laid out once per day column, sorted from top to
+ * bottom, so the column under the mouse is found with a division and
+ * the card in it with a binary search. The index is a snapshot of the
+ * week read as a single state of the model, which the week renderer
+ * also draws the cards from, and is replaced by the week renderer once
+ * the cards, the size or the zoom change.
+ *
+ * The coordinates passed are relative to the top left corner of the
+ * first day at midnight, so they exclude the time bar and the header
+ * and include the area scrolled past.
+ *
+ * @author Dysterio
+ */
+public final class CardHitIndex {
+    private final Week week;
+    private final int width;
+    private final int pixPerMin;
+    private final int minuteGap;
+    private final double dayWidth;
+    private final Card[][] cards = new Card[7][];
+    private final int[][] startYPositions = new int[7][];
+    private final int[][] endYPositions = new int[7][];
+    private final int[][] resizeEdgeYPositions = new int[7][];
+
+    /**
+     * Lays out the cards of the week passed.
+     *
+     * @param week The week displayed.
+     * @param width The week renderer's width.
+     */
+    CardHitIndex(Week week, int width) {
+        this.week = week;
+        this.width = width;
+        this.pixPerMin = GUI.getPixPerMin();
+        this.minuteGap = TimeTracker.getMinuteGap();
+        this.dayWidth = WeekRenderer.calculateDayWidth(width);
+        int resizeEdgeHeight = Card.DRAGGABLE_CARD_MIN_DURATION * this.pixPerMin / 2;
+        // The cards and their times are read as a single state of the week, so the rows never overlap.
+        WeekManager.read(() -> {
+            for (int i = 0; i < 7; i++) {
+                List<Card> dayCards = week.getDayAtIndex(i).getCards();
+                this.cards[i] = dayCards.toArray(new Card[0]);
+                this.startYPositions[i] = new int[this.cards[i].length];
+                this.endYPositions[i] = new int[this.cards[i].length];
+                this.resizeEdgeYPositions[i] = new int[this.cards[i].length];
+                for (int j = 0; j < this.cards[i].length; j++) {
+                    Card card = this.cards[i][j];
+                    this.startYPositions[i][j] = card.getStartTimeInMinutes() * this.pixPerMin;
+                    this.endYPositions[i][j] = card.getEndTimeInMinutes() * this.pixPerMin;
+                    this.resizeEdgeYPositions[i][j] = this.endYPositions[i][j] - resizeEdgeHeight;
+                }
+            }
+            return null;
+        });
+    }
+
+    /**
+     * Checks if the index still matches the week passed as it would
+     * be displayed now. Changes to the week's cards are not checked,
+     * the week renderer drops the index when it is told about them.
+     *
+     * @param week The week displayed.
+     * @param width The week renderer's width.
+     * @return True if the index can still be used.
+     */
+    boolean isValidFor(Week week, int width) {
+        return this.week == week &&
+                this.width == width &&
+                this.pixPerMin == GUI.getPixPerMin() &&
+                this.minuteGap == TimeTracker.getMinuteGap();
+    }
+
+    /**
+     * Returns the index of the day column at the x coordinate passed.
+     * Coordinates left of the first day or right of the last day
+     * belong to the closest day.
+     *
+     * @param xPos The x coordinate.
+     * @return The day's index.
+     */
+    public int getDayIndexAt(int xPos) {
+        int dayIndex = (int) (xPos / this.dayWidth);
+        dayIndex = Math.max(dayIndex, 0);
+        dayIndex = Math.min(dayIndex, 6);
+        return dayIndex;
+    }
+
+    /**
+     * Returns the index of the time bar closest to the y coordinate
+     * passed, leaning towards the time bar below.
+     *
+     * @param yPos The y coordinate.
+     * @return The time bar's index.
+     */
+    public int getTimeIndexAt(int yPos) {
+        double timeIndex = (double) yPos / (this.pixPerMin * this.minuteGap);
+        return (int) Math.floor(timeIndex + 0.3);
+    }
+
+    /**
+     * Returns the card drawn at the coordinates passed. The space
+     * between the cards and the edges of their day column does not
+     * belong to any card.
+     *
+     * @param xPos The x coordinate.
+     * @param yPos The y coordinate.
+     * @return The card at the coordinates, or null if there is none.
+     */
+    public Card getCardAt(int xPos, int yPos) {
+        int dayIndex = this.getDayIndexAt(xPos);
+        int cardIndex = this.findCardIndex(dayIndex, xPos, yPos);
+        return cardIndex == -1 ? null : this.cards[dayIndex][cardIndex];
+    }
+
+    /**
+     * Checks if the coordinates passed are over the bottom edge of a
+     * card that can be dragged, where dragging resizes the card
+     * instead of moving it.
+     *
+     * @param xPos The x coordinate.
+     * @param yPos The y coordinate.
+     * @return True if dragging from the coordinates resizes a card.
+     */
+    public boolean isOverResizeEdge(int xPos, int yPos) {
+        int dayIndex = this.getDayIndexAt(xPos);
+        int cardIndex = this.findCardIndex(dayIndex, xPos, yPos);
+        if (cardIndex == -1 || !this.cards[dayIndex][cardIndex].isDraggable()) return false;
+        return yPos >= this.resizeEdgeYPositions[dayIndex][cardIndex];
+    }
+
+    /** Returns the number of cards in the day column passed. */
+    int getCardCount(int dayIndex) {
+        return this.cards[dayIndex].length;
+    }
+
+    /** Returns a card of the day column passed, in the order the cards are drawn from top to bottom. */
+    Card getCard(int dayIndex, int cardIndex) {
+        return this.cards[dayIndex][cardIndex];
+    }
+
+    /** Returns the y coordinate of the top of a card of the day column passed. */
+    int getCardStartYPos(int dayIndex, int cardIndex) {
+        return this.startYPositions[dayIndex][cardIndex];
+    }
+
+    /** Returns the y coordinate of the bottom of a card of the day column passed. */
+    int getCardEndYPos(int dayIndex, int cardIndex) {
+        return this.endYPositions[dayIndex][cardIndex];
+    }
+
+    /**
+     * Finds the first card of the day column passed that ends below
+     * the y coordinate passed.
+     *
+     * @param dayIndex The index of the day column.
+     * @param yPos The y coordinate.
+     * @return The index of the card in the day, or the number of cards if none do.
+     */
+    int findFirstCardEndingBelow(int dayIndex, int yPos) {
+        int[] endYPositions = this.endYPositions[dayIndex];
+        int low = 0;
+        int high = endYPositions.length;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (endYPositions[middle] < yPos) low = middle + 1;
+            else high = middle;
+        }
+        return low;
+    }
+
+    /**
+     * Finds the card drawn at the coordinates passed within the day
+     * column passed. The cards of a day never overlap, so their end
+     * positions are sorted as well and the first card ending below
+     * the y coordinate is the only one that can contain it.
+     *
+     * @param dayIndex The index of the day column.
+     * @param xPos The x coordinate.
+     * @param yPos The y coordinate.
+     * @return The index of the card in the day, or -1 if there is none.
+     */
+    private int findCardIndex(int dayIndex, int xPos, int yPos) {
+        int xPosInDayColumn = (int) Math.round(xPos % this.dayWidth);
+        if (xPosInDayColumn < WeekRenderer.CARD_HORIZONTAL_BUFFER ||
+                xPosInDayColumn > this.dayWidth - (WeekRenderer.CARD_HORIZONTAL_BUFFER * 2)) return -1;
+
+        int[] endYPositions = this.endYPositions[dayIndex];
+        int low = 0;
+        int high = endYPositions.length;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (endYPositions[middle] <= yPos) low = middle + 1;
+            else high = middle;
+        }
+        if (low == endYPositions.length || this.startYPositions[dayIndex][low] > yPos) return -1;
+        return low;
+    }
+}
@@ -0,0 +1,133 @@
+package com.abyssworks.timetracker.view.week;
+
+import com.abyssworks.timetracker.model.week.Card;
+import com.abyssworks.timetracker.view.ColourTheme;
+import com.abyssworks.timetracker.view.GUI;
+
+import java.awt.image.BufferedImage;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * The following class keeps the rendered image of every card drawn
+ * by the week renderer, so a card that has not changed is drawn by
+ * copying its image instead of drawing its text again. Each card has
+ * at most one image, which is replaced once the card is edited,
+ * resized, highlighted or drawn with a different theme. The images
+ * least recently drawn are dropped once the pixels of all the images
+ * go over a budget.
+ *
+ * @author Dysterio
+ */
+final class CardSpriteCache {
+    /** The number of pixels all the cached images may use together. */
+    static final long MAX_PIXELS = 8L * 1024 * 1024;
+
+    private final Map<Card, Sprite> sprites = new LinkedHashMap<>(16, 0.75f, true);
+    private long pixels = 0;
+
+    /**
+     * Returns the image of the card passed, if one was cached for the
+     * card as it is now and for the settings passed.
+     *
+     * @param card The card to draw.
+     * @param width The card's width.
+     * @param height The card's height.
+     * @param highlighted Whether the card is highlighted.
+     * @param theme The color theme.
+     * @param scale The scale of the screen.
+     * @return The card's image, or null if it must be drawn again.
+     */
+    BufferedImage get(Card card, int width, int height, boolean highlighted, ColourTheme theme, double scale) {
+        Sprite sprite = this.sprites.get(card);
+        if (sprite == null) return null;
+        if (sprite.matches(card, width, height, highlighted, theme, scale)) return sprite.IMAGE;
+
+        this.remove(card);
+        return null;
+    }
+
+    /**
+     * Caches the image of the card passed, drawn for the settings
+     * passed, and drops the images least recently drawn if the
+     * budget has been exceeded.
+     *
+     * @param card The card drawn.
+     * @param image The card's image.
+     * @param width The card's width.
+     * @param height The card's height.
+     * @param highlighted Whether the card is highlighted.
+     * @param theme The color theme.
+     * @param scale The scale of the screen.
+     */
+    void put(Card card, BufferedImage image, int width, int height, boolean highlighted, ColourTheme theme, double scale) {
+        this.remove(card);
+        Sprite sprite = new Sprite(card, image, width, height, highlighted, theme, scale);
+        this.sprites.put(card, sprite);
+        this.pixels += sprite.getPixels();
+
+        Iterator<Sprite> leastRecentlyDrawn = this.sprites.values().iterator();
+        while (this.pixels > CardSpriteCache.MAX_PIXELS && leastRecentlyDrawn.hasNext()) {
+            Sprite eldest = leastRecentlyDrawn.next();
+            if (eldest == sprite) break;
+            this.pixels -= eldest.getPixels();
+            leastRecentlyDrawn.remove();
+        }
+    }
+
+    /**
+     * Drops the image of the card passed.
+     *
+     * @param card The card whose image is no longer valid.
+     */
+    void remove(Card card) {
+        Sprite sprite = this.sprites.remove(card);
+        if (sprite != null) this.pixels -= sprite.getPixels();
+    }
+
+    /** Drops every cached image. */
+    void clear() {
+        this.sprites.clear();
+        this.pixels = 0;
+    }
+
+    /** The image of a card along with what it was drawn for. */
+    private static final class Sprite {
+        public final BufferedImage IMAGE;
+        public final int VERSION;
+        public final int WIDTH;
+        public final int HEIGHT;
+        public final int PIX_PER_MIN;
+        public final boolean HIGHLIGHTED;
+        public final ColourTheme THEME;
+        public final double SCALE;
+
+        private Sprite(Card card, BufferedImage image, int width, int height, boolean highlighted, ColourTheme theme, double scale) {
+            this.IMAGE = image;
+            this.VERSION = card.getVersion();
+            this.WIDTH = width;
+            this.HEIGHT = height;
+            this.PIX_PER_MIN = GUI.getPixPerMin();
+            this.HIGHLIGHTED = highlighted;
+            this.THEME = theme;
+            this.SCALE = scale;
+        }
+
+        /** Checks if the image still shows the card passed as it would be drawn now. */
+        private boolean matches(Card card, int width, int height, boolean highlighted, ColourTheme theme, double scale) {
+            return this.VERSION == card.getVersion() &&
+                    this.WIDTH == width &&
+                    this.HEIGHT == height &&
+                    this.PIX_PER_MIN == GUI.getPixPerMin() &&
+                    this.HIGHLIGHTED == highlighted &&
+                    this.THEME == theme &&
+                    this.SCALE == scale;
+        }
+
+        /** Returns the number of pixels in the image. */
+        private long getPixels() {
+            return (long) this.IMAGE.getWidth() * this.IMAGE.getHeight();
+        }
+    }
+}
@@ -0,0 +1,150 @@
+package com.abyssworks.timetracker.view.week;
+
+import com.abyssworks.timetracker.model.week.Week;
+import com.abyssworks.timetracker.util.FrameClock;
+
+import javax.swing.*;
+import java.awt.*;
+import java.awt.event.HierarchyEvent;
+import java.awt.event.WindowAdapter;
+import java.awt.event.WindowEvent;
+
+/**
+ * The following class keeps the present time shown by the week
+ * renderer up to date. While the present week is shown, it wakes up
+ * at the start of every minute and repaints only what the passing
+ * time changed, which is the strip between the old and new present
+ * time line in today's column, or today's and yesterday's columns
+ * along with their part of the header once the day changes. While
+ * another week is shown, it only wakes up at midnight, in case the
+ * week shown has just become the present or a past week, and it
+ * stops altogether while the window is minimized.
+ *
+ * @author Dysterio
+ */
+final class PresentTimeUpdater {
+    private final WeekRenderer weekRenderer;
+    private final Timer timer;
+    private final WindowAdapter windowListener = new WindowAdapter() {
+        @Override
+        public void windowIconified(WindowEvent e) {
+            PresentTimeUpdater.this.pause();
+        }
+
+        @Override
+        public void windowDeiconified(WindowEvent e) {
+            PresentTimeUpdater.this.resume();
+        }
+    };
+    private Window window;
+    private boolean paused = false;
+    private FrameClock.Sample repainted;
+
+    /**
+     * Starts keeping the present time shown by the week renderer
+     * passed up to date.
+     *
+     * @param weekRenderer The week renderer.
+     */
+    PresentTimeUpdater(WeekRenderer weekRenderer) {
+        this.weekRenderer = weekRenderer;
+        this.timer = new Timer(0, e -> this.update());
+        this.timer.setRepeats(false);
+        this.repainted = FrameClock.now();
+        // The window is only known once the week renderer has been added to it.
+        weekRenderer.addHierarchyListener(e -> {
+            if ((e.getChangeFlags() & (HierarchyEvent.PARENT_CHANGED | HierarchyEvent.DISPLAYABILITY_CHANGED)) != 0) this.updateWindow();
+        });
+        this.schedule();
+    }
+
+    /** Listens to the window the week renderer is in, to know when it is minimized. */
+    private void updateWindow() {
+        Window window = SwingUtilities.getWindowAncestor(this.weekRenderer);
+        if (window == this.window) return;
+        if (this.window != null) this.window.removeWindowListener(this.windowListener);
+        this.window = window;
+        if (window != null) window.addWindowListener(this.windowListener);
+    }
+
+    /**
+     * Restarts the wait for the next update after the week shown
+     * has changed. The week renderer repaints the new week in full,
+     * so the present time is already up to date.
+     */
+    void weekChanged() {
+        this.repainted = FrameClock.now();
+        this.schedule();
+    }
+
+    /** Stops updating while the window is minimized. */
+    private void pause() {
+        this.paused = true;
+        this.timer.stop();
+    }
+
+    /** Catches up with the time that passed while the window was minimized and starts updating again. */
+    private void resume() {
+        if (!this.paused) return;
+        this.paused = false;
+        this.update();
+    }
+
+    /**
+     * Waits until the start of the next minute if the present week
+     * is shown, or until midnight otherwise.
+     */
+    private void schedule() {
+        this.timer.stop();
+        if (this.paused) return;
+
+        FrameClock.Sample now = FrameClock.now();
+        int millisIntoMinute = now.SECOND * 1000 + now.MILLISECOND;
+        int delay = 60 * 1000 - millisIntoMinute;
+        if (this.weekRenderer.getCurrWeek().weekRelationshipToPresentWeek(now) != 0) {
+            delay += (24 * 60 - now.TIME_OF_DAY_IN_MINUTES - 1) * 60 * 1000;
+        }
+        this.timer.setInitialDelay(delay);
+        this.timer.start();
+    }
+
+    /** Repaints what changed since the present time was last repainted, then waits for the next update. */
+    private void update() {
+        FrameClock.Sample now = FrameClock.now();
+        FrameClock.Sample previous = this.repainted;
+        this.repainted = now;
+        this.repaint(previous, now);
+        this.schedule();
+    }
+
+    /**
+     * Repaints the parts of the week renderer and the header that
+     * depend on the present time and differ between the two times
+     * passed.
+     *
+     * @param previous The present time last repainted.
+     * @param now The present time.
+     */
+    private void repaint(FrameClock.Sample previous, FrameClock.Sample now) {
+        Week week = this.weekRenderer.getCurrWeek();
+        WeekHeader weekHeader = (WeekHeader) SwingUtilities.getAncestorOfClass(WeekHeader.class, this.weekRenderer);
+        int previousWhen = week.weekRelationshipToPresentWeek(previous);
+        int when = week.weekRelationshipToPresentWeek(now);
+        if (previousWhen != when) {
+            // The whole week is tinted or highlighted differently.
+            this.weekRenderer.repaint();
+            if (weekHeader != null) weekHeader.repaintDays(0, 6);
+            return;
+        }
+        if (when != 0) return;
+
+        if (previous.EPOCH_DAY != now.EPOCH_DAY) {
+            this.weekRenderer.repaintDays(previous.DAY_INDEX, now.DAY_INDEX);
+            if (weekHeader != null) weekHeader.repaintDays(previous.DAY_INDEX, now.DAY_INDEX);
+        } else if (previous.TIME_OF_DAY_IN_MINUTES != now.TIME_OF_DAY_IN_MINUTES) {
+            this.weekRenderer.repaintPresentTime(now.DAY_INDEX, previous.TIME_OF_DAY_IN_MINUTES, now.TIME_OF_DAY_IN_MINUTES);
+        } else return;
+        // The time written over the highlighted time bar is tinted once it has passed.
+        this.weekRenderer.repaintTimeBarHighlighted();
+    }
+}
@@ -3,14 +3,17 @@ package com.abyssworks.timetracker.view.week;
 import com.abyssworks.timetracker.TimeTracker;
 import com.abyssworks.timetracker.controller.keyboard.KeyActivityListener;
 import com.abyssworks.timetracker.controller.mouse.WeekMouseListener;
+import com.abyssworks.timetracker.model.event.ModelEventBus;
+import com.abyssworks.timetracker.model.week.ModelHistory;
 import com.abyssworks.timetracker.model.week.Week;
-import com.abyssworks.timetracker.model.week.WeekManager;
 import com.abyssworks.timetracker.util.DisplayString;
+import com.abyssworks.timetracker.util.FrameClock;
+import com.abyssworks.timetracker.util.Time;
 
 import javax.swing.*;
 import java.awt.*;
 import java.awt.event.KeyEvent;
-import java.text.SimpleDateFormat;
+import java.time.format.DateTimeFormatter;
 import java.util.Calendar;
 
 /**
@@ -24,18 +27,27 @@ public class WeekHeader extends JViewport {
     public static final int SCROLL_BUFFER = 30;
 
     public final String[] DAYS = new String[]{"Sunday", "Monday", "Tuesday", "Wednesday", "Thursday", "Friday", "Saturday"};
-    public final SimpleDateFormat dateFormat = new SimpleDateFormat("dd/MM");
+    public static final DateTimeFormatter DATE_FORMAT = DateTimeFormatter.ofPattern("dd/MM");
 
+    private final WeekRenderer weekRenderer;
     private final WeekMouseListener weekMouseListener;
+    // The date labels are only rebuilt when the week shown or the time logged on a day changes.
+    private final String[] dateLabels = new String[7];
+    private final int[] dateLabelMinutes = new int[7];
+    private Week dateLabelsWeek;
 
     /**
      * Creates an instance of the week header.
      */
     public WeekHeader(WeekRenderer wr) {
         super();
-        this.setView(wr);
+        this.weekRenderer = wr;
+        // The feedback given while pointing at and dragging cards is drawn over the week renderer.
+        this.setView(new JLayer<>(wr, new WeekOverlay()));
         this.weekMouseListener = new WeekMouseListener(this);
         this.addChangeListener(this.weekMouseListener::scrollEvent);
+        // The totals shown under the day names change along with the cards.
+        ModelEventBus.subscribe(events -> this.repaint(0, 0, this.getWidth(), WeekHeader.HEADER_HEIGHT), ModelEventBus.Delivery.EDT);
         // Key Listener
         KeyActivityListener keyActivityListener = new KeyActivityListener(this);
         keyActivityListener.bindKey(KeyEvent.VK_ESCAPE, "esc", 0,
@@ -44,12 +56,15 @@ public class WeekHeader extends JViewport {
         keyActivityListener.bindKey(KeyEvent.VK_ALT, "alt", KeyEvent.ALT_MASK,
                 () -> this.weekMouseListener.altKeyListener(true),
                 () -> this.weekMouseListener.altKeyListener(false));
+        keyActivityListener.bindKey(KeyEvent.VK_Z, "undo", KeyEvent.CTRL_DOWN_MASK,
+                ModelHistory::undo, () -> {});
+        keyActivityListener.bindKey(KeyEvent.VK_Y, "redo", KeyEvent.CTRL_DOWN_MASK,
+                ModelHistory::redo, () -> {});
     }
 
-    /** Returns the WeekRender associated with this Header. */
-    @Override
-    public WeekRenderer getView() {
-        return (WeekRenderer) super.getView();
+    /** Returns the WeekRender associated with this Header, which is wrapped in the overlay's layer. */
+    public WeekRenderer getWeekRenderer() {
+        return this.weekRenderer;
     }
 
     /**
@@ -65,7 +80,7 @@ public class WeekHeader extends JViewport {
         this.drawBackground(g);
         this.drawDaySeparator(g);
         this.drawDayNames(g);
-        this.highlightCurrentDay(g);
+        this.highlightCurrentDay(g, FrameClock.frame());
     }
 
     /**
@@ -84,36 +99,55 @@ public class WeekHeader extends JViewport {
      * @param g The graphics object.
      */
     private void drawDaySeparator(Graphics2D g) {
-        int width = this.getWidth() - WeekRenderer.TIME_BAR_WIDTH;
         g.setColor(TimeTracker.getColorTheme().WeekHeader_BORDER);
         for (int i = 0; i < 7; i++) {
-            int xPos = (int) Math.round(WeekRenderer.TIME_BAR_WIDTH + i * width/7.0);
+            int xPos = WeekRenderer.calculateDayStartXPos(this.getWidth(), i);
             g.drawLine(xPos, 0, xPos, WeekHeader.HEADER_HEIGHT);
         }
     }
 
+    /**
+     * Returns the labels showing the date and time logged of every
+     * day in the week passed, rebuilding only the ones that changed.
+     *
+     * @param week The week shown.
+     * @return The labels of the week's days.
+     */
+    private String[] getDateLabels(Week week) {
+        boolean weekChanged = week != this.dateLabelsWeek;
+        Calendar currDate = weekChanged ? week.getStartDate() : null;
+        for (int i = 0; i < 7; i++) {
+            int minutesLogged = week.getDayAtIndex(i).getTimeAggregate().getTotalMinutes();
+            if (weekChanged || minutesLogged != this.dateLabelMinutes[i]) {
+                if (currDate == null) {
+                    currDate = week.getStartDate();
+                    currDate.add(Calendar.DATE, i);
+                }
+                String date = "(" + WeekHeader.DATE_FORMAT.format(Time.getLocalDate(currDate)) + ")";
+                this.dateLabels[i] = minutesLogged > 0 ? date + " " + Time.formatDuration(minutesLogged) : date;
+                this.dateLabelMinutes[i] = minutesLogged;
+            }
+            if (currDate != null) currDate.add(Calendar.DATE, 1);
+        }
+        this.dateLabelsWeek = week;
+        return this.dateLabels;
+    }
+
     /**
      * Renders the day names like Sunday, Monday...
      *
      * @param g The graphics object.
      */
     private void drawDayNames(Graphics2D g) {
-        String[] dates = new String[7];
+        String[] dates = this.getDateLabels(this.weekRenderer.getCurrWeek());
 
-        Calendar currDate = (Calendar) this.getView().getCurrWeek().getStartDate().clone();
-        for (int i = 0; i < 7; i++) {
-            dates[i] = "(" + this.dateFormat.format(currDate.getTime()) + ")";
-            currDate.add(Calendar.DATE, 1);
-        }
-
-        int weekWidth = this.getWidth() - WeekRenderer.TIME_BAR_WIDTH;
-        double dayWidth = weekWidth/7.0;
+        double dayWidth = WeekRenderer.calculateDayWidth(this.getWidth());
         g.setColor(TimeTracker.getColorTheme().WeekHeader_HEADING);
         for (int i = 0; i < 7; i++) {
             DisplayString day = DisplayString.getStringDimensions(g, this.DAYS[i]);
             DisplayString date = DisplayString.getStringDimensions(g, dates[i]);
 
-            int startXPos = (int) Math.round(WeekRenderer.TIME_BAR_WIDTH + i * dayWidth);
+            int startXPos = WeekRenderer.calculateDayStartXPos(this.getWidth(), i);
             g.drawString(day.TEXT, (int) (startXPos + dayWidth/2.0 - day.WIDTH/2.0), day.HEIGHT);
             g.drawString(date.TEXT, (int) (startXPos + dayWidth/2.0 - date.WIDTH/2.0), WeekHeader.HEADER_HEIGHT - date.HEIGHT/2);
         }
@@ -123,18 +157,29 @@ public class WeekHeader extends JViewport {
      * Highlights the current day's label.
      *
      * @param g The graphics object.
+     * @param now The present time of the frame.
      */
-    private void highlightCurrentDay(Graphics2D g) {
-        Week currWeek = this.getView().getCurrWeek();
-        int when = currWeek.weekRelationshipToPresentWeek();
+    private void highlightCurrentDay(Graphics2D g, FrameClock.Sample now) {
+        Week currWeek = this.weekRenderer.getCurrWeek();
+        int when = currWeek.weekRelationshipToPresentWeek(now);
         if (when != 0) return;
-        double dayWidth = (this.getWidth() - WeekRenderer.TIME_BAR_WIDTH)/7.0;
-        int startXPos = (int) Math.round(WeekRenderer.TIME_BAR_WIDTH + WeekManager.getCurrDayIndex() * dayWidth);
-        int endXPos = (int) Math.round(WeekRenderer.TIME_BAR_WIDTH + (WeekManager.getCurrDayIndex() + 1) * dayWidth);
+        int startXPos = WeekRenderer.calculateDayStartXPos(this.getWidth(), now.DAY_INDEX);
+        int endXPos = WeekRenderer.calculateDayStartXPos(this.getWidth(), now.DAY_INDEX + 1);
 
         g.setColor(TimeTracker.getColorTheme().WeekRenderer_PRESENT_TIME_INDICATOR);
         g.drawLine(startXPos, 0, startXPos, WeekHeader.HEADER_HEIGHT);
         g.drawLine(endXPos, 0, endXPos, WeekHeader.HEADER_HEIGHT);
         g.drawLine(startXPos, 0, endXPos, 0);
     }
+
+    /**
+     * Repaints the part of the header above the days between the two
+     * indices passed, in either order, including their borders.
+     *
+     * @param dayIndex The index of the first day.
+     * @param otherDayIndex The index of the last day.
+     */
+    void repaintDays(int dayIndex, int otherDayIndex) {
+        this.repaint(WeekRenderer.calculateDaysBounds(this.getWidth(), WeekHeader.HEADER_HEIGHT + 1, dayIndex, otherDayIndex));
+    }
 }
@@ -0,0 +1,187 @@
+package com.abyssworks.timetracker.view.week;
+
+import com.abyssworks.timetracker.TimeTracker;
+import com.abyssworks.timetracker.model.week.Card;
+import com.abyssworks.timetracker.model.week.DragTransaction;
+import com.abyssworks.timetracker.util.DisplayString;
+import com.abyssworks.timetracker.util.FrameClock;
+import com.abyssworks.timetracker.util.Time;
+import com.abyssworks.timetracker.view.ColourTheme;
+import com.abyssworks.timetracker.view.GUI;
+
+import javax.swing.*;
+import javax.swing.plaf.LayerUI;
+import java.awt.*;
+
+/**
+ * The following class draws the feedback given while the user points
+ * at and drags cards, on top of the week renderer. This includes the
+ * highlighted time bar, the card being created, the borders of the
+ * highlighted cards, the resize handle, and the card being dragged,
+ * along with the outline left where it started. None of it is part
+ * of the week renderer's cached grid and card images, so the feedback
+ * can change on every mouse event while only the small areas it
+ * covers are repainted.
+ *
+ * @author Dysterio
+ */
+final class WeekOverlay extends LayerUI<WeekRenderer> {
+    private static final int RESIZE_HANDLE_HEIGHT = 3;
+    private static final Stroke GHOST_STROKE = new BasicStroke(1, BasicStroke.CAP_BUTT, BasicStroke.JOIN_MITER, 10, new float[]{4, 4}, 0);
+
+    /**
+     * Draws the week renderer and then the feedback on top of it.
+     *
+     * @param graphics The graphics object.
+     * @param c The layer the overlay is drawn on.
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public void paint(Graphics graphics, JComponent c) {
+        super.paint(graphics, c);
+        WeekRenderer weekRenderer = ((JLayer<WeekRenderer>) c).getView();
+        ColourTheme theme = TimeTracker.getColorTheme();
+        Graphics2D g = (Graphics2D) graphics.create();
+        try {
+            this.drawDraggedCard(g, theme, weekRenderer);
+            this.highlightCards(g, theme, weekRenderer);
+            this.drawResizeHandle(g, theme, weekRenderer);
+            this.highlightTimeLine(g, theme, weekRenderer, FrameClock.frame());
+        } finally {
+            g.dispose();
+        }
+    }
+
+    /**
+     * Draws the card being dragged at the position it has been
+     * dragged to, and outlines the place it started from unless the
+     * card is being duplicated.
+     *
+     * @param g The graphics object.
+     * @param theme The color theme
+     * @param weekRenderer The week renderer drawn under the overlay.
+     */
+    private void drawDraggedCard(Graphics2D g, ColourTheme theme, WeekRenderer weekRenderer) {
+        DragTransaction drag = weekRenderer.getDragTransaction();
+        if (drag == null) return;
+
+        Card card = drag.getCard();
+        if (weekRenderer.isLiftedByDrag(card)) {
+            Stroke stroke = g.getStroke();
+            g.setStroke(WeekOverlay.GHOST_STROKE);
+            g.setColor(theme.WeekRenderer_CARD_HIGHLIGHT_BORDER);
+            g.drawRect(weekRenderer.calculateCardStartXPos(card), weekRenderer.calculateCardStartYPos(card),
+                    weekRenderer.calculateCardWidth(), weekRenderer.calculateCardHeight(card));
+            g.setStroke(stroke);
+        }
+        if (drag.hasChanged() || weekRenderer.isLiftedByDrag(card)) {
+            weekRenderer.drawCard(g, theme, card, drag.getPreviewDayIndex(), drag.getPreviewStartTimeInMinutes(), drag.getPreviewDurationInMinutes(), true);
+        }
+    }
+
+    /** Returns the area the card passed is displayed in, which is where it has been dragged to if it is being dragged. */
+    private Rectangle getDisplayedBounds(WeekRenderer weekRenderer, Card card) {
+        DragTransaction drag = weekRenderer.getDragTransaction();
+        if (drag == null || drag.getCard() != card || !drag.hasChanged()) {
+            return new Rectangle(weekRenderer.calculateCardStartXPos(card), weekRenderer.calculateCardStartYPos(card),
+                    weekRenderer.calculateCardWidth(), weekRenderer.calculateCardHeight(card));
+        }
+        return new Rectangle(weekRenderer.calculateCardStartXPos(drag.getPreviewDayIndex()), weekRenderer.calculateCardStartYPos(drag.getPreviewStartTimeInMinutes()),
+                weekRenderer.calculateCardWidth(), weekRenderer.calculateCardHeight(drag.getPreviewDurationInMinutes()));
+    }
+
+    /**
+     * Draws a border around the highlighted cards.
+     *
+     * @param g The graphics object.
+     * @param theme The color theme
+     * @param weekRenderer The week renderer drawn under the overlay.
+     */
+    private void highlightCards(Graphics2D g, ColourTheme theme, WeekRenderer weekRenderer) {
+        g.setColor(theme.WeekRenderer_CARD_HIGHLIGHT_BORDER);
+        for (Card card : weekRenderer.getCardsHighlighted()) {
+            Rectangle bounds = this.getDisplayedBounds(weekRenderer, card);
+            g.drawRect(bounds.x - 1, bounds.y - 1, bounds.width + 2, bounds.height + 2);
+        }
+    }
+
+    /**
+     * Draws a handle along the bottom of the card that would be
+     * resized by dragging.
+     *
+     * @param g The graphics object.
+     * @param theme The color theme
+     * @param weekRenderer The week renderer drawn under the overlay.
+     */
+    private void drawResizeHandle(Graphics2D g, ColourTheme theme, WeekRenderer weekRenderer) {
+        Card card = weekRenderer.getResizeHandleCard();
+        if (card == null || !weekRenderer.checkIfDateIsInWeek(card.getDate())) return;
+        Rectangle bounds = this.getDisplayedBounds(weekRenderer, card);
+
+        int handleWidth = bounds.width / 3;
+        int startXPos = bounds.x + (bounds.width - handleWidth) / 2;
+        int endYPos = bounds.y + bounds.height;
+        g.setColor(theme.WeekRenderer_CARD_HIGHLIGHT_BORDER);
+        g.fillRect(startXPos, endYPos - WeekOverlay.RESIZE_HANDLE_HEIGHT - 1, handleWidth, WeekOverlay.RESIZE_HANDLE_HEIGHT);
+    }
+
+    /**
+     * Highlights the time line that the mouse is over, or the area
+     * of the card being created.
+     *
+     * @param g The graphics object.
+     * @param theme The color theme
+     * @param weekRenderer The week renderer drawn under the overlay.
+     * @param now The present time of the frame.
+     */
+    private void highlightTimeLine(Graphics2D g, ColourTheme theme, WeekRenderer weekRenderer, FrameClock.Sample now) {
+        int dayIndex = weekRenderer.getTimeBarHighlightedDayIndex();
+        if (dayIndex == -1) return;
+
+        int timeIndex = weekRenderer.getTimeBarHighlightedTimeIndex();
+        int highlightLength = weekRenderer.getTimeBarHighlightLength();
+        double dayWidth = WeekRenderer.calculateDayWidth(weekRenderer.getWidth());
+        int startXPos = WeekRenderer.calculateDayStartXPos(weekRenderer.getWidth(), dayIndex);
+        int yPos = WeekHeader.HEADER_HEIGHT + timeIndex * TimeTracker.getMinuteGap() * GUI.getPixPerMin();
+
+        if (highlightLength != 0) {
+            startXPos += WeekRenderer.CARD_HORIZONTAL_BUFFER;
+            int height = highlightLength * TimeTracker.getMinuteGap() * GUI.getPixPerMin();
+            g.setColor(theme.WeekRenderer_CARD_CREATION_BG);
+            g.fillRect(startXPos, yPos, (int) Math.round(dayWidth - 20), height);
+            g.setColor(theme.WeekRenderer_CARD_BORDER);
+            g.drawRect(startXPos, yPos, (int) Math.round(dayWidth - 20), height);
+        } else {
+            int timeInMinutes = timeIndex * TimeTracker.getMinuteGap();
+            g.setFont(WeekRenderer.BIG_FONT);
+            DisplayString timeHighlighted = DisplayString.getStringDimensions(g, Time.formatTimeInMinutes(timeInMinutes));
+
+            int textStartXPosInDay = (int) Math.round(dayWidth/2.0 - timeHighlighted.WIDTH/2.0);
+            int textBGStartXPos = startXPos + textStartXPosInDay - WeekRenderer.CARD_HORIZONTAL_BUFFER;
+            int textBGEndXPos = startXPos + textStartXPosInDay + timeHighlighted.WIDTH + WeekRenderer.CARD_HORIZONTAL_BUFFER;
+            g.setColor(theme.WeekRenderer_BG);
+            g.drawLine(textBGStartXPos, yPos, textBGEndXPos, yPos);
+            int currWeekPosition = weekRenderer.getCurrWeek().weekRelationshipToPresentWeek(now);
+            boolean pastWeek = currWeekPosition < 0;
+            boolean presentWeek = currWeekPosition == 0;
+            boolean pastDay = dayIndex < now.DAY_INDEX;
+            boolean presentDay = dayIndex == now.DAY_INDEX;
+            boolean pastTime = now.TIME_OF_DAY_IN_MINUTES > timeInMinutes;
+            if (pastWeek || (presentWeek && pastDay) || (presentWeek && presentDay && pastTime)) {
+                g.setColor(theme.WeekRenderer_PAST_BG);
+                g.drawLine(textBGStartXPos, yPos, textBGEndXPos, yPos);
+            }
+
+            g.setColor(theme.WeekRenderer_TIME_HIGHLIGHTED);
+
+            int line1StartXPos = startXPos + WeekRenderer.CARD_HORIZONTAL_BUFFER;
+            int line1EndXPos = startXPos + textStartXPosInDay - WeekRenderer.CARD_HORIZONTAL_BUFFER;
+            int line2StartXPos = startXPos + textStartXPosInDay + timeHighlighted.WIDTH + WeekRenderer.CARD_HORIZONTAL_BUFFER;
+            int line2EndXPos = (int) (startXPos + dayWidth - WeekRenderer.CARD_HORIZONTAL_BUFFER);
+
+            g.drawLine(line1StartXPos, yPos, line1EndXPos, yPos);
+            g.drawLine(line2StartXPos, yPos, line2EndXPos, yPos);
+            g.drawString(timeHighlighted.TEXT, (int) (startXPos + dayWidth/2.0 - timeHighlighted.WIDTH/2.0), (int) (yPos + timeHighlighted.HEIGHT/2.0));
+        }
+    }
+}
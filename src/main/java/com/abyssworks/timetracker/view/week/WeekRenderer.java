@@ -1,8 +1,11 @@
 package com.abyssworks.timetracker.view.week;
 
 import com.abyssworks.timetracker.TimeTracker;
+import com.abyssworks.timetracker.model.event.ModelEvent;
+import com.abyssworks.timetracker.model.event.ModelEventBus;
 import com.abyssworks.timetracker.model.week.Card;
-import com.abyssworks.timetracker.model.week.Day;
+import com.abyssworks.timetracker.model.week.DragTransaction;
+import com.abyssworks.timetracker.model.week.RecurrenceManager;
 import com.abyssworks.timetracker.model.week.Week;
 import com.abyssworks.timetracker.model.week.WeekManager;
 import com.abyssworks.timetracker.util.Pair;
@@ -10,15 +13,15 @@ import com.abyssworks.timetracker.util.Time;
 import com.abyssworks.timetracker.view.ColourTheme;
 import com.abyssworks.timetracker.view.GUI;
 import com.abyssworks.timetracker.util.DisplayString;
+import com.abyssworks.timetracker.util.FrameClock;
 import com.abyssworks.timetracker.view.popup.CardPopup;
 import com.abyssworks.timetracker.view.popup.Popup;
+import com.abyssworks.timetracker.view.popup.RecurrencePopup;
 
 import javax.swing.*;
-import javax.swing.Timer;
 import javax.swing.plaf.synth.ColorType;
 import java.awt.*;
-import java.awt.event.ActionEvent;
-import java.awt.event.ActionListener;
+import java.awt.image.BufferedImage;
 import java.util.*;
 import java.util.List;
 
@@ -28,18 +31,36 @@ import java.util.List;
  *
  * @author Dysterio
  */
-public class WeekRenderer extends JPanel implements ActionListener {
+public class WeekRenderer extends JPanel implements Scrollable {
     public static final int TIME_BAR_WIDTH = 50;
     public static final int CARD_HORIZONTAL_BUFFER = 10;
 
-    private static final Font SMALL_FONT = new Font("Arial", Font.PLAIN, 10);
-    private static final Font BIG_FONT = new Font("Arial", Font.PLAIN, 15);
+    static final Font SMALL_FONT = new Font("Arial", Font.PLAIN, 10);
+    static final Font BIG_FONT = new Font("Arial", Font.PLAIN, 15);
+    // A multiple of 4, so the bands start on whole pixels at every scale in steps of a quarter.
+    private static final int GRID_BAND_HEIGHT = 128;
 
     private Week currWeek;
+    private final PresentTimeUpdater presentTimeUpdater;
     private final Set<Card> cardsToHighlight = new HashSet<>();
     private final Pair<Integer, Integer> timeBarToHighlight = new Pair<>(-1, -1);
     private int highlightLength = 0;
-    private Timer repaintTimer;
+    // The background, time bar and grid lines only change with the size, theme, minute gap or zoom.
+    private BufferedImage[] gridBands = new BufferedImage[0];
+    private int gridWidth;
+    private int gridHeight;
+    private ColourTheme gridTheme;
+    private int gridMinuteGap;
+    private int gridPixPerMin;
+    private double gridScale;
+    private final CardSpriteCache cardSprites = new CardSpriteCache();
+    private final CardSpriteCache highlightedCardSprites = new CardSpriteCache();
+    // The feedback drawn by the week overlay while the user points at and drags cards.
+    private DragTransaction dragTransaction;
+    private Rectangle dragPreviewBounds;
+    private Card resizeHandleCard;
+    // Where the cards are displayed, rebuilt on the first frame after the cards, size or zoom change.
+    private CardHitIndex hitIndex;
 
     /**
      * Creates a new week renderer and displays the
@@ -53,15 +74,138 @@ public class WeekRenderer extends JPanel implements ActionListener {
 //        this.setPreferredSize(new Dimension(0, 60 * 24 * GUI.getPixPerMin() + WeekHeader.HEADER_HEIGHT));
 
         this.currWeek = currWeek;
-        this.initializeTimer();
+        this.presentTimeUpdater = new PresentTimeUpdater(this);
+        ModelEventBus.subscribe(this::modelChanged, ModelEventBus.Delivery.EDT);
     }
 
-    /** Initializes the timer to render the screen every minute */
-    private void initializeTimer() {
-        Calendar calendar = Calendar.getInstance();
-        int secondsPassed = calendar.get(Calendar.SECOND);
-        int millisecondsPassed = calendar.get(Calendar.MILLISECOND);
-        new Timer((1000 * (61 - secondsPassed)) + (1001 - millisecondsPassed), this).start();
+    /**
+     * Repaints the areas of the cards that were changed and drops
+     * their cached images. Any other change repaints the whole week.
+     *
+     * @param events The changes made to the model.
+     */
+    private void modelChanged(List<ModelEvent> events) {
+        this.hitIndex = null;
+        for (ModelEvent event : events) {
+            if (!event.isCardEvent()) {
+                this.cardSprites.clear();
+                this.highlightedCardSprites.clear();
+                this.repaint();
+                return;
+            }
+        }
+        for (ModelEvent event : events) {
+            this.cardSprites.remove(event.CARD);
+            this.highlightedCardSprites.remove(event.CARD);
+            this.repaintCard(event.CARD);
+            if (event.PREVIOUS != null) this.repaintCard(event.PREVIOUS);
+        }
+    }
+
+    /**
+     * Repaints the area of the card passed, including its highlight
+     * border and the text hanging below it, if the card is in the
+     * displayed week.
+     *
+     * @param card The card to repaint.
+     */
+    private void repaintCard(Card card) {
+        if (!this.checkIfDateIsInWeek(card.getDate())) return;
+
+        int margin = this.calculateCardMargin();
+        this.repaint(this.calculateCardStartXPos(card) - margin, this.calculateCardStartYPos(card) - margin,
+                this.calculateCardWidth() + 2 * margin, this.calculateCardHeight(card) + 2 * margin);
+    }
+
+    /** Checks if the date passed is a day of the week being displayed. */
+    boolean checkIfDateIsInWeek(Calendar date) {
+        long startDay = Time.getEpochDay(this.currWeek.getStartDate());
+        long day = Time.getEpochDay(date);
+        return day >= startDay && day <= startDay + 6;
+    }
+
+    /**
+     * Repaints the area of the highlighted time bar, including the
+     * time written over it.
+     */
+    void repaintTimeBarHighlighted() {
+        int dayIndex = this.timeBarToHighlight.getFirstItem();
+        if (dayIndex == -1) return;
+
+        int startXPos = WeekRenderer.calculateDayStartXPos(this.getWidth(), dayIndex);
+        int endXPos = WeekRenderer.calculateDayStartXPos(this.getWidth(), dayIndex + 1);
+        int yPos = WeekHeader.HEADER_HEIGHT + this.timeBarToHighlight.getSecondItem() * TimeTracker.getMinuteGap() * GUI.getPixPerMin();
+        int height = this.highlightLength * TimeTracker.getMinuteGap() * GUI.getPixPerMin();
+        int textHeight = this.getFontMetrics(WeekRenderer.BIG_FONT).getHeight();
+        this.repaint(startXPos, yPos - textHeight, endXPos - startXPos + 1, height + 2 * textHeight);
+    }
+
+    /**
+     * Repaints the strip of the present day between the two times
+     * passed, which holds the present time line and the part of the
+     * day that has passed in between.
+     *
+     * @param dayIndex The present day's index.
+     * @param previousTimeInMinutes The present time last repainted.
+     * @param timeInMinutes The present time.
+     */
+    void repaintPresentTime(int dayIndex, int previousTimeInMinutes, int timeInMinutes) {
+        int startXPos = WeekRenderer.calculateDayStartXPos(this.getWidth(), dayIndex);
+        int endXPos = WeekRenderer.calculateDayStartXPos(this.getWidth(), dayIndex + 1);
+        int previousYPos = WeekHeader.HEADER_HEIGHT + previousTimeInMinutes * GUI.getPixPerMin();
+        int yPos = WeekHeader.HEADER_HEIGHT + timeInMinutes * GUI.getPixPerMin();
+        this.repaint(startXPos - 1, Math.min(previousYPos, yPos) - 1, endXPos - startXPos + 2, Math.abs(yPos - previousYPos) + 2);
+    }
+
+    /**
+     * Repaints the columns of the days between the two indices
+     * passed, in either order, including their borders.
+     *
+     * @param dayIndex The index of the first day.
+     * @param otherDayIndex The index of the last day.
+     */
+    void repaintDays(int dayIndex, int otherDayIndex) {
+        this.repaint(WeekRenderer.calculateDaysBounds(this.getWidth(), this.getHeight(), dayIndex, otherDayIndex));
+    }
+
+    /**
+     * Returns the area covered by the columns of the days between
+     * the two indices passed, in either order, including their
+     * borders. The week renderer and the header above it lay their
+     * days out in the same columns.
+     *
+     * @param width The width of the component the days are laid out in.
+     * @param height The height of the area returned.
+     * @param dayIndex The index of the first day.
+     * @param otherDayIndex The index of the last day.
+     * @return The area covered by the days' columns.
+     */
+    static Rectangle calculateDaysBounds(int width, int height, int dayIndex, int otherDayIndex) {
+        int startXPos = WeekRenderer.calculateDayStartXPos(width, Math.min(dayIndex, otherDayIndex));
+        int endXPos = WeekRenderer.calculateDayStartXPos(width, Math.max(dayIndex, otherDayIndex) + 1);
+        return new Rectangle(startXPos - 1, 0, endXPos - startXPos + 2, height);
+    }
+
+    /**
+     * Returns the width of a day's column.
+     *
+     * @param width The width of the component the days are laid out in.
+     * @return The day column's width.
+     */
+    static double calculateDayWidth(int width) {
+        return (width - WeekRenderer.TIME_BAR_WIDTH)/7.0;
+    }
+
+    /**
+     * Returns the x coordinate of the left border of a day's column,
+     * which is also the right border of the previous day's column.
+     *
+     * @param width The width of the component the days are laid out in.
+     * @param dayIndex The day's index, or 7 for the right border of the last day.
+     * @return The x coordinate of the day column's left border.
+     */
+    static int calculateDayStartXPos(int width, int dayIndex) {
+        return (int) Math.round(WeekRenderer.TIME_BAR_WIDTH + dayIndex * WeekRenderer.calculateDayWidth(width));
     }
 
     /**
@@ -70,7 +214,10 @@ public class WeekRenderer extends JPanel implements ActionListener {
      * @param newWeek The new week to render.
      */
     public void updateDisplayedWeek(Week newWeek) {
+        if (newWeek == this.currWeek) return;
+        this.repaint();
         this.currWeek = newWeek;
+        this.presentTimeUpdater.weekChanged();
     }
 
     /**
@@ -83,14 +230,111 @@ public class WeekRenderer extends JPanel implements ActionListener {
         super.paintComponent(graphics);
         ColourTheme theme = TimeTracker.getColorTheme();
         Graphics2D g = (Graphics2D) graphics;
+        FrameClock.Sample now = FrameClock.frame();
 
-        this.drawBackground(g, theme);
-        this.paintTimeBar(g, theme);
-        this.drawDayLines(g, theme);
-        this.drawTimeLines(g, theme);
+        this.drawGrid(g, theme);
         this.drawCards(g, theme);
-        this.drawPastTint(g, theme);
-        this.highlightTimeLine(g, theme);
+        this.drawPastTint(g, theme, now);
+    }
+
+    /**
+     * Draws the background, time bar and grid lines from the cached
+     * grid bands, which are only redrawn when the panel is resized or
+     * the theme, minute gap or zoom has changed. The panel is split
+     * into bands of a fixed height and only the bands in the area
+     * scrolled to are kept, so the memory used follows the size of
+     * the viewport rather than the height of the whole day.
+     *
+     * @param g The graphics object.
+     * @param theme The color theme
+     */
+    private void drawGrid(Graphics2D g, ColourTheme theme) {
+        double scale = g.getTransform().getScaleX();
+        if (!this.isGridValid(theme, scale)) this.resetGrid(theme, scale);
+        Rectangle clip = g.getClipBounds();
+        if (clip == null) clip = new Rectangle(0, 0, this.getWidth(), this.getHeight());
+
+        int firstBand = Math.max(0, clip.y / WeekRenderer.GRID_BAND_HEIGHT);
+        int lastBand = Math.min(this.gridBands.length - 1, (clip.y + clip.height - 1) / WeekRenderer.GRID_BAND_HEIGHT);
+        for (int band = firstBand; band <= lastBand; band++) {
+            if (this.gridBands[band] == null) this.gridBands[band] = this.createGridBand(g, theme, scale, band);
+            int bandYPos = band * WeekRenderer.GRID_BAND_HEIGHT;
+            g.drawImage(this.gridBands[band], 0, bandYPos, this.getWidth(), this.getGridBandHeight(band), null);
+        }
+
+        Rectangle visibleRect = this.getVisibleRect();
+        int firstVisibleBand = visibleRect.y / WeekRenderer.GRID_BAND_HEIGHT;
+        int lastVisibleBand = (visibleRect.y + visibleRect.height - 1) / WeekRenderer.GRID_BAND_HEIGHT;
+        for (int band = 0; band < this.gridBands.length; band++) {
+            if (band < firstVisibleBand || band > lastVisibleBand) this.gridBands[band] = null;
+        }
+    }
+
+    /** Checks if the cached grid bands match the panel's current size and settings. */
+    private boolean isGridValid(ColourTheme theme, double scale) {
+        return this.gridWidth == this.getWidth() &&
+                this.gridHeight == this.getHeight() &&
+                this.gridTheme == theme &&
+                this.gridMinuteGap == TimeTracker.getMinuteGap() &&
+                this.gridPixPerMin == GUI.getPixPerMin() &&
+                this.gridScale == scale;
+    }
+
+    /** Drops the cached grid bands and records the size and settings the next ones are drawn with. */
+    private void resetGrid(ColourTheme theme, double scale) {
+        this.gridBands = new BufferedImage[(this.getHeight() + WeekRenderer.GRID_BAND_HEIGHT - 1) / WeekRenderer.GRID_BAND_HEIGHT];
+        this.gridWidth = this.getWidth();
+        this.gridHeight = this.getHeight();
+        this.gridTheme = theme;
+        this.gridMinuteGap = TimeTracker.getMinuteGap();
+        this.gridPixPerMin = GUI.getPixPerMin();
+        this.gridScale = scale;
+    }
+
+    /** Returns the height of the grid band passed, which is shorter for the last band. */
+    private int getGridBandHeight(int band) {
+        return Math.min(WeekRenderer.GRID_BAND_HEIGHT, this.getHeight() - band * WeekRenderer.GRID_BAND_HEIGHT);
+    }
+
+    /**
+     * Draws the background, time bar and grid lines of a single band
+     * of the panel into a new image, at the scale of the screen.
+     *
+     * @param g The graphics object the band will be drawn on.
+     * @param theme The color theme
+     * @param scale The scale of the screen.
+     * @param band The index of the band, from the top of the panel.
+     * @return The new grid band.
+     */
+    private BufferedImage createGridBand(Graphics2D g, ColourTheme theme, double scale, int band) {
+        int bandYPos = band * WeekRenderer.GRID_BAND_HEIGHT;
+        int bandHeight = this.getGridBandHeight(band);
+        int width = WeekRenderer.scaleSize(this.getWidth(), scale);
+        int height = WeekRenderer.scaleSize(bandHeight, scale);
+        GraphicsConfiguration graphicsConfiguration = this.getGraphicsConfiguration();
+        BufferedImage layer = graphicsConfiguration != null ? graphicsConfiguration.createCompatibleImage(width, height)
+                : new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+
+        Graphics2D layerGraphics = layer.createGraphics();
+        try {
+            layerGraphics.setRenderingHints(g.getRenderingHints());
+            layerGraphics.scale(scale, scale);
+            layerGraphics.translate(0, -bandYPos);
+            // The whole grid is drawn, clipped to the band.
+            layerGraphics.clipRect(0, bandYPos, this.getWidth(), bandHeight);
+            this.drawBackground(layerGraphics, theme);
+            this.paintTimeBar(layerGraphics, theme);
+            this.drawDayLines(layerGraphics, theme);
+            this.drawTimeLines(layerGraphics, theme);
+        } finally {
+            layerGraphics.dispose();
+        }
+        return layer;
+    }
+
+    /** Returns the size in pixels of the screen for the size passed, which is at least one pixel. */
+    private static int scaleSize(int size, double scale) {
+        return Math.max(1, (int) Math.ceil(size * scale));
     }
 
     /**
@@ -114,7 +358,7 @@ public class WeekRenderer extends JPanel implements ActionListener {
     private void paintTimeBar(Graphics2D g, ColourTheme theme) {
         g.setColor(theme.WeekRenderer_BORDER);
         g.drawRect(0, 0, WeekRenderer.TIME_BAR_WIDTH, this.getHeight());
-        g.setFont(new Font("Arial", Font.PLAIN, 15));
+        g.setFont(WeekRenderer.BIG_FONT);
         for (int i = 0; i < 24; i++) {
             int yPos = WeekHeader.HEADER_HEIGHT + i * 60 * GUI.getPixPerMin();
             DisplayString time = DisplayString.getStringDimensions(g, Time.formatTimeInMinutes(i * 60));
@@ -123,37 +367,121 @@ public class WeekRenderer extends JPanel implements ActionListener {
     }
 
     /**
-     * Draws the cards assigned to the current week.
+     * Draws the cards assigned to the current week. The cards are
+     * laid out from the hit index, which is read as a single state of
+     * the week, so a change made from another thread mid-paint can not
+     * make the cards overlap. Only the cards inside the area being
+     * painted are drawn. The cards of a day are sorted by their start
+     * time and never overlap, so the first visible card is found with
+     * a binary search and the rest are drawn until one starts below
+     * the area. Cards that have not
+     * changed since they were last drawn are copied from their
+     * cached images, which are kept apart for highlighted cards so
+     * hovering over a card does not redraw either image.
      *
      * @param g The graphics object.
      * @param theme The color theme
      */
     private void drawCards(Graphics2D g, ColourTheme theme) {
         if (this.currWeek.isEmpty()) return;
+        CardHitIndex hitIndex = this.getHitIndex();
         int cardWidth = this.calculateCardWidth();
+        int margin = this.calculateCardMargin();
+        double scale = g.getTransform().getScaleX();
+        Rectangle clip = g.getClipBounds();
+        if (clip == null) clip = new Rectangle(0, 0, this.getWidth(), this.getHeight());
         for (int i = 0; i < 7; i++) {
-            Day day = this.currWeek.getDayAtIndex(i);
             int startXPos = this.calculateCardStartXPos(i);
-            for (Card c : day.getCards()) {
-                int startYPos = this.calculateCardStartYPos(c);
-                int cardHeight = this.calculateCardHeight(c);
+            if (startXPos + cardWidth + margin < clip.x || startXPos - margin > clip.x + clip.width) continue;
+
+            int firstCardIndex = hitIndex.findFirstCardEndingBelow(i, clip.y - margin - WeekHeader.HEADER_HEIGHT);
+            for (int j = firstCardIndex; j < hitIndex.getCardCount(i); j++) {
+                Card c = hitIndex.getCard(i, j);
+                int startYPos = WeekHeader.HEADER_HEIGHT + hitIndex.getCardStartYPos(i, j);
+                if (startYPos - margin > clip.y + clip.height) break;
+                // The card being dragged is drawn by the overlay wherever it has been dragged to.
+                if (this.isLiftedByDrag(c)) continue;
+
+                int cardHeight = hitIndex.getCardEndYPos(i, j) - hitIndex.getCardStartYPos(i, j);
+                this.drawCard(g, theme, c, c.getDurationInMinutes(), startXPos, startYPos, cardWidth, cardHeight, margin, scale, this.cardsToHighlight.contains(c));
+            }
+        }
+    }
 
-                if (this.cardsToHighlight.contains(c)) g.setColor(theme.WeekRenderer_CARD_HIGHLIGHT_BG);
-                else {
-                    if (c.isDraggable()) g.setColor(theme.WeekRenderer_CARD_BG);
-                    else g.setColor(theme.WeekRenderer_UNDRAGGABLE_CARD_BG);
-                }
+    /**
+     * Draws a card at the day and times passed instead of its own,
+     * such as where it has been dragged to, copying it from its
+     * cached image if it has not changed since it was last drawn at
+     * that size.
+     *
+     * @param g The graphics object.
+     * @param theme The color theme
+     * @param card The card to draw.
+     * @param dayIndex The index of the day to draw the card on.
+     * @param startTimeInMinutes The time to draw the card at.
+     * @param durationInMinutes The duration to draw the card with.
+     * @param highlighted Whether the card is highlighted.
+     */
+    void drawCard(Graphics2D g, ColourTheme theme, Card card, int dayIndex, int startTimeInMinutes, int durationInMinutes, boolean highlighted) {
+        this.drawCard(g, theme, card, durationInMinutes, this.calculateCardStartXPos(dayIndex), this.calculateCardStartYPos(startTimeInMinutes),
+                this.calculateCardWidth(), this.calculateCardHeight(durationInMinutes), this.calculateCardMargin(), g.getTransform().getScaleX(), highlighted);
+    }
+    private void drawCard(Graphics2D g, ColourTheme theme, Card card, int durationInMinutes, int startXPos, int startYPos, int cardWidth, int cardHeight, int margin, double scale, boolean highlighted) {
+        CardSpriteCache sprites = highlighted ? this.highlightedCardSprites : this.cardSprites;
 
-                g.fillRect(startXPos, startYPos, cardWidth, cardHeight);
-                g.setColor(theme.WeekRenderer_CARD_BORDER);
-                g.drawRect(startXPos, startYPos, cardWidth, cardHeight);
+        BufferedImage sprite = sprites.get(card, cardWidth, cardHeight, highlighted, theme, scale);
+        if (sprite == null) {
+            sprite = this.createCardSprite(g, theme, card, durationInMinutes, cardWidth, cardHeight, margin, highlighted, scale);
+            sprites.put(card, sprite, cardWidth, cardHeight, highlighted, theme, scale);
+        }
+        g.drawImage(sprite, startXPos - margin, startYPos - margin, cardWidth + 2 * margin, cardHeight + 2 * margin, null);
+    }
 
-                this.displayCardComponents(g, theme, c, startXPos, startYPos, cardWidth, cardHeight);
+    /**
+     * Draws a card into a new transparent image, at the scale of the
+     * screen. The image is larger than the card by the margin passed
+     * on every side, so it also holds the card's border and the text
+     * hanging below it.
+     *
+     * @param g The graphics object the image will be drawn on.
+     * @param theme The color theme
+     * @param card The card to draw.
+     * @param durationInMinutes The duration to draw the card with.
+     * @param cardWidth The card's width.
+     * @param cardHeight The card's height.
+     * @param margin How far the card's border and text can reach outside of the card.
+     * @param highlighted Whether the card is highlighted.
+     * @param scale The scale of the screen.
+     * @return The card's image.
+     */
+    private BufferedImage createCardSprite(Graphics2D g, ColourTheme theme, Card card, int durationInMinutes, int cardWidth, int cardHeight, int margin, boolean highlighted, double scale) {
+        int width = WeekRenderer.scaleSize(cardWidth + 2 * margin, scale);
+        int height = WeekRenderer.scaleSize(cardHeight + 2 * margin, scale);
+        GraphicsConfiguration graphicsConfiguration = this.getGraphicsConfiguration();
+        BufferedImage sprite = graphicsConfiguration != null ? graphicsConfiguration.createCompatibleImage(width, height, Transparency.TRANSLUCENT)
+                : new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+
+        Graphics2D spriteGraphics = sprite.createGraphics();
+        try {
+            spriteGraphics.setRenderingHints(g.getRenderingHints());
+            spriteGraphics.scale(scale, scale);
+            spriteGraphics.translate(margin, margin);
+
+            if (highlighted) spriteGraphics.setColor(theme.WeekRenderer_CARD_HIGHLIGHT_BG);
+            else {
+                if (card.isDraggable()) spriteGraphics.setColor(theme.WeekRenderer_CARD_BG);
+                else spriteGraphics.setColor(theme.WeekRenderer_UNDRAGGABLE_CARD_BG);
             }
 
-        }
+            spriteGraphics.fillRect(0, 0, cardWidth, cardHeight);
+            spriteGraphics.setColor(theme.WeekRenderer_CARD_BORDER);
+            spriteGraphics.drawRect(0, 0, cardWidth, cardHeight);
 
-        this.highlightCards(g, theme, cardWidth);
+            this.displayCardComponents(spriteGraphics, theme, card, durationInMinutes, 0, 0, cardWidth, cardHeight);
+        } finally {
+            spriteGraphics.dispose();
+        }
+        return sprite;
     }
 
     /**
@@ -162,38 +490,36 @@ public class WeekRenderer extends JPanel implements ActionListener {
      * @param g The graphics object.
      * @param theme The color theme
      * @param card The card to display information about.
+     * @param durationInMinutes The duration to display the card with.
      * @param startXPos The card's left x coordinate.
      * @param startYPos The card's top y coordinate.
      * @param cardWidth The card's width.
      * @param cardHeight The card's height.
      */
-    private void displayCardComponents(Graphics2D g, ColourTheme theme, Card card, int startXPos, int startYPos, int cardWidth, int cardHeight) {
+    private void displayCardComponents(Graphics2D g, ColourTheme theme, Card card, int durationInMinutes, int startXPos, int startYPos, int cardWidth, int cardHeight) {
         int pixelsUsed = 0;
         int titleHeight = 0;
-        Map<Card.Components, Card.FontSize> components = card.getComponentsToDisplay();
-        if (components.isEmpty()) return;
+        CardComponentLayout layout = CardComponentLayout.forDuration(durationInMinutes);
+        if (layout.isEmpty()) return;
         g.setColor(theme.WeekRenderer_CARD_TEXT);
-        if (components.containsKey(Card.Components.Title)) {
-            Font titleFont = this.getFont(components.get(Card.Components.Title));
-            titleFont = new Font(titleFont.getFontName(), Font.BOLD, titleFont.getSize());
-
-            g.setFont(titleFont);
+        if (layout.TITLE_FONT != null) {
+            g.setFont(layout.TITLE_FONT);
             DisplayString title = DisplayString.truncateStringToFitWidth(g, card.getTicket().getTitle(), cardWidth, true);
             g.drawString(title.TEXT, (int) (startXPos + (cardWidth - title.WIDTH)/2.0), startYPos + title.HEIGHT);
             pixelsUsed += title.HEIGHT;
             titleHeight = title.HEIGHT;
         }
-        if (components.containsKey(Card.Components.TicketAndDuration)) {
-            g.setFont(this.getFont(components.get(Card.Components.TicketAndDuration)));
-            DisplayString duration = DisplayString.truncateStringToFitWidth(g, Time.formatDuration(card.getDurationInMinutes()), cardWidth, true);
+        if (layout.TICKET_AND_DURATION_FONT != null) {
+            g.setFont(layout.TICKET_AND_DURATION_FONT);
+            DisplayString duration = DisplayString.truncateStringToFitWidth(g, Time.formatDuration(durationInMinutes), cardWidth, true);
             DisplayString ticketTag = DisplayString.truncateStringToFitWidth(g, card.getTicket().toString(), cardWidth - duration.WIDTH, true);
 
             g.drawString(ticketTag.TEXT, startXPos, startYPos + cardHeight);
             g.drawString(duration.TEXT, startXPos + cardWidth - duration.WIDTH, startYPos + cardHeight);
             pixelsUsed += Math.max(ticketTag.HEIGHT, duration.HEIGHT);
         }
-        if (components.containsKey(Card.Components.Description)) {
-            g.setFont(this.getFont(components.get(Card.Components.Description)));
+        if (layout.DESCRIPTION_FONT != null) {
+            g.setFont(layout.DESCRIPTION_FONT);
             List<DisplayString> descLines = DisplayString.truncateStringToFitWidthAndHeight(g, card.getDescription(), cardWidth, cardHeight - pixelsUsed);
             int yPos = startYPos + titleHeight;
             for (DisplayString line : descLines) {
@@ -203,53 +529,38 @@ public class WeekRenderer extends JPanel implements ActionListener {
         }
     }
 
-    /** Returns a Font object based on the enum passed. */
-    private Font getFont(Card.FontSize fontSize) {
-        return fontSize == Card.FontSize.Big ? WeekRenderer.BIG_FONT : WeekRenderer.SMALL_FONT;
-    }
-
-    /**
-     * Highlights the cards by drawing them in a different color.
-     *
-     * @param g The graphics object.
-     * @param theme The color theme
-     * @param cardWidth The card's width.
-     */
-    private void highlightCards(Graphics2D g, ColourTheme theme, int cardWidth) {
-        if (this.cardsToHighlight.isEmpty()) return;
-        for (Card cardToHighlight : this.cardsToHighlight) {
-            int startXPos = this.calculateCardStartXPos(cardToHighlight);
-            int startYPos = this.calculateCardStartYPos(cardToHighlight);
-            int height = this.calculateCardHeight(cardToHighlight);
-
-            g.setColor(theme.WeekRenderer_CARD_HIGHLIGHT_BORDER);
-            g.drawRect(startXPos - 1, startYPos - 1, cardWidth + 2, height + 2);
-        }
-    }
-
     /** Calculates the card's left side x coordinate. */
-    private int calculateCardStartXPos(Card c) {
-        return this.calculateCardStartXPos(c.getDate().get(Calendar.DAY_OF_WEEK) - 1);
+    int calculateCardStartXPos(Card c) {
+        return this.calculateCardStartXPos(c.getDayIndex());
     }
-    private int calculateCardStartXPos(int dayIndex) {
-        double dayWidth = (this.getWidth() - WeekRenderer.TIME_BAR_WIDTH) / 7.0;
-        return WeekRenderer.TIME_BAR_WIDTH + (int) Math.round(dayWidth * dayIndex) + WeekRenderer.CARD_HORIZONTAL_BUFFER;
+    int calculateCardStartXPos(int dayIndex) {
+        return WeekRenderer.calculateDayStartXPos(this.getWidth(), dayIndex) + WeekRenderer.CARD_HORIZONTAL_BUFFER;
     }
 
     /** Calculates the card's top side y coordinate. */
-    private int calculateCardStartYPos(Card c) {
-        return WeekHeader.HEADER_HEIGHT + c.getStartTimeInMinutes() * GUI.getPixPerMin();
+    int calculateCardStartYPos(Card c) {
+        return this.calculateCardStartYPos(c.getStartTimeInMinutes());
+    }
+    int calculateCardStartYPos(int startTimeInMinutes) {
+        return WeekHeader.HEADER_HEIGHT + startTimeInMinutes * GUI.getPixPerMin();
     }
 
     /** Calculates the card's width. */
-    private int calculateCardWidth() {
-        double dayWidth = (this.getWidth() - WeekRenderer.TIME_BAR_WIDTH) / 7.0;
-        return (int) (dayWidth - (WeekRenderer.CARD_HORIZONTAL_BUFFER * 2));
+    int calculateCardWidth() {
+        return (int) (WeekRenderer.calculateDayWidth(this.getWidth()) - (WeekRenderer.CARD_HORIZONTAL_BUFFER * 2));
+    }
+
+    /** Calculates how far a card's highlight border and text can reach outside of the card. */
+    private int calculateCardMargin() {
+        return this.getFontMetrics(WeekRenderer.BIG_FONT).getMaxDescent() + 2;
     }
 
     /** Calculates the card's height in pixels. */
-    private int calculateCardHeight(Card c) {
-        return c.getDurationInMinutes() * GUI.getPixPerMin();
+    int calculateCardHeight(Card c) {
+        return this.calculateCardHeight(c.getDurationInMinutes());
+    }
+    int calculateCardHeight(int durationInMinutes) {
+        return durationInMinutes * GUI.getPixPerMin();
     }
 
     /**
@@ -257,17 +568,17 @@ public class WeekRenderer extends JPanel implements ActionListener {
      *
      * @param g The graphics object.
      * @param theme The color theme
+     * @param now The present time of the frame.
      */
-    private void drawPastTint(Graphics2D g, ColourTheme theme) {
-        int when = this.currWeek.weekRelationshipToPresentWeek();
+    private void drawPastTint(Graphics2D g, ColourTheme theme, FrameClock.Sample now) {
+        int when = this.currWeek.weekRelationshipToPresentWeek(now);
         if (when < 0) {
             g.setColor(theme.WeekRenderer_PAST_BG);
             g.fillRect(WeekRenderer.TIME_BAR_WIDTH, WeekHeader.HEADER_HEIGHT, this.getWidth() - WeekRenderer.TIME_BAR_WIDTH, this.getHeight() - WeekHeader.HEADER_HEIGHT);
         } else if (when == 0) {
-            int currDayIndex = WeekManager.getCurrDayIndex();
-            double dayWidth = (this.getWidth() - WeekRenderer.TIME_BAR_WIDTH)/7.0;
-            this.applyTintToPastDaysOfCurrWeek(g, theme, currDayIndex, dayWidth);
-            this.highlightPresentDay(g, theme, currDayIndex, dayWidth);
+            int currDayIndex = now.DAY_INDEX;
+            this.applyTintToPastDaysOfCurrWeek(g, theme, currDayIndex);
+            this.highlightPresentDay(g, theme, currDayIndex, now.TIME_OF_DAY_IN_MINUTES);
         }
     }
 
@@ -277,10 +588,9 @@ public class WeekRenderer extends JPanel implements ActionListener {
      * @param g The graphics object.
      * @param theme The color theme
      * @param currDayIndex The present day's index.
-     * @param dayWidth The day column's width.
      */
-    private void applyTintToPastDaysOfCurrWeek(Graphics2D g, ColourTheme theme, int currDayIndex, double dayWidth) {
-        int width = (int) Math.round(currDayIndex * dayWidth);
+    private void applyTintToPastDaysOfCurrWeek(Graphics2D g, ColourTheme theme, int currDayIndex) {
+        int width = WeekRenderer.calculateDayStartXPos(this.getWidth(), currDayIndex) - WeekRenderer.TIME_BAR_WIDTH;
         int height = this.getHeight() - WeekHeader.HEADER_HEIGHT;
         g.setColor(theme.WeekRenderer_PAST_BG);
         g.fillRect(WeekRenderer.TIME_BAR_WIDTH, WeekHeader.HEADER_HEIGHT, width, height);
@@ -292,18 +602,18 @@ public class WeekRenderer extends JPanel implements ActionListener {
      * @param g The graphics object.
      * @param theme The color theme
      * @param currDayIndex The current day's index.
-     * @param dayWidth The day column's width.
+     * @param timeOfDayInMinutes The present time of day.
      */
-    private void highlightPresentDay(Graphics2D g, ColourTheme theme, int currDayIndex, double dayWidth) {
-        double startXPos = Math.round(WeekRenderer.TIME_BAR_WIDTH + currDayIndex * dayWidth);
-        double endXPos = WeekRenderer.TIME_BAR_WIDTH + (currDayIndex + 1) * ((this.getWidth() - WeekRenderer.TIME_BAR_WIDTH)/7.0);
-        int height = Time.getTimeOfDayInMinutes() * GUI.getPixPerMin();
+    private void highlightPresentDay(Graphics2D g, ColourTheme theme, int currDayIndex, int timeOfDayInMinutes) {
+        int startXPos = WeekRenderer.calculateDayStartXPos(this.getWidth(), currDayIndex);
+        int endXPos = WeekRenderer.calculateDayStartXPos(this.getWidth(), currDayIndex + 1);
+        int height = timeOfDayInMinutes * GUI.getPixPerMin();
 
         g.setColor(theme.WeekRenderer_PAST_BG);
-        g.fillRect((int) Math.round(startXPos), WeekHeader.HEADER_HEIGHT, (int) Math.round(dayWidth), height);
+        g.fillRect(startXPos, WeekHeader.HEADER_HEIGHT, endXPos - startXPos, height);
         g.setColor(theme.WeekRenderer_PRESENT_TIME_INDICATOR);
-        g.drawRect((int) Math.round(startXPos), WeekHeader.HEADER_HEIGHT, (int) Math.round(endXPos - startXPos), 24 * 60 * GUI.getPixPerMin());
-        g.drawLine((int) Math.round(startXPos), WeekHeader.HEADER_HEIGHT + height, (int) Math.round(startXPos + dayWidth), WeekHeader.HEADER_HEIGHT + height);
+        g.drawRect(startXPos, WeekHeader.HEADER_HEIGHT, endXPos - startXPos, 24 * 60 * GUI.getPixPerMin());
+        g.drawLine(startXPos, WeekHeader.HEADER_HEIGHT + height, endXPos, WeekHeader.HEADER_HEIGHT + height);
     }
 
     /**
@@ -316,7 +626,7 @@ public class WeekRenderer extends JPanel implements ActionListener {
     private void drawDayLines(Graphics2D g, ColourTheme theme) {
         g.setColor(theme.WeekRenderer_VERTICAL_LINES);
         for (int i = 0; i < 7; i++) {
-            int xPos = (int) Math.round(WeekRenderer.TIME_BAR_WIDTH + (i + 1) * ((this.getWidth() - WeekRenderer.TIME_BAR_WIDTH)/7.0));
+            int xPos = WeekRenderer.calculateDayStartXPos(this.getWidth(), i + 1);
             g.drawLine(xPos, WeekHeader.HEADER_HEIGHT, xPos, this.getHeight());
         }
     }
@@ -329,9 +639,9 @@ public class WeekRenderer extends JPanel implements ActionListener {
      * @param theme The color theme
      */
     private void drawTimeLines(Graphics2D g, ColourTheme theme) {
-        double dayWidth = (this.getWidth() - WeekRenderer.TIME_BAR_WIDTH)/7.0;
         for (int dayIndex = 0; dayIndex < 7; dayIndex++) {
-            int startXPos = (int) Math.round(WeekRenderer.TIME_BAR_WIDTH + dayIndex * dayWidth);
+            int startXPos = WeekRenderer.calculateDayStartXPos(this.getWidth(), dayIndex);
+            int endXPos = WeekRenderer.calculateDayStartXPos(this.getWidth(), dayIndex + 1);
             for (int timeIndex = 0; timeIndex < 24 * 60 / TimeTracker.getMinuteGap(); timeIndex++) {
                 int timeInMinutes = timeIndex * TimeTracker.getMinuteGap();
                 int yPos = WeekHeader.HEADER_HEIGHT + timeInMinutes * GUI.getPixPerMin();
@@ -339,78 +649,41 @@ public class WeekRenderer extends JPanel implements ActionListener {
                 if (timeInMinutes % 60 == 0) g.setColor(theme.WeekRenderer_HOUR_INDICATOR);
                 else g.setColor(theme.WeekRenderer_HORIZONTAL_LINES);
 
-                g.drawLine(startXPos, yPos, (int) Math.round(startXPos + dayWidth), yPos);
+                g.drawLine(startXPos, yPos, endXPos, yPos);
             }
         }
     }
 
-    /**
-     * Highlights the time line that the mouse is over.
-     *
-     * @param g The graphics object.
-     * @param theme The color theme
-     */
-    private void highlightTimeLine(Graphics2D g, ColourTheme theme) {
-        if (this.timeBarToHighlight.getFirstItem() == -1) return;
-
-        double dayWidth = (this.getWidth() - WeekRenderer.TIME_BAR_WIDTH)/7.0;
-        int startXPos = (int) Math.round(WeekRenderer.TIME_BAR_WIDTH + this.timeBarToHighlight.getFirstItem() * dayWidth);
-        int yPos = WeekHeader.HEADER_HEIGHT + this.timeBarToHighlight.getSecondItem() * TimeTracker.getMinuteGap() * GUI.getPixPerMin();
-
-        if (this.highlightLength != 0) {
-            startXPos += WeekRenderer.CARD_HORIZONTAL_BUFFER;
-            int height = this.highlightLength * TimeTracker.getMinuteGap() * GUI.getPixPerMin();
-            g.setColor(theme.WeekRenderer_CARD_CREATION_BG);
-            g.fillRect(startXPos, yPos, (int) Math.round(dayWidth - 20), height);
-            g.setColor(theme.WeekRenderer_CARD_BORDER);
-            g.drawRect(startXPos, yPos, (int) Math.round(dayWidth - 20), height);
-        } else {
-            int timeInMinutes = this.timeBarToHighlight.getSecondItem() * TimeTracker.getMinuteGap();
-            DisplayString timeHighlighted = DisplayString.getStringDimensions(g, Time.formatTimeInMinutes(timeInMinutes));
-
-            int textStartXPosInDay = (int) Math.round(dayWidth/2.0 - timeHighlighted.WIDTH/2.0);
-            int textBGStartXPos = startXPos + textStartXPosInDay - WeekRenderer.CARD_HORIZONTAL_BUFFER;
-            int textBGEndXPos = startXPos + textStartXPosInDay + timeHighlighted.WIDTH + WeekRenderer.CARD_HORIZONTAL_BUFFER;
-            g.setColor(theme.WeekRenderer_BG);
-            g.drawLine(textBGStartXPos, yPos, textBGEndXPos, yPos);
-            int currWeekPosition = this.currWeek.weekRelationshipToPresentWeek();
-            boolean pastWeek = currWeekPosition < 0;
-            boolean presentWeek = currWeekPosition == 0;
-            boolean pastDay = this.timeBarToHighlight.getFirstItem() < WeekManager.getCurrDayIndex();
-            boolean presentDay = this.timeBarToHighlight.getFirstItem() == WeekManager.getCurrDayIndex();
-            boolean pastTime = Time.getTimeOfDayInMinutes() > timeInMinutes;
-            if (pastWeek || (presentWeek && pastDay) || (presentWeek && presentDay && pastTime)) {
-                g.setColor(theme.WeekRenderer_PAST_BG);
-                g.drawLine(textBGStartXPos, yPos, textBGEndXPos, yPos);
-            }
+    /** Returns the size of the viewport needed to display the whole week. */
+    @Override
+    public Dimension getPreferredScrollableViewportSize() {
+        return this.getPreferredSize();
+    }
 
-            g.setFont(WeekRenderer.BIG_FONT);
-            g.setColor(theme.WeekRenderer_TIME_HIGHLIGHTED);
+    /** Returns the distance scrolled by a click on a scroll bar's arrow. */
+    @Override
+    public int getScrollableUnitIncrement(Rectangle visibleRect, int orientation, int direction) {
+        return 1;
+    }
 
-            int line1StartXPos = startXPos + WeekRenderer.CARD_HORIZONTAL_BUFFER;
-            int line1EndXPos = startXPos + textStartXPosInDay - WeekRenderer.CARD_HORIZONTAL_BUFFER;
-            int line2StartXPos = startXPos + textStartXPosInDay + timeHighlighted.WIDTH + WeekRenderer.CARD_HORIZONTAL_BUFFER;
-            int line2EndXPos = (int) (startXPos + dayWidth - WeekRenderer.CARD_HORIZONTAL_BUFFER);
+    /** Returns the distance scrolled by a click on a scroll bar's track, which is the area visible. */
+    @Override
+    public int getScrollableBlockIncrement(Rectangle visibleRect, int orientation, int direction) {
+        return orientation == SwingConstants.VERTICAL ? visibleRect.height : visibleRect.width;
+    }
 
-            g.drawLine(line1StartXPos, yPos, line1EndXPos, yPos);
-            g.drawLine(line2StartXPos, yPos, line2EndXPos, yPos);
-            g.drawString(timeHighlighted.TEXT, (int) (startXPos + dayWidth/2.0 - timeHighlighted.WIDTH/2.0), (int) (yPos + timeHighlighted.HEIGHT/2.0));
-        }
+    /** Returns whether the week is stretched to the viewport's width, which it is whenever it fits. */
+    @Override
+    public boolean getScrollableTracksViewportWidth() {
+        Container viewport = SwingUtilities.getAncestorOfClass(JViewport.class, this);
+        return viewport != null && viewport.getWidth() > this.getPreferredSize().width;
     }
 
-    /**
-     * Invoked when an action occurs.
-     *
-     * @param e Timer firing event.
-     */
+    /** Returns whether the week is stretched to the viewport's height, which it is whenever it fits. */
     @Override
-    public void actionPerformed(ActionEvent e) {
-        if (e.getSource() != this.repaintTimer) {
-            this.repaintTimer = new Timer(60000, this);
-            this.repaintTimer.start();
-            ((Timer) e.getSource()).stop();
-        }
-        this.repaint();
+    public boolean getScrollableTracksViewportHeight() {
+        Container viewport = SwingUtilities.getAncestorOfClass(JViewport.class, this);
+        return viewport != null && viewport.getHeight() > this.getPreferredSize().height;
     }
 
     /** Returns the current week being displayed. */
@@ -433,14 +706,16 @@ public class WeekRenderer extends JPanel implements ActionListener {
     }
 
     /**
-     * Returns the card on the day and time provided.
+     * Returns the index used to find the card under the mouse. The
+     * index is built along with the frame after the cards, the size
+     * or the zoom change, or on the first call if that comes sooner.
      *
-     * @param dayIndex The index of the day to check for the card.
-     * @param timeInMinutes The time in minutes at which to check for a card.
-     * @return The card object at that time and day.
+     * @return The index of where the cards are displayed.
      */
-    public Card getCardAtDayAndTime(int dayIndex, int timeInMinutes) {
-        return this.currWeek.getCardAtDayAndTime(dayIndex, timeInMinutes);
+    public CardHitIndex getHitIndex() {
+        if (this.hitIndex == null || !this.hitIndex.isValidFor(this.currWeek, this.getWidth()))
+            this.hitIndex = new CardHitIndex(this.currWeek, this.getWidth());
+        return this.hitIndex;
     }
 
     /**
@@ -449,7 +724,7 @@ public class WeekRenderer extends JPanel implements ActionListener {
      * @param c The card to be highlighted.
      */
     public void addCardToHighlight(Card c) {
-        this.cardsToHighlight.add(c);
+        if (this.cardsToHighlight.add(c)) this.repaintCard(c);
     }
 
     /**
@@ -458,14 +733,85 @@ public class WeekRenderer extends JPanel implements ActionListener {
      * @param c The card to unhighlight.
      */
     public void removeCardToHighlight(Card c) {
-        this.cardsToHighlight.remove(c);
+        if (this.cardsToHighlight.remove(c)) this.repaintCard(c);
     }
 
     /** Un-highlights all highlighted cards. */
     public void clearCardsHighlighted() {
+        for (Card card : this.cardsToHighlight) this.repaintCard(card);
         this.cardsToHighlight.clear();
     }
 
+    /** Returns the cards highlighted. */
+    Set<Card> getCardsHighlighted() {
+        return this.cardsToHighlight;
+    }
+
+    /**
+     * Displays the card being dragged at the position it has been
+     * dragged to, in place of the card itself, until the drag ends.
+     *
+     * @param dragTransaction The drag in progress, or null once it has ended.
+     */
+    public void setDragTransaction(DragTransaction dragTransaction) {
+        if (dragTransaction == this.dragTransaction) return;
+        if (this.dragTransaction != null) {
+            this.repaintCard(this.dragTransaction.getCard());
+        }
+        this.dragTransaction = dragTransaction;
+        if (dragTransaction != null) this.repaintCard(dragTransaction.getCard());
+        this.repaintDragPreview();
+    }
+
+    /** Returns the drag in progress, or null if there is none. */
+    DragTransaction getDragTransaction() {
+        return this.dragTransaction;
+    }
+
+    /** Checks if the card passed is being moved by the drag in progress, which leaves only its outline behind. */
+    boolean isLiftedByDrag(Card card) {
+        return this.dragTransaction != null && !this.dragTransaction.isDuplicate() && this.dragTransaction.getCard() == card;
+    }
+
+    /**
+     * Repaints the area the dragged card was last displayed at and
+     * the area it is displayed at now, along with the place it was
+     * dragged from, which is outlined unless the card is duplicated.
+     */
+    public void repaintDragPreview() {
+        if (this.dragPreviewBounds != null) this.repaint(this.dragPreviewBounds);
+        if (this.dragTransaction == null) {
+            this.dragPreviewBounds = null;
+            return;
+        }
+
+        DragTransaction drag = this.dragTransaction;
+        int margin = this.calculateCardMargin();
+        this.dragPreviewBounds = new Rectangle(this.calculateCardStartXPos(drag.getPreviewDayIndex()) - margin,
+                this.calculateCardStartYPos(drag.getPreviewStartTimeInMinutes()) - margin,
+                this.calculateCardWidth() + 2 * margin, this.calculateCardHeight(drag.getPreviewDurationInMinutes()) + 2 * margin);
+        this.repaint(this.dragPreviewBounds);
+        this.repaintCard(this.dragTransaction.getCard());
+    }
+
+    /**
+     * Shows a handle along the bottom of the card passed, to show
+     * that dragging will resize it.
+     *
+     * @param card The card that would be resized, or null.
+     */
+    public void setResizeHandleCard(Card card) {
+        if (card == this.resizeHandleCard) return;
+        if (this.resizeHandleCard != null) this.repaintCard(this.resizeHandleCard);
+        this.resizeHandleCard = card;
+        if (card != null) this.repaintCard(card);
+    }
+
+    /** Returns the card showing a resize handle, or null if there is none. */
+    Card getResizeHandleCard() {
+        return this.resizeHandleCard;
+    }
+
     /**
      * Changes the time bar that is highlighted.
      *
@@ -481,77 +827,24 @@ public class WeekRenderer extends JPanel implements ActionListener {
                 return;
             }
         }
+        if (dayIndex == this.timeBarToHighlight.getFirstItem() && timeIndex == this.timeBarToHighlight.getSecondItem() &&
+                highlightLength == this.highlightLength) return;
+
+        this.repaintTimeBarHighlighted();
         this.timeBarToHighlight.setFirstItem(dayIndex);
         this.timeBarToHighlight.setSecondItem(timeIndex);
         this.highlightLength = highlightLength;
-        this.repaint();
+        this.repaintTimeBarHighlighted();
     }
 
-    /**
-     * Updates the card's properties if it can be placed at the
-     * area specified without colliding with another card.
-     *
-     * @param card The card to update.
-     * @param newDayIndex The new day index for the card.
-     * @param timeIndexDiff The difference in time for the card.
-     */
-    public boolean moveCard(Card card, int newDayIndex, int timeIndexDiff, Card ignoreCollision) {
-        int dayDiff = card.getDayIndex() - newDayIndex;
-        int minuteDiff = timeIndexDiff * TimeTracker.getMinuteGap();
-        if (card.getStartTimeInMinutes() + minuteDiff < 0 ||
-            card.getEndTimeInMinutes() + minuteDiff > 24 * 60) {
-            minuteDiff = 0;
-        }
-        int newStartTimeInMinutes = card.getStartTimeInMinutes() + minuteDiff;
-        int newEndTimeInMinutes = card.getEndTimeInMinutes() + minuteDiff;
-
-        boolean canAddCardAtNewPos = this.currWeek.canAddCard(newDayIndex, newStartTimeInMinutes, newEndTimeInMinutes, card, ignoreCollision);
-        boolean canRepositionCardOnOldDay = this.currWeek.canAddCard(card.getDayIndex(), newStartTimeInMinutes, newEndTimeInMinutes, card, ignoreCollision);
-        boolean canRepositionCardOnOldTime = this.currWeek.canAddCard(newDayIndex, card.getStartTimeInMinutes(), card.getEndTimeInMinutes(), card, ignoreCollision);
-        if (canRepositionCardOnOldDay && minuteDiff != 0) {
-            newDayIndex = card.getDayIndex();
-        } else if (canRepositionCardOnOldTime && dayDiff != 0) {
-            newStartTimeInMinutes = card.getStartTimeInMinutes();
-            newEndTimeInMinutes = card.getEndTimeInMinutes();
-            minuteDiff = 0;
-        } else if (!canAddCardAtNewPos) return false;
-
-        this.removeIfExists(card);
-        card.getDate().set(Calendar.DAY_OF_WEEK, newDayIndex + 1);
-        card.setStartTimeInMinutes(newStartTimeInMinutes);
-        card.setEndTimeInMinutes(newEndTimeInMinutes);
-        this.currWeek.addCard(card);
-
-        return minuteDiff != 0;
-    }
-
-    /**
-     * Resizes the card passed by incrementing or decrementing
-     * its end time.
-     *
-     * @param card The card to resize.
-     * @param timeIndexDiff The time change.
-     * @return The actual timeIndexDiff
-     */
-    public int resizeCard(Card card, int timeIndexDiff) {
-        int minuteDiff = timeIndexDiff * TimeTracker.getMinuteGap();
-        while (card.getDurationInMinutes() + minuteDiff < Card.DRAGGABLE_CARD_MIN_DURATION) {
-            minuteDiff += TimeTracker.getMinuteGap();
-            timeIndexDiff++;
-        }
-
-        int dayIndex = card.getDate().get(Calendar.DAY_OF_WEEK) - 1;
-        int startTime = card.getStartTimeInMinutes();
-        int newEndTime = card.getEndTimeInMinutes() + minuteDiff;
-        while (!this.currWeek.canAddCard(dayIndex, startTime, newEndTime, card)) {
-            newEndTime -= TimeTracker.getMinuteGap();
-            timeIndexDiff--;
-        }
+    /** Returns the day index of the highlighted time bar, or -1 if none is highlighted. */
+    int getTimeBarHighlightedDayIndex() {
+        return this.timeBarToHighlight.getFirstItem();
+    }
 
-        if (!this.currWeek.canAddCard(dayIndex, startTime, newEndTime, card)) return 0;
-        card.setEndTimeInMinutes(newEndTime);
-        this.repaint();
-        return timeIndexDiff;
+    /** Returns the highlighted time bar's length. */
+    int getTimeBarHighlightLength() {
+        return this.highlightLength;
     }
 
     /** Returns the time index of the highlighted time bar. */
@@ -594,7 +887,15 @@ public class WeekRenderer extends JPanel implements ActionListener {
         if (!cp.isSuccessful()) return;
 
         WeekManager.updateCard(card, cp);
-        this.repaint();
+    }
+
+    /** Displays a popup to allow the user to choose when
+     * the card repeats. */
+    public void repeatCard(Card card) {
+        RecurrencePopup rp = new RecurrencePopup(card);
+        if (!rp.isSuccessful()) return;
+
+        RecurrenceManager.repeatCard(card, rp.getDayIndexes(), rp.getIntervalInWeeks());
     }
 
     /**
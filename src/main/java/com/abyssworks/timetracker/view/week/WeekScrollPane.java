@@ -35,7 +35,7 @@ public class WeekScrollPane extends JScrollPane {
             this.weekHeader = new WeekHeader(new WeekRenderer(newWeek));
             this.setViewport(this.weekHeader);
         } else {
-            this.weekHeader.getView().updateDisplayedWeek(newWeek);
+            this.weekHeader.getWeekRenderer().updateDisplayedWeek(newWeek);
         }
         this.weekHeader.repaint();
     }
@@ -47,7 +47,7 @@ public class WeekScrollPane extends JScrollPane {
     public void updateWeekView(int oldPixPerMin) {
         int startScrollMinutes = this.weekHeader.getViewPosition().y / oldPixPerMin;
         this.weekHeader.setViewSize(new Dimension(0, 60 * 24 * GUI.getPixPerMin() + WeekHeader.HEADER_HEIGHT));
-        this.weekHeader.getView().setPreferredSize(new Dimension(0, 60 * 24 * GUI.getPixPerMin() + WeekHeader.HEADER_HEIGHT));
+        this.weekHeader.getWeekRenderer().setPreferredSize(new Dimension(0, 60 * 24 * GUI.getPixPerMin() + WeekHeader.HEADER_HEIGHT));
         this.weekHeader.revalidate();
         this.weekHeader.repaint();
 
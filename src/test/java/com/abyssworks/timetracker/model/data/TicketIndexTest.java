@@ -0,0 +1,85 @@
+package com.abyssworks.timetracker.model.data;
+
+import com.abyssworks.timetracker.model.event.ModelEvent;
+import com.abyssworks.timetracker.model.event.ModelEventBus;
+import com.abyssworks.timetracker.model.week.Card;
+import com.abyssworks.timetracker.util.Time;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * The following class checks how the ticket index finds the ticket
+ * typed in a ticket selector, and measures how long it takes to
+ * suggest tickets for every keystroke with many tickets loaded.
+ *
+ * @author Dysterio
+ */
+class TicketIndexTest {
+    private static final int TICKETS = 50_000;
+    private static final int ROUNDS = 20;
+    private static final String[] WORDS = {"login", "report", "export", "review", "deploy", "invoice", "search", "backup"};
+    private static final String[] KEYSTROKES = {"P", "PR", "PRJ", "PRJ-", "PRJ-1", "PRJ-12", "PRJ-123", "rev", "review ex", "rvw", "zzz"};
+
+    /** Checks that a tag is found even if a ticket whose tag starts with it was logged more recently. */
+    @Test
+    void exactTagIsFoundWhenALongerTagWasUsedMoreRecently() {
+        Ticket shortTicket = new Ticket("PROJ-1", "Set up the project");
+        Ticket longTicket = new Ticket("PROJ-10", "Write the release notes");
+        TicketIndex index = new TicketIndex();
+        index.update(Arrays.asList(shortTicket, longTicket));
+        // The event is only published, so the card is never added to the weeks.
+        ModelEventBus.publish(ModelEvent.cardAdded(new Card(Time.getCalendarFromEpochDay(20_000), longTicket, "Notes", 60, 120)));
+
+        assertSame(longTicket, index.find("PROJ-1", 1).get(0), "The ticket logged most recently should be suggested first.");
+        assertSame(shortTicket, index.get("PROJ-1"));
+        assertSame(shortTicket, index.get(" proj-1 "));
+        assertSame(longTicket, index.get("PROJ-10"));
+        assertNull(index.get("PROJ"));
+        assertNull(index.get(""));
+    }
+
+    /** Checks that the ticket found follows the tickets loaded. */
+    @Test
+    void exactTagFollowsReloadedTickets() {
+        TicketIndex index = new TicketIndex();
+        index.update(Arrays.asList(new Ticket("OLD-1", "Removed"), new Ticket("KEPT-1", "Old title")));
+        Ticket renamedTicket = new Ticket("KEPT-1", "New title");
+        index.update(Arrays.asList(renamedTicket, new Ticket("NEW-1", "Added")));
+
+        assertNull(index.get("OLD-1"));
+        assertSame(renamedTicket, index.get("KEPT-1"));
+        assertNotNull(index.get("NEW-1"));
+    }
+
+    /** Measures the suggestions for a sequence of keystrokes, and checks that each takes well under a frame. */
+    @Test
+    void keystrokesWithManyTicketsAreFast() {
+        List<Ticket> tickets = new ArrayList<>(TicketIndexTest.TICKETS);
+        for (int i = 0; i < TicketIndexTest.TICKETS; i++) {
+            String title = TicketIndexTest.WORDS[i % TicketIndexTest.WORDS.length] + " " +
+                    TicketIndexTest.WORDS[(i / TicketIndexTest.WORDS.length) % TicketIndexTest.WORDS.length] + " " + i;
+            tickets.add(new Ticket("PRJ-" + i, title));
+        }
+        TicketIndex index = new TicketIndex();
+        long buildStart = System.nanoTime();
+        index.update(tickets);
+        double buildMillis = (System.nanoTime() - buildStart) / 1e6;
+
+        // The fastest round is kept, once the code has been compiled.
+        double fastest = Double.MAX_VALUE;
+        int suggestions = 0;
+        for (int round = 0; round < TicketIndexTest.ROUNDS; round++) {
+            long start = System.nanoTime();
+            for (String keystroke : TicketIndexTest.KEYSTROKES) suggestions += index.find(keystroke, 20).size();
+            fastest = Math.min(fastest, (System.nanoTime() - start) / 1e6 / TicketIndexTest.KEYSTROKES.length);
+        }
+        assertTrue(suggestions > 0);
+        assertTrue(fastest < 5, "Suggesting tickets took " + fastest + " ms per keystroke, with " +
+                TicketIndexTest.TICKETS + " tickets indexed in " + buildMillis + " ms.");
+    }
+}
@@ -0,0 +1,142 @@
+package com.abyssworks.timetracker.model.week;
+
+import com.abyssworks.timetracker.TimeTracker;
+import com.abyssworks.timetracker.model.data.Ticket;
+import com.abyssworks.timetracker.util.Time;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Field;
+import java.util.Arrays;
+import java.util.Calendar;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * The following class checks the free slots found in the days, the
+ * placement of the worklogs imported around the cards already placed,
+ * and the loading of saved worklogs.
+ *
+ * @author Dysterio
+ */
+class FreeSlotFinderTest {
+    private static final long DAY = 20_000;
+    private static final Ticket TICKET = new Ticket("SLOT-1", "Free slots");
+
+    private int previousMinuteGap;
+
+    @BeforeEach
+    void setUp() throws ReflectiveOperationException {
+        WeekManager.clear();
+        this.previousMinuteGap = TimeTracker.getMinuteGap();
+        FreeSlotFinderTest.setMinuteGap(15);
+    }
+
+    @AfterEach
+    void restoreMinuteGap() throws ReflectiveOperationException {
+        FreeSlotFinderTest.setMinuteGap(this.previousMinuteGap);
+    }
+
+    /** Checks that the slots between the cards are shrunk to the minute gap and filtered by their duration. */
+    @Test
+    void freeSlotsAreAlignedToTheMinuteGap() {
+        Calendar date = Time.getCalendarFromEpochDay(FreeSlotFinderTest.DAY);
+        WeekManager.addCards(Arrays.asList(
+                new Card(date, FreeSlotFinderTest.TICKET, "Morning", 60, 125),
+                new Card(date, FreeSlotFinderTest.TICKET, "Noon", 200, 300)));
+
+        List<FreeSlot> slots = FreeSlotFinder.findFreeSlots(date, 0);
+        assertEquals(3, slots.size());
+        FreeSlotFinderTest.assertSlot(slots.get(0), FreeSlotFinderTest.DAY, 0, 60);
+        FreeSlotFinderTest.assertSlot(slots.get(1), FreeSlotFinderTest.DAY, 135, 195);
+        FreeSlotFinderTest.assertSlot(slots.get(2), FreeSlotFinderTest.DAY, 300, 60 * 24);
+
+        List<FreeSlot> longSlots = FreeSlotFinder.findFreeSlots(date, 61);
+        assertEquals(1, longSlots.size());
+        FreeSlotFinderTest.assertSlot(longSlots.get(0), FreeSlotFinderTest.DAY, 300, 60 * 24);
+    }
+
+    /** Checks that imported cards are only moved if they collide, whatever order they are passed in. */
+    @Test
+    void importedCardsArePlacedAroundEarlierCards() {
+        long day = FreeSlotFinderTest.DAY;
+        Calendar date = Time.getCalendarFromEpochDay(day);
+        WeekManager.addCard(new Card(date, FreeSlotFinderTest.TICKET, "Existing", 600, 660));
+        Card collidingCard = new Card(date, FreeSlotFinderTest.TICKET, "Colliding", 600, 630);
+        Card followingCard = new Card(date, FreeSlotFinderTest.TICKET, "Following", 620, 680);
+        Card freeCard = new Card(date, FreeSlotFinderTest.TICKET, "Free", 900, 960);
+
+        List<Card> cardsNotPlaced = FreeSlotFinder.placeInNextFreeSlots(Arrays.asList(freeCard, followingCard, collidingCard));
+
+        assertTrue(cardsNotPlaced.isEmpty());
+        FreeSlotFinderTest.assertCard(collidingCard, day, 660, 690);
+        FreeSlotFinderTest.assertCard(followingCard, day, 690, 750);
+        FreeSlotFinderTest.assertCard(freeCard, day, 900, 960);
+        assertEquals(4, WeekManager.getDay(date).getCards().size());
+    }
+
+    /** Checks that a card that fits keeps its unaligned time, and that a colliding card is moved to the first free minute. */
+    @Test
+    void placedCardsAreNotAlignedToTheMinuteGap() {
+        long day = FreeSlotFinderTest.DAY;
+        Calendar date = Time.getCalendarFromEpochDay(day);
+        WeekManager.addCard(new Card(date, FreeSlotFinderTest.TICKET, "Existing", 9 * 60, 10 * 60));
+        Card freeCard = new Card(date, FreeSlotFinderTest.TICKET, "Free", 10 * 60 + 7, 11 * 60 + 7);
+        Card collidingCard = new Card(date, FreeSlotFinderTest.TICKET, "Colliding", 9 * 60 + 53, 10 * 60);
+
+        List<Card> cardsNotPlaced = FreeSlotFinder.placeInNextFreeSlots(Arrays.asList(freeCard, collidingCard));
+
+        assertTrue(cardsNotPlaced.isEmpty());
+        FreeSlotFinderTest.assertCard(freeCard, day, 10 * 60 + 7, 11 * 60 + 7);
+        FreeSlotFinderTest.assertCard(collidingCard, day, 10 * 60, 10 * 60 + 7);
+    }
+
+    /** Checks that loaded worklogs keep the times they were saved with, even if they overlap. */
+    @Test
+    void loadedWorklogsAreNotMoved() {
+        long day = FreeSlotFinderTest.DAY;
+        Calendar date = Time.getCalendarFromEpochDay(day);
+        Card card = new Card(date, FreeSlotFinderTest.TICKET, "Saved", 10 * 60 + 7, 11 * 60);
+        Card overlappingCard = new Card(date, FreeSlotFinderTest.TICKET, "Overlapping", 10 * 60 + 30, 11 * 60 + 30);
+
+        WeekManager.loadCards(Arrays.asList(card, overlappingCard));
+
+        FreeSlotFinderTest.assertCard(card, day, 10 * 60 + 7, 11 * 60);
+        FreeSlotFinderTest.assertCard(overlappingCard, day, 10 * 60 + 30, 11 * 60 + 30);
+    }
+
+    /** Checks that a card that does not fit in the rest of its day is moved to the next day. */
+    @Test
+    void cardThatDoesNotFitIsMovedToTheNextDay() {
+        long day = FreeSlotFinderTest.DAY;
+        Calendar date = Time.getCalendarFromEpochDay(day);
+        WeekManager.addCard(new Card(date, FreeSlotFinderTest.TICKET, "Evening", 18 * 60, 23 * 60));
+        Card card = new Card(date, FreeSlotFinderTest.TICKET, "Late", 22 * 60, 24 * 60);
+
+        assertTrue(FreeSlotFinder.placeInNextFreeSlot(card));
+        FreeSlotFinderTest.assertCard(card, day + 1, 0, 120);
+        assertNull(FreeSlotFinder.findNextFreeSlot(date, 23 * 60, 120, 1));
+    }
+
+    /** Sets the minute gap without repainting the GUI, which the tests do not create. */
+    private static void setMinuteGap(int minuteGap) throws ReflectiveOperationException {
+        Field minuteGapField = TimeTracker.class.getDeclaredField("minuteGap");
+        minuteGapField.setAccessible(true);
+        minuteGapField.setInt(null, minuteGap);
+    }
+
+    private static void assertSlot(FreeSlot slot, long epochDay, int startTimeInMinutes, int endTimeInMinutes) {
+        assertEquals(epochDay, slot.EPOCH_DAY);
+        assertEquals(startTimeInMinutes, slot.START_TIME_IN_MINUTES);
+        assertEquals(endTimeInMinutes, slot.END_TIME_IN_MINUTES);
+    }
+
+    private static void assertCard(Card card, long epochDay, int startTimeInMinutes, int endTimeInMinutes) {
+        assertEquals(epochDay, Time.getEpochDay(card.getDate()));
+        assertEquals(startTimeInMinutes, card.getStartTimeInMinutes());
+        assertEquals(endTimeInMinutes, card.getEndTimeInMinutes());
+        assertTrue(WeekManager.getDay(card.getDate()).getCards().contains(card), "The card was not placed in its day.");
+    }
+}
@@ -0,0 +1,48 @@
+package com.abyssworks.timetracker.model.week;
+
+import com.abyssworks.timetracker.model.data.Ticket;
+import com.abyssworks.timetracker.util.Time;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * The following class checks that the weeks that have not been loaded
+ * are read with the occurrences they would be loaded with, without
+ * being created.
+ *
+ * @author Dysterio
+ */
+class RecurrenceManagerTest {
+    // The weeks start on Sundays, and the epoch fell on a Thursday.
+    private static final long WEEK_START_DAY = 3;
+    private static final Ticket TICKET = new Ticket("RULE-1", "Recurrence");
+
+    @BeforeEach
+    void clearModel() {
+        WeekManager.clear();
+    }
+
+    /** Checks that a week that was never loaded is projected with the occurrences that fit, and is not stored. */
+    @Test
+    void unloadedWeeksAreProjectedWithoutBeingStored() {
+        RecurrenceRule mondays = new RecurrenceRule(Time.getCalendarFromEpochDay(RecurrenceManagerTest.WEEK_START_DAY),
+                Collections.singletonList(1), 1, RecurrenceManagerTest.TICKET, "Mondays", 60, 120);
+        RecurrenceRule collidingMondays = new RecurrenceRule(Time.getCalendarFromEpochDay(RecurrenceManagerTest.WEEK_START_DAY),
+                Arrays.asList(1, 2), 1, RecurrenceManagerTest.TICKET, "Mondays and Tuesdays", 90, 150);
+        RecurrenceManager.addRules(Arrays.asList(mondays, collidingMondays));
+        long weekStartDay = RecurrenceManagerTest.WEEK_START_DAY + 7 * 10;
+
+        Week week = WeekManager.read(() -> WeekManager.getProjectedWeek(weekStartDay));
+
+        assertEquals(60, week.getDayAtIndex(1).getTimeAggregate().getTotalMinutes(), "The colliding occurrence was not skipped.");
+        assertEquals(60, week.getDayAtIndex(2).getTimeAggregate().getTotalMinutes());
+        assertSame(Week.EMPTY, WeekManager.getStoredWeek(weekStartDay), "Projecting the week stored it.");
+        assertSame(Week.EMPTY, WeekManager.read(() -> WeekManager.getProjectedWeek(RecurrenceManagerTest.WEEK_START_DAY - 7)),
+                "A week before the rules started was projected with occurrences.");
+    }
+}
@@ -0,0 +1,97 @@
+package com.abyssworks.timetracker.model.week;
+
+import com.abyssworks.timetracker.model.data.Ticket;
+import com.abyssworks.timetracker.util.AllocationCounter;
+import com.abyssworks.timetracker.util.Time;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Calendar;
+import java.util.Collections;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * The following class measures the memory allocated by looking up
+ * weeks and days while the user navigates between weeks and drags a
+ * card around, which used to create a throwaway week on every call.
+ *
+ * @author Dysterio
+ */
+class WeekLookupAllocationTest {
+    // The weeks start on Sundays, and the epoch fell on a Thursday.
+    private static final long WEEK_START_DAY = 3;
+
+    @BeforeEach
+    void clearModel() {
+        WeekManager.clear();
+    }
+
+    /** Checks that hovering over the displayed week and over weeks that were never created allocates nothing. */
+    @Test
+    void dragHoverDoesNotAllocate() {
+        AllocationCounter allocationCounter = AllocationCounter.create();
+        Ticket ticket = new Ticket("ALLOC-1", "Allocation");
+        Week week = WeekManager.getDisplayWeek();
+        Calendar date = week.getStartDate();
+        date.add(Calendar.DATE, 2);
+        Card card = new Card(date, ticket, "Hovered", 600, 660);
+        WeekManager.addCard(card);
+
+        // The rule repeats on Mondays only, so every lookup of the Wednesday below has to check it.
+        Calendar ruleStartDate = Time.getCalendarFromEpochDay(WeekLookupAllocationTest.WEEK_START_DAY);
+        RecurrenceRule rule = new RecurrenceRule(ruleStartDate, Collections.singletonList(1), 1, ticket, "Repeated", 60, 120);
+        RecurrenceManager.addRules(Collections.singletonList(rule));
+        Calendar emptyDate = Time.getCalendarFromEpochDay(WeekLookupAllocationTest.WEEK_START_DAY + 7 * 10 + 3);
+
+        double bytesPerHover = allocationCounter.measure(() -> {
+            Week displayWeek = WeekManager.getDisplayWeek();
+            int canAdd = displayWeek.canAddCard(2, 600, 700, card) ? 1 : 0;
+            canAdd += displayWeek.getDayAtIndex(3).canAddCard(600, 700, card, null) ? 1 : 0;
+            canAdd += WeekManager.checkIfCardCanBeAdded(emptyDate, 600, 660, null) ? 1 : 0;
+            return canAdd;
+        });
+
+        assertTrue(bytesPerHover < 1, "Hovering allocated " + bytesPerHover + " bytes per mouse movement.");
+        assertSame(Week.EMPTY, WeekManager.getStoredWeek(WeekLookupAllocationTest.WEEK_START_DAY + 7 * 10),
+                "Looking up a day without occurrences created its week.");
+        assertFalse(WeekManager.checkIfCardCanBeAdded(Time.getCalendarFromEpochDay(WeekLookupAllocationTest.WEEK_START_DAY + 7 * 10 + 1), 60, 120, null),
+                "The occurrence of the rule was not found.");
+    }
+
+    /** Checks that navigating between stored weeks reuses them, allocating no more than a copy of the displayed date per step. */
+    @Test
+    void weekNavigationReusesStoredWeeks() {
+        AllocationCounter allocationCounter = AllocationCounter.create();
+        Ticket ticket = new Ticket("ALLOC-2", "Allocation");
+        long firstWeekStartDay = WeekLookupAllocationTest.WEEK_START_DAY;
+        WeekManager.addCards(Arrays.asList(
+                new Card(Time.getCalendarFromEpochDay(firstWeekStartDay + 1), ticket, "First", 60, 120),
+                new Card(Time.getCalendarFromEpochDay(firstWeekStartDay + 8), ticket, "Second", 60, 120)));
+        Week firstWeek = WeekManager.getStoredWeek(firstWeekStartDay);
+        Week secondWeek = WeekManager.getStoredWeek(firstWeekStartDay + 7);
+
+        Calendar presentDate = WeekManager.getDisplayWeek().getStartDate();
+        try {
+            WeekManager.changeWeek(Time.getCalendarFromEpochDay(firstWeekStartDay));
+            assertSame(firstWeek, WeekManager.getDisplayWeek());
+            double bytesPerStep = allocationCounter.measure(() -> {
+                WeekManager.changeWeek(WeekManager.NEXT);
+                Week next = WeekManager.getDisplayWeek();
+                WeekManager.changeWeek(WeekManager.PREV);
+                Week previous = WeekManager.getDisplayWeek();
+                return (int) (next.getStartDay() - previous.getStartDay());
+            }) / 2;
+            // Each step copies the displayed week's start date and boxes its key, but creates no week.
+            double bytesPerDateCopy = allocationCounter.measure(() -> ((Calendar) presentDate.clone()).get(Calendar.DAY_OF_WEEK));
+
+            assertTrue(bytesPerStep <= bytesPerDateCopy + 128,
+                    "Navigating allocated " + bytesPerStep + " bytes per step, while copying a date allocates " + bytesPerDateCopy + " bytes.");
+            WeekManager.changeWeek(WeekManager.NEXT);
+            assertSame(secondWeek, WeekManager.getDisplayWeek());
+        } finally {
+            WeekManager.changeWeek(presentDate);
+        }
+    }
+}
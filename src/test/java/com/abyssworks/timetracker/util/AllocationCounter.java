@@ -0,0 +1,57 @@
+package com.abyssworks.timetracker.util;
+
+import java.lang.management.ManagementFactory;
+import java.util.function.IntSupplier;
+
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * The following class measures the memory allocated by the current
+ * thread while running an operation. Every measurement is repeated
+ * until the code has been compiled, and the lowest rate is kept.
+ *
+ * @author Dysterio
+ */
+public class AllocationCounter {
+    private static final int ITERATIONS = 100_000;
+    private static final int ROUNDS = 10;
+    // Consumes the results of the operations measured, so they are not optimized away.
+    private static volatile long sink;
+
+    private final com.sun.management.ThreadMXBean threads;
+
+    private AllocationCounter(com.sun.management.ThreadMXBean threads) {
+        this.threads = threads;
+    }
+
+    /** Returns a counter of the memory allocated by the current thread, or skips the test if the JVM does not count it. */
+    public static AllocationCounter create() {
+        java.lang.management.ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        assumeTrue(threads instanceof com.sun.management.ThreadMXBean, "The JVM does not count allocations.");
+        com.sun.management.ThreadMXBean allocationCounter = (com.sun.management.ThreadMXBean) threads;
+        assumeTrue(allocationCounter.isThreadAllocatedMemorySupported(), "The JVM does not count allocations.");
+        allocationCounter.setThreadAllocatedMemoryEnabled(true);
+        return new AllocationCounter(allocationCounter);
+    }
+
+    /**
+     * Runs the operation passed repeatedly and returns the lowest
+     * number of bytes it allocated per run over the rounds.
+     *
+     * @param operation The operation to measure, which returns a value so it is not optimized away.
+     * @return The bytes allocated per run.
+     */
+    public double measure(IntSupplier operation) {
+        long threadId = Thread.currentThread().getId();
+        double lowest = Double.MAX_VALUE;
+        long sink = 0;
+        for (int round = 0; round < AllocationCounter.ROUNDS; round++) {
+            long before = this.threads.getThreadAllocatedBytes(threadId);
+            for (int i = 0; i < AllocationCounter.ITERATIONS; i++) sink += operation.getAsInt();
+            long after = this.threads.getThreadAllocatedBytes(threadId);
+            lowest = Math.min(lowest, (after - before) / (double) AllocationCounter.ITERATIONS);
+        }
+        AllocationCounter.sink = sink;
+        return lowest;
+    }
+}
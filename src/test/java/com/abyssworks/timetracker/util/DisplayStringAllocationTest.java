@@ -0,0 +1,43 @@
+package com.abyssworks.timetracker.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * The following class measures the memory allocated by looking up the
+ * strings measured and truncated for the cards, which are looked up
+ * for every card on every paint.
+ *
+ * @author Dysterio
+ */
+class DisplayStringAllocationTest {
+    private static final String TEXT = "Reviewing the quarterly report with the team";
+
+    /** Checks that looking up strings already in the cache allocates nothing and returns the cached layouts. */
+    @Test
+    void cachedLookupsDoNotAllocate() {
+        AllocationCounter allocationCounter = AllocationCounter.create();
+        Graphics2D g = new BufferedImage(1, 1, BufferedImage.TYPE_INT_RGB).createGraphics();
+        g.setFont(new Font("Arial", Font.PLAIN, 10));
+        DisplayString dimensions = DisplayString.getStringDimensions(g, DisplayStringAllocationTest.TEXT);
+        DisplayString truncated = DisplayString.truncateStringToFitWidth(g, DisplayStringAllocationTest.TEXT, 80, true);
+        List<DisplayString> wrapped = DisplayString.truncateStringToFitWidthAndHeight(g, DisplayStringAllocationTest.TEXT, 80, 40);
+
+        double bytesPerCard = allocationCounter.measure(() ->
+                DisplayString.getStringDimensions(g, DisplayStringAllocationTest.TEXT).WIDTH +
+                DisplayString.truncateStringToFitWidth(g, DisplayStringAllocationTest.TEXT, 80, true).WIDTH +
+                DisplayString.truncateStringToFitWidthAndHeight(g, DisplayStringAllocationTest.TEXT, 80, 40).size());
+
+        assertTrue(bytesPerCard < 1, "Looking up cached strings allocated " + bytesPerCard + " bytes per card.");
+        assertSame(dimensions, DisplayString.getStringDimensions(g, DisplayStringAllocationTest.TEXT));
+        assertSame(truncated, DisplayString.truncateStringToFitWidth(g, DisplayStringAllocationTest.TEXT, 80, true));
+        assertSame(wrapped, DisplayString.truncateStringToFitWidthAndHeight(g, DisplayStringAllocationTest.TEXT, 80, 40));
+        assertNotSame(truncated, DisplayString.truncateStringToFitWidth(g, DisplayStringAllocationTest.TEXT, 60, true));
+        g.dispose();
+    }
+}